@@ -0,0 +1,65 @@
+package io.toolisticon.cute;
+
+import io.toolisticon.cute.benchmark.BenchmarkProcessor;
+import io.toolisticon.cute.benchmark.BenchmarkSources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures indexing the generated classes and defining them with a fresh {@link CuteClassLoaderImpl}.
+ * Located in the cute package to be able to use the compilation result directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CuteClassLoaderBenchmark {
+
+    @Param({"1", "100"})
+    public int numberOfClasses;
+
+    private CompileTestFileManager compileTestFileManager;
+
+    @Setup
+    public void setup() {
+
+        CuteApi.CompilerTestBB compileTestConfiguration = Cute.blackBoxTest()
+                .given().processor(BenchmarkProcessor.class)
+                .andSourceFiles(BenchmarkSources.createSourceFiles(numberOfClasses))
+                .whenCompiled()
+                .thenExpectThat().compilationSucceeds()
+                .createCompileTestConfiguration();
+
+        CompilationResult compilationResult = new CompileTest(compileTestConfiguration).executeTest();
+
+        // the class loader of the result makes sure that lazily generated class files are available
+        compilationResult.getClassLoader();
+        compileTestFileManager = compilationResult.getCompileTestFileManager();
+
+    }
+
+    @Benchmark
+    public void defineAllGeneratedClasses(Blackhole blackhole) throws ClassNotFoundException {
+
+        CuteClassLoader cuteClassLoader = new CuteClassLoaderImpl(compileTestFileManager);
+        for (int i = 0; i < numberOfClasses; i++) {
+            blackhole.consume(cuteClassLoader.getClass(BenchmarkSources.getGeneratedClassName(i)));
+        }
+
+    }
+
+}
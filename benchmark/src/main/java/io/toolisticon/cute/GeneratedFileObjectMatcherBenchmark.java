@@ -0,0 +1,99 @@
+package io.toolisticon.cute;
+
+import io.toolisticon.cute.benchmark.BenchmarkSources;
+import io.toolisticon.cute.matchers.CoreGeneratedFileObjectMatchers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the matchers provided by {@link CoreGeneratedFileObjectMatchers} on large generated files.
+ * Located in the cute package to be able to create generated file objects the same way the compiler does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class GeneratedFileObjectMatcherBenchmark {
+
+    private static final String PACKAGE_NAME = "io.toolisticon.cute.benchmark";
+
+    @Param({"65536", "4194304"})
+    public int fileSize;
+
+    private FileObject actualFileObject;
+
+    private GeneratedFileObjectMatcher regexMatcher;
+    private GeneratedFileObjectMatcher containsSubstringsMatcher;
+    private GeneratedFileObjectMatcher wellFormedXmlMatcher;
+    private GeneratedFileObjectMatcher ignoreLineEndingsMatcher;
+    private GeneratedFileObjectMatcher binaryMatcher;
+
+    @Setup
+    public void setup() {
+
+        String content = BenchmarkSources.createXmlDocument(fileSize, "\n");
+
+        CompileTestFileManager compileTestFileManager = new CompileTestFileManager(ToolProvider.getSystemJavaCompiler().getStandardFileManager(null, null, null), Collections.emptyList());
+        compileTestFileManager.addGeneratedFileObject(StandardLocation.CLASS_OUTPUT, PACKAGE_NAME, "actual.xml", content.getBytes(StandardCharsets.UTF_8));
+        compileTestFileManager.addGeneratedFileObject(StandardLocation.CLASS_OUTPUT, PACKAGE_NAME, "expected.xml", content.getBytes(StandardCharsets.UTF_8));
+        compileTestFileManager.addGeneratedFileObject(StandardLocation.CLASS_OUTPUT, PACKAGE_NAME, "expectedWithOtherLineEndings.xml", BenchmarkSources.createXmlDocument(fileSize, "\r\n").getBytes(StandardCharsets.UTF_8));
+
+        actualFileObject = getFileObject(compileTestFileManager, "actual.xml");
+
+        regexMatcher = CoreGeneratedFileObjectMatchers.createRegexMatcher(".*<entry id=\"LAST\">last value</entry>.*");
+        containsSubstringsMatcher = CoreGeneratedFileObjectMatchers.createContainsSubstringsMatcher("<entries>", "<entry id=\"1000\">", "<entry id=\"LAST\">", "</entries>");
+        wellFormedXmlMatcher = CoreGeneratedFileObjectMatchers.createIsWellFormedXmlMatcher();
+        ignoreLineEndingsMatcher = CoreGeneratedFileObjectMatchers.createIgnoreLineEndingsMatcher(getFileObject(compileTestFileManager, "expectedWithOtherLineEndings.xml"));
+        binaryMatcher = CoreGeneratedFileObjectMatchers.createBinaryMatcher(getFileObject(compileTestFileManager, "expected.xml"));
+
+    }
+
+    private static FileObject getFileObject(CompileTestFileManager compileTestFileManager, String relativeName) {
+        return compileTestFileManager.getGeneratedFileObject(StandardLocation.CLASS_OUTPUT, CompileTestFileManager.pathForFileObject(PACKAGE_NAME, relativeName));
+    }
+
+    @Benchmark
+    public boolean regex() throws IOException {
+        return regexMatcher.check(actualFileObject);
+    }
+
+    @Benchmark
+    public boolean containsSubstrings() throws IOException {
+        return containsSubstringsMatcher.check(actualFileObject);
+    }
+
+    @Benchmark
+    public boolean wellFormedXml() throws IOException {
+        return wellFormedXmlMatcher.check(actualFileObject);
+    }
+
+    @Benchmark
+    public boolean ignoreLineEndings() throws IOException {
+        return ignoreLineEndingsMatcher.check(actualFileObject);
+    }
+
+    @Benchmark
+    public boolean binary() throws IOException {
+        return binaryMatcher.check(actualFileObject);
+    }
+
+}
@@ -0,0 +1,65 @@
+package io.toolisticon.cute.benchmark;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Processor used by the benchmarks.
+ * Generates a class for each class passed in as source file.
+ */
+public class BenchmarkProcessor extends AbstractProcessor {
+
+    static final String GENERATED_CLASS_SUFFIX = "Generated";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        for (Element element : roundEnv.getRootElements()) {
+
+            if (element.getKind() != ElementKind.CLASS || element.getSimpleName().toString().endsWith(GENERATED_CLASS_SUFFIX)) {
+                continue;
+            }
+
+            TypeElement typeElement = (TypeElement) element;
+            String packageName = processingEnv.getElementUtils().getPackageOf(typeElement).getQualifiedName().toString();
+            String simpleName = typeElement.getSimpleName() + GENERATED_CLASS_SUFFIX;
+
+            try {
+                JavaFileObject javaFileObject = processingEnv.getFiler().createSourceFile(packageName + "." + simpleName, typeElement);
+                try (Writer writer = javaFileObject.openWriter()) {
+                    writer.write("package " + packageName + ";\n\n"
+                            + "public class " + simpleName + " {\n"
+                            + "    public String getName() {\n"
+                            + "        return \"" + typeElement.getQualifiedName() + "\";\n"
+                            + "    }\n"
+                            + "}\n");
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+
+        }
+
+        return false;
+    }
+
+}
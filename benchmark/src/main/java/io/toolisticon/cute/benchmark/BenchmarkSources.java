@@ -0,0 +1,93 @@
+package io.toolisticon.cute.benchmark;
+
+import io.toolisticon.cute.JavaFileObjectUtils;
+
+import javax.tools.JavaFileObject;
+
+/**
+ * Creates the inputs used by the benchmarks.
+ */
+public final class BenchmarkSources {
+
+    public static final String PACKAGE_NAME = "io.toolisticon.cute.benchmark.source";
+
+    /**
+     * Hidden constructor.
+     */
+    private BenchmarkSources() {
+
+    }
+
+    /**
+     * Gets the fully qualified name of a source class created by {@link #createSourceFiles(int)}.
+     *
+     * @param index the index of the source class
+     * @return the fully qualified class name
+     */
+    public static String getClassName(int index) {
+        return PACKAGE_NAME + ".Source" + index;
+    }
+
+    /**
+     * Gets the fully qualified name of the class generated by the {@link BenchmarkProcessor} for a source class.
+     *
+     * @param index the index of the source class
+     * @return the fully qualified class name
+     */
+    public static String getGeneratedClassName(int index) {
+        return getClassName(index) + BenchmarkProcessor.GENERATED_CLASS_SUFFIX;
+    }
+
+    /**
+     * Creates source files, each of them containing one class with a few fields and methods.
+     *
+     * @param count the number of source files to create
+     * @return the source files
+     */
+    public static JavaFileObject[] createSourceFiles(int count) {
+
+        JavaFileObject[] result = new JavaFileObject[count];
+        for (int i = 0; i < count; i++) {
+
+            StringBuilder content = new StringBuilder()
+                    .append("package ").append(PACKAGE_NAME).append(";\n\n")
+                    .append("public class Source").append(i).append(" {\n");
+            for (int j = 0; j < 10; j++) {
+                content.append("    private String field").append(j).append(";\n")
+                        .append("    public String getField").append(j).append("() {\n")
+                        .append("        return field").append(j).append(";\n")
+                        .append("    }\n");
+            }
+            content.append("}\n");
+
+            result[i] = JavaFileObjectUtils.readFromString(getClassName(i), content.toString());
+
+        }
+        return result;
+
+    }
+
+    /**
+     * Creates a well-formed xml document of roughly the passed size.
+     * Documents created with the same size only differ in their line endings.
+     *
+     * @param size       the approximate size in characters
+     * @param lineEnding the line ending to use
+     * @return the xml document
+     */
+    public static String createXmlDocument(int size, String lineEnding) {
+
+        StringBuilder content = new StringBuilder(size + 128)
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>").append(lineEnding)
+                .append("<entries>").append(lineEnding);
+        int numberOfEntries = Math.max(1, size / 36);
+        for (int i = 0; i < numberOfEntries; i++) {
+            content.append("    <entry id=\"").append(i).append("\">value ").append(i).append("</entry>").append(lineEnding);
+        }
+        content.append("    <entry id=\"LAST\">last value</entry>").append(lineEnding)
+                .append("</entries>").append(lineEnding);
+        return content.toString();
+
+    }
+
+}
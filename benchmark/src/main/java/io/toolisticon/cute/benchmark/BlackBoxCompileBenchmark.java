@@ -0,0 +1,52 @@
+package io.toolisticon.cute.benchmark;
+
+import io.toolisticon.cute.Cute;
+import io.toolisticon.cute.CuteApi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.tools.JavaFileObject;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures black-box tests compiling a varying number of source files with one processor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BlackBoxCompileBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int numberOfSourceFiles;
+
+    private JavaFileObject[] sourceFiles;
+
+    @Setup
+    public void setup() {
+        sourceFiles = BenchmarkSources.createSourceFiles(numberOfSourceFiles);
+    }
+
+    @Benchmark
+    public CuteApi.DoCustomAssertions compile() {
+        return Cute.blackBoxTest()
+                .given().processor(BenchmarkProcessor.class)
+                .andSourceFiles(sourceFiles)
+                .whenCompiled()
+                .thenExpectThat().compilationSucceeds()
+                .andThat().generatedSourceFile(BenchmarkSources.getGeneratedClassName(numberOfSourceFiles - 1)).exists()
+                .executeTest();
+    }
+
+}
@@ -0,0 +1,49 @@
+package io.toolisticon.cute.benchmark;
+
+import io.toolisticon.cute.Cute;
+import io.toolisticon.cute.CuteApi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.lang.model.element.TypeElement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures unit tests that get an element passed in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class UnitTestPassInBenchmark {
+
+    private static final String CLASS_NAME = "io.toolisticon.cute.benchmark.source.PassInClass";
+
+    private static final String SOURCE = "package io.toolisticon.cute.benchmark.source;\n"
+            + "\n"
+            + "@io.toolisticon.cute.PassIn\n"
+            + "public class PassInClass {\n"
+            + "    public String getName() {\n"
+            + "        return \"PassInClass\";\n"
+            + "    }\n"
+            + "}\n";
+
+    @Benchmark
+    public CuteApi.DoCustomAssertions passInElementFromSourceString(Blackhole blackhole) {
+        return Cute.unitTest()
+                .when().passInElement().<TypeElement>fromSourceString(CLASS_NAME, SOURCE)
+                .intoUnitTest((processingEnvironment, element) -> blackhole.consume(element.getQualifiedName()))
+                .executeTest();
+    }
+
+}
@@ -1,7 +1,6 @@
 package io.toolisticon.cute;
 
 import javax.annotation.processing.Completion;
-import javax.annotation.processing.Messager;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.Processor;
 import javax.annotation.processing.RoundEnvironment;
@@ -11,12 +10,14 @@ import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
-import javax.tools.Diagnostic;
 
 import io.toolisticon.cute.CuteApi.ExceptionAssertion;
 import io.toolisticon.cute.CuteApi.ExceptionCheckBB;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -26,11 +27,14 @@ final class AnnotationProcessorWrapper implements Processor {
 
     private final Processor wrappedProcessor;
     private final ExceptionCheckBB exceptionChecks;
-    private Messager messager;
 
-    private boolean firstRound = true;
+    private volatile boolean applied = false;
+    private volatile CompilationLimits compilationLimits;
     private boolean expectedExceptionWasThrown = false;
 
+    private long initNanos;
+    private final List<Duration> roundDurations = new ArrayList<>();
+
     private AnnotationProcessorWrapper(Processor processor) {
         this(processor, null);
     }
@@ -59,23 +63,28 @@ final class AnnotationProcessorWrapper implements Processor {
     @Override
     public void init(ProcessingEnvironment processingEnv) {
 
-        // get messager
-        messager = processingEnv.getMessager();
-
-        wrappedProcessor.init(processingEnv);
+        long start = System.nanoTime();
+        try {
+            wrappedProcessor.init(processingEnv);
+        } finally {
+            initNanos += System.nanoTime() - start;
+        }
     }
 
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
 
-        if (firstRound) {
-            // now set note message before calling the processor
-            messager.printMessage(Diagnostic.Kind.NOTE, getProcessorWasAppliedMessage());
-            firstRound = false;
+        // must be set before calling the processor, since processor might fail
+        applied = true;
+
+        CompilationLimits currentCompilationLimits = compilationLimits;
+        if (currentCompilationLimits != null) {
+            currentCompilationLimits.roundStarted(roundEnv);
         }
 
         boolean returnValue;
 
+        long start = System.nanoTime();
         try {
 
             returnValue = wrappedProcessor.process(annotations, roundEnv);
@@ -87,6 +96,11 @@ final class AnnotationProcessorWrapper implements Processor {
                 throw (AssertionError) e;
             }
 
+            // pass through aborted compilations in fail-fast mode and exceeded compilation limits
+            if ((FailFastDiagnosticListener.isCausedByAbort(e) || CompilationLimits.isCausedByExceededLimit(e)) && e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+
             if (this.exceptionChecks != null && this.exceptionChecks.getExceptionIsThrown() != null) {
 
                 if (!this.exceptionChecks.getExceptionIsThrown().isAssignableFrom(e.getClass())) {
@@ -117,6 +131,8 @@ final class AnnotationProcessorWrapper implements Processor {
 
             return true;
 
+        } finally {
+            roundDurations.add(Duration.ofNanos(System.nanoTime() - start));
         }
 
         // check in last round if expected exception has been thrown - in this case trigger assertion error
@@ -140,8 +156,40 @@ final class AnnotationProcessorWrapper implements Processor {
         return wrappedProcessor.getCompletions(element, annotation, member, userText);
     }
 
-    public String getProcessorWasAppliedMessage() {
-        return CompileTestUtilities.getAnnotationProcessorWasAppliedMessage(wrappedProcessor);
+    /**
+     * Sets the limits of the current compilation.
+     *
+     * @param compilationLimits the limits or null if compilation isn't limited
+     */
+    void setCompilationLimits(CompilationLimits compilationLimits) {
+        this.compilationLimits = compilationLimits;
+    }
+
+    /**
+     * Checks whether the process method of the wrapped processor has been called.
+     *
+     * @return true if processor has been applied, otherwise false
+     */
+    boolean wasApplied() {
+        return applied;
+    }
+
+    /**
+     * Gets the name of the wrapped processors class, used to identify the processor in compilation results.
+     *
+     * @return the class name
+     */
+    String getWrappedProcessorClassName() {
+        return wrappedProcessor.getClass().getName();
+    }
+
+    /**
+     * Gets the time spent in the wrapped processor.
+     *
+     * @return the timings of the init method and of each processing round
+     */
+    CompilationTimings.ProcessorTimings getTimings() {
+        return new CompilationTimings.ProcessorTimings(getWrappedProcessorClassName(), Duration.ofNanos(initNanos), roundDurations);
     }
 
     public Processor getWrappedProcessor() {
@@ -0,0 +1,222 @@
+package io.toolisticon.cute;
+
+import javax.annotation.processing.RoundEnvironment;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Limits of a compilation to detect runaway processors, for example processors generating new source files in each round.
+ * <p>
+ * Processing rounds are reported by the {@link AnnotationProcessorWrapper}, generated files and their size by the {@link CompileTestFileManager}.
+ * The compilation time is checked whenever a round is started or a file is generated and after the compilation has been completed.
+ * Exceeding a limit fails the compile-test immediately with the history of generated files per processing round.
+ */
+final class CompilationLimits {
+
+    /**
+     * Maximal number of file names listed per round in the failure message
+     */
+    private static final int MAX_LISTED_FILES_PER_ROUND = 10;
+
+    private final Duration maxCompilationTime;
+    private final Integer maxProcessingRounds;
+    private final Integer maxGeneratedFiles;
+    private final Long maxGeneratedBytes;
+
+    private final long startNanos = System.nanoTime();
+
+    private final List<RoundHistory> history = new ArrayList<>();
+    private RoundEnvironment currentRoundEnvironment;
+
+    private int processingRounds;
+    private int generatedFiles;
+    private long generatedBytes;
+
+    private CompilationLimits(Duration maxCompilationTime, Integer maxProcessingRounds, Integer maxGeneratedFiles, Long maxGeneratedBytes) {
+        this.maxCompilationTime = maxCompilationTime;
+        this.maxProcessingRounds = maxProcessingRounds;
+        this.maxGeneratedFiles = maxGeneratedFiles;
+        this.maxGeneratedBytes = maxGeneratedBytes;
+    }
+
+    /**
+     * Creates the limits configured for a compile-test.
+     * Each compilation needs its own instance, since the time is measured from its creation.
+     *
+     * @param compileTestConfiguration the compile-test configuration
+     * @return the limits or null if no limits are configured
+     */
+    static CompilationLimits of(CuteApi.CompilerTestBB compileTestConfiguration) {
+
+        if (compileTestConfiguration.maxCompilationTime() == null
+                && compileTestConfiguration.maxProcessingRounds() == null
+                && compileTestConfiguration.maxGeneratedFiles() == null
+                && compileTestConfiguration.maxGeneratedBytes() == null) {
+            return null;
+        }
+
+        return new CompilationLimits(
+                compileTestConfiguration.maxCompilationTime(),
+                compileTestConfiguration.maxProcessingRounds(),
+                compileTestConfiguration.maxGeneratedFiles(),
+                compileTestConfiguration.maxGeneratedBytes());
+
+    }
+
+    /**
+     * Must be called by each processor at the start of a processing round.
+     * Rounds are detected by the round environment, so all processors of a round are counted once.
+     *
+     * @param roundEnvironment the round environment of the current round
+     */
+    synchronized void roundStarted(RoundEnvironment roundEnvironment) {
+
+        if (roundEnvironment != currentRoundEnvironment) {
+
+            currentRoundEnvironment = roundEnvironment;
+            processingRounds++;
+            history.add(new RoundHistory("Round " + processingRounds + (roundEnvironment.processingOver() ? " (processing over)" : "")));
+
+            if (maxProcessingRounds != null && processingRounds > maxProcessingRounds) {
+                fail(Constants.Messages.TOKEN_LIMIT_PROCESSING_ROUNDS.produceMessage(maxProcessingRounds));
+            }
+
+        }
+
+        checkCompilationTime();
+
+    }
+
+    /**
+     * Must be called whenever a file is generated.
+     *
+     * @param name the name of the generated file
+     */
+    synchronized void fileGenerated(String name) {
+
+        generatedFiles++;
+        getCurrentRoundHistory().fileNames.add(name);
+
+        if (maxGeneratedFiles != null && generatedFiles > maxGeneratedFiles) {
+            fail(Constants.Messages.TOKEN_LIMIT_GENERATED_FILES.produceMessage(maxGeneratedFiles));
+        }
+
+        checkCompilationTime();
+
+    }
+
+    /**
+     * Must be called whenever the content of a generated file has been changed.
+     *
+     * @param sizeDelta the difference between new and old size of the content
+     */
+    synchronized void contentChanged(long sizeDelta) {
+
+        generatedBytes += sizeDelta;
+        getCurrentRoundHistory().bytes += sizeDelta;
+
+        if (maxGeneratedBytes != null && generatedBytes > maxGeneratedBytes) {
+            fail(Constants.Messages.TOKEN_LIMIT_GENERATED_BYTES.produceMessage(maxGeneratedBytes));
+        }
+
+    }
+
+    /**
+     * Checks if the maximal compilation time has been exceeded.
+     */
+    synchronized void checkCompilationTime() {
+
+        if (maxCompilationTime != null && System.nanoTime() - startNanos > maxCompilationTime.toNanos()) {
+            fail(Constants.Messages.TOKEN_LIMIT_COMPILATION_TIME.produceMessage(maxCompilationTime.toMillis()));
+        }
+
+    }
+
+    private RoundHistory getCurrentRoundHistory() {
+        if (history.isEmpty()) {
+            history.add(new RoundHistory("Before processing"));
+        }
+        return history.get(history.size() - 1);
+    }
+
+    private void fail(String exceededLimit) {
+        throw new CompilationLimitExceededException(Constants.Messages.MESSAGE_COMPILATION_LIMIT_EXCEEDED.produceMessage(exceededLimit, getHistory()));
+    }
+
+    /**
+     * Gets the history of generated files per processing round.
+     *
+     * @return the history
+     */
+    synchronized String getHistory() {
+
+        if (history.isEmpty()) {
+            return "    <NO FILES GENERATED>";
+        }
+
+        StringBuilder stringBuilder = new StringBuilder();
+        for (RoundHistory roundHistory : history) {
+
+            stringBuilder.append("    ").append(roundHistory.label).append(" : ")
+                    .append(roundHistory.fileNames.size()).append(" files, ")
+                    .append(roundHistory.bytes).append(" bytes");
+
+            int listedFiles = Math.min(roundHistory.fileNames.size(), MAX_LISTED_FILES_PER_ROUND);
+            if (listedFiles > 0) {
+                stringBuilder.append(" : ").append(String.join(", ", roundHistory.fileNames.subList(0, listedFiles)));
+                if (listedFiles < roundHistory.fileNames.size()) {
+                    stringBuilder.append(", ... ").append(roundHistory.fileNames.size() - listedFiles).append(" more");
+                }
+            }
+
+            stringBuilder.append("\n");
+
+        }
+        return stringBuilder.toString();
+
+    }
+
+    /**
+     * Checks if the passed exception has been caused by an exceeded limit.
+     * The compiler wraps exceptions thrown by processors and file managers.
+     *
+     * @param throwable the exception to check
+     * @return true if exception has been caused by an exceeded limit, otherwise false
+     */
+    static boolean isCausedByExceededLimit(Throwable throwable) {
+        for (Throwable current = throwable; current != null; current = current.getCause()) {
+            if (current instanceof CompilationLimitExceededException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Files generated in a processing round.
+     */
+    private static final class RoundHistory {
+
+        private final String label;
+        private final List<String> fileNames = new ArrayList<>();
+        private long bytes;
+
+        private RoundHistory(String label) {
+            this.label = label;
+        }
+
+    }
+
+    /**
+     * Thrown if a limit of the compilation has been exceeded.
+     */
+    static final class CompilationLimitExceededException extends FailingAssertionException {
+
+        private CompilationLimitExceededException(String message) {
+            super(message);
+        }
+
+    }
+
+}
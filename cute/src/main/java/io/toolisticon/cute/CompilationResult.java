@@ -1,13 +1,17 @@
 package io.toolisticon.cute;
 
-import javax.tools.DiagnosticCollector;
-import javax.tools.JavaFileObject;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Compilation result.
  * For internal usage.
  * <p>
- * Allows access to DiagnosticCollector and FileManager used during compilation test.
+ * Allows access to diagnostics and FileManager used during compilation test.
+ * Diagnostics are kept as {@link DiagnosticRecord} snapshots, so the result doesn't keep the compiler context reachable.
  */
 class CompilationResult {
 
@@ -16,28 +20,89 @@ class CompilationResult {
      */
     private final Boolean compilationSucceeded;
     /**
-     * Diagnostics instance - allows checks for specific compilation messages
+     * Snapshots of the diagnostics in order of their occurrence - allows checks for specific compilation messages
      */
-    private final DiagnosticCollector<JavaFileObject> diagnostics;
+    private final List<DiagnosticRecord> diagnostics;
     /**
      * The file manager used during the compilation - allows comparing of generated files
      */
     private final CompileTestFileManager compileTestFileManager;
 
+    /**
+     * The timings of the compilation and the checks
+     */
+    private final CompilationTimings compilationTimings;
+
+    /**
+     * The class names of all processors that have been applied during compilation
+     */
+    private final Set<String> appliedProcessors = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Whether compilation has been aborted in fail-fast mode
+     */
+    private volatile boolean compilationAborted = false;
+
+    /**
+     * Whether the result has been closed - file manager and class loader mustn't be accessed anymore
+     */
+    private boolean closed = false;
+
+    /**
+     * Generates the class files if compilation has been stopped after analysis, null if class files are available
+     */
+    private Runnable pendingClassFileGeneration;
+
+    /**
+     * The index of the compilations diagnostics - created on first access
+     */
+    private DiagnosticsIndex diagnosticsIndex;
+
+    /**
+     * The class loader for generated classes - shared by all checks
+     */
+    private CuteClassLoader cuteClassLoader;
+
+    /**
+     * The pooled compiler session used during the compilation - must be released after all checks are done
+     */
+    private CompilerSessionPool.CompilerSession compilerSession;
+
     /**
      * Constructor.
      *
      * @param compilationSucceeded   should compilation succeed
-     * @param diagnostics            the DiagnosticsController instance to use
+     * @param diagnostics            the snapshots of the diagnostics
      * @param compileTestFileManager the file manager used during compilation
+     * @param compilerSession        the pooled compiler session used during compilation
      */
     CompilationResult(Boolean compilationSucceeded,
-                      DiagnosticCollector<JavaFileObject> diagnostics,
-                      CompileTestFileManager compileTestFileManager) {
+                      List<DiagnosticRecord> diagnostics,
+                      CompileTestFileManager compileTestFileManager,
+                      CompilerSessionPool.CompilerSession compilerSession) {
+        this(compilationSucceeded, diagnostics, compileTestFileManager, compilerSession, new CompilationTimings());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param compilationSucceeded   should compilation succeed
+     * @param diagnostics            the snapshots of the diagnostics
+     * @param compileTestFileManager the file manager used during compilation
+     * @param compilerSession        the pooled compiler session used during compilation
+     * @param compilationTimings     the timings measured during compilation
+     */
+    CompilationResult(Boolean compilationSucceeded,
+                      List<DiagnosticRecord> diagnostics,
+                      CompileTestFileManager compileTestFileManager,
+                      CompilerSessionPool.CompilerSession compilerSession,
+                      CompilationTimings compilationTimings) {
 
         this.compilationSucceeded = compilationSucceeded;
-        this.diagnostics = diagnostics;
+        this.diagnostics = Collections.unmodifiableList(diagnostics);
         this.compileTestFileManager = compileTestFileManager;
+        this.compilerSession = compilerSession;
+        this.compilationTimings = compilationTimings;
 
     }
 
@@ -45,11 +110,157 @@ class CompilationResult {
         return compilationSucceeded;
     }
 
-    DiagnosticCollector<JavaFileObject> getDiagnostics() {
+    /**
+     * Gets the snapshots of all diagnostics.
+     *
+     * @return the diagnostics in order of their occurrence
+     */
+    List<DiagnosticRecord> getDiagnostics() {
         return diagnostics;
     }
 
+    /**
+     * Gets the index of the compilations diagnostics.
+     * The index is created on first access.
+     *
+     * @return the diagnostics index
+     */
+    synchronized DiagnosticsIndex getDiagnosticsIndex() {
+        if (diagnosticsIndex == null) {
+            diagnosticsIndex = new DiagnosticsIndex(diagnostics);
+        }
+        return diagnosticsIndex;
+    }
+
+    /**
+     * Gets the file manager containing all generated files.
+     * Pending class files are generated first, so generated classes are always accessible.
+     *
+     * @return the file manager
+     */
     CompileTestFileManager getCompileTestFileManager() {
+        ensureClassFilesAreGenerated();
+        return compileTestFileManager;
+    }
+
+    /**
+     * Gets the file manager without generating pending class files.
+     * Must only be used to access generated sources and resources, class files might be missing.
+     *
+     * @return the file manager
+     */
+    CompileTestFileManager getCompileTestFileManagerWithoutClassFileGeneration() {
         return compileTestFileManager;
     }
+
+    /**
+     * Adds processors that have been applied during compilation.
+     *
+     * @param processorClassNames the class names of the processors
+     */
+    void addAppliedProcessors(Collection<String> processorClassNames) {
+        appliedProcessors.addAll(processorClassNames);
+    }
+
+    /**
+     * Gets the class names of all processors that have been applied during compilation.
+     *
+     * @return the class names
+     */
+    Set<String> getAppliedProcessors() {
+        return Collections.unmodifiableSet(appliedProcessors);
+    }
+
+    /**
+     * Marks the compilation as aborted, because the outcome of the compile-test has been decided before compilation was completed.
+     */
+    void setCompilationAborted() {
+        compilationAborted = true;
+    }
+
+    boolean isCompilationAborted() {
+        return compilationAborted;
+    }
+
+    synchronized void setPendingClassFileGeneration(Runnable pendingClassFileGeneration) {
+        this.pendingClassFileGeneration = pendingClassFileGeneration;
+    }
+
+    /**
+     * Generates the class files if compilation has been stopped after analysis, because the configured checks didn't need them.
+     * Must be called before class files are accessed.
+     */
+    synchronized void ensureClassFilesAreGenerated() {
+        if (pendingClassFileGeneration != null) {
+            Runnable classFileGeneration = pendingClassFileGeneration;
+            pendingClassFileGeneration = null;
+            classFileGeneration.run();
+        }
+    }
+
+    CompilationTimings getCompilationTimings() {
+        return compilationTimings;
+    }
+
+    /**
+     * Gets the class loader for generated classes.
+     * The class loader is created on first access, so classes are just defined once for all checks.
+     *
+     * @return the class loader
+     */
+    synchronized CuteClassLoader getClassLoader() {
+        if (cuteClassLoader == null) {
+            ensureClassFilesAreGenerated();
+            cuteClassLoader = new CuteClassLoaderImpl(compileTestFileManager);
+        }
+        return cuteClassLoader;
+    }
+
+    CompilerSessionPool.CompilerSession getCompilerSession() {
+        return compilerSession;
+    }
+
+    /**
+     * Returns the compiler session to the pool.
+     * Generated files remain accessible, since they are stored in the CompileTestFileManager.
+     */
+    synchronized void releaseCompilerSession() {
+        // state of file manager is unknown after aborted compilations - so it mustn't be reused
+        if (compilationAborted) {
+            CompilerSessionPool.getInstance().discard(compilerSession);
+        } else {
+            CompilerSessionPool.getInstance().release(compilerSession);
+        }
+        compilerSession = null;
+    }
+
+    /**
+     * Closes the result.
+     * Releases the compiler session if it hasn't been released yet and drops the class loader and the pending class file generation.
+     * Compilation outcome, diagnostics and timings remain accessible, since they are just snapshots.
+     * Closing an already closed result has no effect.
+     */
+    synchronized void close() {
+        if (!closed) {
+            closed = true;
+            pendingClassFileGeneration = null;
+            cuteClassLoader = null;
+            releaseCompilerSession();
+        }
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Checks that the result hasn't been closed yet.
+     *
+     * @throws IllegalStateException if result has been closed
+     */
+    synchronized void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException(Constants.Messages.ISE_COMPILATION_OUTCOME_CLOSED.produceMessage());
+        }
+    }
 }
@@ -0,0 +1,624 @@
+package io.toolisticon.cute;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Persistent cache for compilation results of black-box tests.
+ * <p>
+ * Compilation results are stored in the directory configured by the system property {@value #CACHE_DIRECTORY_PROPERTY}, which defaults to {@value #DEFAULT_CACHE_DIRECTORY}.
+ * The key is a hash of all inputs of the compilation: source files, resource files, compiler options, modules, class path, java version and the
+ * class files of the processors.
+ * Class files of processors are hashed by their code source, so changes of classes used by the processors are detected if they are located
+ * in the same directory or jar.
+ * All other class path entries are fingerprinted by the paths, last modification times and sizes of their files.
+ * <p>
+ * The cache is limited to the size in megabytes configured by the system property {@value #CACHE_MAX_SIZE_PROPERTY}, which defaults to {@value #DEFAULT_CACHE_MAX_SIZE}.
+ * The least recently used compilation results are removed if the limit is exceeded.
+ * <p>
+ * Compilations that are throwing an exception aren't cached.
+ */
+final class CompilationResultCache {
+
+    /**
+     * System property to configure the cache directory.
+     */
+    static final String CACHE_DIRECTORY_PROPERTY = "cute.cache.directory";
+
+    /**
+     * System property to enable the cache for all black-box tests.
+     */
+    static final String CACHE_ENABLED_PROPERTY = "cute.cache.enabled";
+
+    static final String DEFAULT_CACHE_DIRECTORY = "target/cute-cache";
+
+    /**
+     * System property to configure the maximal size of the cache directory in megabytes.
+     */
+    static final String CACHE_MAX_SIZE_PROPERTY = "cute.cache.maxSize";
+
+    static final long DEFAULT_CACHE_MAX_SIZE = 256L;
+
+    private static final int FORMAT_VERSION = 3;
+
+    private static final String FILE_EXTENSION = ".bin";
+
+    private static final ConcurrentMap<URI, byte[]> CODE_SOURCE_HASHES = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<String, byte[]> CLASS_PATH_FINGERPRINTS = new ConcurrentHashMap<>();
+
+    /**
+     * Hidden constructor.
+     */
+    private CompilationResultCache() {
+
+    }
+
+    /**
+     * Checks if the cache is enabled for the passed compile-test configuration.
+     *
+     * @param compileTestConfiguration the compile-test configuration
+     * @return true if compilation result should be cached, otherwise false
+     */
+    static boolean isApplicable(CuteApi.CompilerTestBB compileTestConfiguration) {
+
+        if (compileTestConfiguration.testType() != CuteApi.TestType.BLACK_BOX) {
+            return false;
+        }
+
+        return compileTestConfiguration.cacheCompilationResult() != null
+                ? compileTestConfiguration.cacheCompilationResult()
+                : Boolean.parseBoolean(System.getProperty(CACHE_ENABLED_PROPERTY));
+
+    }
+
+    static Path getCacheDirectory() {
+        return Paths.get(System.getProperty(CACHE_DIRECTORY_PROPERTY, DEFAULT_CACHE_DIRECTORY));
+    }
+
+    static long getCacheMaxSize() {
+        try {
+            return Long.parseLong(System.getProperty(CACHE_MAX_SIZE_PROPERTY, String.valueOf(DEFAULT_CACHE_MAX_SIZE))) * 1024L * 1024L;
+        } catch (NumberFormatException e) {
+            return DEFAULT_CACHE_MAX_SIZE * 1024L * 1024L;
+        }
+    }
+
+    /**
+     * Creates the cache key for the passed compile-test configuration.
+     *
+     * @param compileTestConfiguration the compile-test configuration
+     * @return the key or null if the inputs can't be determined completely
+     */
+    static String createKey(CuteApi.CompilerTestBB compileTestConfiguration) {
+
+        try {
+
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+
+            update(messageDigest, String.valueOf(FORMAT_VERSION));
+            update(messageDigest, System.getProperty("java.version"));
+            update(messageDigest, System.getProperty("java.vendor"));
+            update(messageDigest, System.getProperty("java.class.path"));
+            update(messageDigest, getClassPathFingerprint(System.getProperty("java.class.path")));
+            update(messageDigest, compileTestConfiguration.getNormalizedCompilerOptions().toString());
+            update(messageDigest, new TreeSet<>(compileTestConfiguration.modules()).toString());
+
+            // messages are only stored for the requested locales
+            Set<String> locales = new TreeSet<>();
+            for (Locale locale : DiagnosticRecord.getRequestedLocales(compileTestConfiguration)) {
+                locales.add(locale.toLanguageTag());
+            }
+            update(messageDigest, locales.toString());
+
+            for (Class<?> processor : compileTestConfiguration.processors()) {
+
+                byte[] codeSourceHash = getCodeSourceHash(processor);
+                if (codeSourceHash == null) {
+                    return null;
+                }
+
+                update(messageDigest, processor.getName());
+                update(messageDigest, codeSourceHash);
+
+            }
+
+            // order of source files mustn't influence the key
+            Map<String, JavaFileObject> sourceFiles = new TreeMap<>();
+            for (JavaFileObject sourceFile : compileTestConfiguration.sourceFiles()) {
+                sourceFiles.put(sourceFile.toUri().toString(), sourceFile);
+            }
+            for (Map.Entry<String, JavaFileObject> entry : sourceFiles.entrySet()) {
+                update(messageDigest, entry.getKey());
+                update(messageDigest, entry.getValue().getCharContent(true).toString());
+            }
+
+            if (compileTestConfiguration.resourceFiles() != null) {
+                for (CuteApi.ResourceFileBB resourceFile : compileTestConfiguration.resourceFiles()) {
+                    update(messageDigest, resourceFile.targetPackageNameOrAbsolutePath());
+                    update(messageDigest, resourceFile.resource());
+                    try (InputStream inputStream = FileObjectUtils.forPassedInResource(resourceFile).openInputStream()) {
+                        update(messageDigest, readFully(inputStream));
+                    }
+                }
+            }
+
+            return toHex(messageDigest.digest());
+
+        } catch (IOException | RuntimeException e) {
+            return null;
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 must be supported by all java platforms
+            throw new IllegalStateException(e);
+        }
+
+    }
+
+    /**
+     * Loads a cached compilation result.
+     *
+     * @param compileTestConfiguration the compile-test configuration
+     * @param key                      the cache key
+     * @return the compilation result or null if there is no cached result
+     */
+    static CompilationResult load(CuteApi.CompilerTestBB compileTestConfiguration, String key) {
+
+        Path cacheFile = getCacheDirectory().resolve(key + FILE_EXTENSION);
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+
+        // a file manager is still needed to look up input files
+        CompilerSessionPool.CompilerSession compilerSession = CompilerSessionPool.getInstance().borrow(
+                CompilerSessionPool.SessionKey.of(CompileTest.getModulePath(compileTestConfiguration), compileTestConfiguration.compilerOptions().isEmpty() ? null : compileTestConfiguration.getNormalizedCompilerOptions()),
+                new DiagnosticCollector<>());
+
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+
+            if (inputStream.readInt() != FORMAT_VERSION) {
+                CompilerSessionPool.getInstance().release(compilerSession);
+                return null;
+            }
+
+            CompileTestFileManager compileTestFileManager = new CompileTestFileManager(compilerSession.getStandardJavaFileManager(), compileTestConfiguration.resourceFiles());
+            boolean compilationSucceeded = inputStream.readBoolean();
+
+            Map<URI, JavaFileObject> sources = new HashMap<>();
+            for (JavaFileObject sourceFile : compileTestConfiguration.sourceFiles()) {
+                sources.put(sourceFile.toUri(), sourceFile);
+            }
+
+            int javaFileObjectCount = inputStream.readInt();
+            for (int i = 0; i < javaFileObjectCount; i++) {
+                compileTestFileManager.addGeneratedJavaFileObject(
+                        getLocation(readString(inputStream)),
+                        readString(inputStream),
+                        JavaFileObject.Kind.valueOf(readString(inputStream)),
+                        readBytes(inputStream));
+            }
+            for (CompileTestFileManager.InMemoryOutputJavaFileObject javaFileObject : compileTestFileManager.getGeneratedJavaFileObjects()) {
+                sources.put(javaFileObject.toUri(), javaFileObject);
+            }
+
+            int fileObjectCount = inputStream.readInt();
+            for (int i = 0; i < fileObjectCount; i++) {
+                compileTestFileManager.addGeneratedFileObject(
+                        getLocation(readString(inputStream)),
+                        readString(inputStream),
+                        readString(inputStream),
+                        readBytes(inputStream));
+            }
+
+            List<String> appliedProcessors = new ArrayList<>();
+            int appliedProcessorCount = inputStream.readInt();
+            for (int i = 0; i < appliedProcessorCount; i++) {
+                appliedProcessors.add(readString(inputStream));
+            }
+
+            int diagnosticCount = inputStream.readInt();
+            List<DiagnosticRecord> diagnostics = new ArrayList<>(diagnosticCount);
+            for (int i = 0; i < diagnosticCount; i++) {
+
+                Diagnostic.Kind kind = Diagnostic.Kind.valueOf(readString(inputStream));
+
+                JavaFileObject source = null;
+                String sourceUri = readString(inputStream);
+                String sourceName = readString(inputStream);
+                if (sourceUri != null) {
+                    source = sources.get(URI.create(sourceUri));
+                    if (source == null) {
+                        source = new DiagnosticRecord.DetachedSourceFileObject(URI.create(sourceUri), sourceName);
+                    }
+                }
+
+                long position = inputStream.readLong();
+                long startPosition = inputStream.readLong();
+                long endPosition = inputStream.readLong();
+                long lineNumber = inputStream.readLong();
+                long columnNumber = inputStream.readLong();
+                String code = readString(inputStream);
+
+                Map<Locale, String> messages = new HashMap<>();
+                int messageCount = inputStream.readInt();
+                for (int j = 0; j < messageCount; j++) {
+                    String languageTag = readString(inputStream);
+                    messages.put(languageTag != null ? Locale.forLanguageTag(languageTag) : null, readString(inputStream));
+                }
+
+                diagnostics.add(new DiagnosticRecord(kind, source, position, startPosition, endPosition, lineNumber, columnNumber, code, messages));
+
+            }
+
+            CompilationResult compilationResult = new CompilationResult(compilationSucceeded, diagnostics, compileTestFileManager, compilerSession);
+            compilationResult.addAppliedProcessors(appliedProcessors);
+
+            // the last modification time is used to determine the least recently used results
+            touch(cacheFile);
+
+            return compilationResult;
+
+        } catch (IOException | RuntimeException e) {
+            // corrupt or incompatible cache files are just ignored
+            CompilerSessionPool.getInstance().release(compilerSession);
+            return null;
+        }
+
+    }
+
+    /**
+     * Stores the passed compilation result.
+     * Failures during storing are ignored, since caching is just an optimization.
+     *
+     * @param key               the cache key
+     * @param compilationResult the compilation result to store
+     */
+    static void store(String key, CompilationResult compilationResult) {
+
+        try {
+
+            Path cacheDirectory = getCacheDirectory();
+            Files.createDirectories(cacheDirectory);
+
+            // write to temporary file first to avoid reading incomplete files in concurrently running tests
+            Path temporaryFile = Files.createTempFile(cacheDirectory, key, ".tmp");
+
+            try {
+
+                try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+
+                    outputStream.writeInt(FORMAT_VERSION);
+                    outputStream.writeBoolean(Boolean.TRUE.equals(compilationResult.getCompilationSucceeded()));
+
+                    Collection<CompileTestFileManager.InMemoryOutputJavaFileObject> javaFileObjects = compilationResult.getCompileTestFileManager().getGeneratedJavaFileObjects();
+                    outputStream.writeInt(javaFileObjects.size());
+                    for (CompileTestFileManager.InMemoryOutputJavaFileObject javaFileObject : javaFileObjects) {
+                        writeString(outputStream, javaFileObject.getLocation().getName());
+                        writeString(outputStream, javaFileObject.getClassName());
+                        writeString(outputStream, javaFileObject.getKind().name());
+                        writeBytes(outputStream, javaFileObject.getContent());
+                    }
+
+                    Collection<CompileTestFileManager.InMemoryOutputFileObject> fileObjects = compilationResult.getCompileTestFileManager().getGeneratedFileObjects();
+                    outputStream.writeInt(fileObjects.size());
+                    for (CompileTestFileManager.InMemoryOutputFileObject fileObject : fileObjects) {
+                        writeString(outputStream, fileObject.getLocation().getName());
+                        writeString(outputStream, fileObject.getPackageName());
+                        writeString(outputStream, fileObject.getRelativeName());
+                        writeBytes(outputStream, fileObject.getContent());
+                    }
+
+                    Set<String> appliedProcessors = compilationResult.getAppliedProcessors();
+                    outputStream.writeInt(appliedProcessors.size());
+                    for (String appliedProcessor : appliedProcessors) {
+                        writeString(outputStream, appliedProcessor);
+                    }
+
+                    List<DiagnosticRecord> diagnostics = compilationResult.getDiagnostics();
+                    outputStream.writeInt(diagnostics.size());
+                    for (DiagnosticRecord diagnosticRecord : diagnostics) {
+                        FileObject source = diagnosticRecord.getSource();
+                        writeString(outputStream, diagnosticRecord.getKind().name());
+                        writeString(outputStream, source != null ? source.toUri().toString() : null);
+                        writeString(outputStream, source != null ? source.getName() : null);
+                        outputStream.writeLong(diagnosticRecord.getPosition());
+                        outputStream.writeLong(diagnosticRecord.getStartPosition());
+                        outputStream.writeLong(diagnosticRecord.getEndPosition());
+                        outputStream.writeLong(diagnosticRecord.getLineNumber());
+                        outputStream.writeLong(diagnosticRecord.getColumnNumber());
+                        writeString(outputStream, diagnosticRecord.getCode());
+                        outputStream.writeInt(diagnosticRecord.getMessages().size());
+                        for (Map.Entry<Locale, String> message : diagnosticRecord.getMessages().entrySet()) {
+                            writeString(outputStream, message.getKey() != null ? message.getKey().toLanguageTag() : null);
+                            writeString(outputStream, message.getValue());
+                        }
+                    }
+
+                }
+
+                Path cacheFile = cacheDirectory.resolve(key + FILE_EXTENSION);
+                try {
+                    Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+
+            evict(cacheDirectory, getCacheMaxSize());
+
+        } catch (IOException | RuntimeException e) {
+            // ignore - test will just be compiled again next time
+        }
+
+    }
+
+    /**
+     * Removes the least recently used compilation results until the size of the cache directory doesn't exceed the passed size.
+     * Failures are ignored, since files might be removed concurrently by other test runs.
+     *
+     * @param cacheDirectory the cache directory
+     * @param maxSize        the maximal size in bytes
+     */
+    static void evict(Path cacheDirectory, long maxSize) {
+
+        List<File> cacheFiles = new ArrayList<>();
+        File[] files = cacheDirectory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isFile() && file.getName().endsWith(FILE_EXTENSION)) {
+                    cacheFiles.add(file);
+                }
+            }
+        }
+
+        // most recently used first
+        cacheFiles.sort(Comparator.comparingLong(File::lastModified).reversed());
+
+        long size = 0L;
+        for (File cacheFile : cacheFiles) {
+            size += cacheFile.length();
+            if (size > maxSize) {
+                try {
+                    Files.deleteIfExists(cacheFile.toPath());
+                } catch (IOException | RuntimeException e) {
+                    // ignore - might be in use or already deleted
+                }
+            }
+        }
+
+    }
+
+    private static void touch(Path cacheFile) {
+        try {
+            Files.setLastModifiedTime(cacheFile, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException | RuntimeException e) {
+            // ignore - only affects the order of eviction
+        }
+    }
+
+    /**
+     * Gets the fingerprint of the passed class path.
+     * Fingerprints are computed once per JVM, since the class path doesn't change during a test run.
+     *
+     * @param classPath the class path
+     * @return the fingerprint
+     */
+    static byte[] getClassPathFingerprint(String classPath) {
+        return CLASS_PATH_FINGERPRINTS.computeIfAbsent(classPath != null ? classPath : "", CompilationResultCache::computeClassPathFingerprint);
+    }
+
+    /**
+     * Computes the fingerprint of the passed class path by the paths, last modification times and sizes of all jars and of the files in all directories.
+     *
+     * @param classPath the class path
+     * @return the fingerprint
+     */
+    static byte[] computeClassPathFingerprint(String classPath) {
+
+        try {
+
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+
+            for (String pathElement : classPath.split(File.pathSeparator)) {
+
+                if (pathElement.isEmpty()) {
+                    continue;
+                }
+
+                Path path = Paths.get(pathElement);
+                update(messageDigest, path.toAbsolutePath().toString());
+
+                if (Files.isDirectory(path)) {
+
+                    List<Path> files;
+                    try (Stream<Path> stream = Files.walk(path)) {
+                        files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                    }
+
+                    for (Path file : files) {
+                        update(messageDigest, path.relativize(file).toString());
+                        updateFileAttributes(messageDigest, file);
+                    }
+
+                } else if (Files.isRegularFile(path)) {
+                    updateFileAttributes(messageDigest, path);
+                } else {
+                    update(messageDigest, "<MISSING>");
+                }
+
+            }
+
+            return messageDigest.digest();
+
+        } catch (IOException | InvalidPathException e) {
+            // class path entries are changing - results mustn't be reused
+            throw new IllegalStateException(e);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 must be supported by all java platforms
+            throw new IllegalStateException(e);
+        }
+
+    }
+
+    private static void updateFileAttributes(MessageDigest messageDigest, Path file) throws IOException {
+        update(messageDigest, Files.getLastModifiedTime(file).toMillis() + "|" + Files.size(file));
+    }
+
+    /**
+     * Gets the hash of the directory or jar the passed class has been loaded from.
+     * Hashes are computed once per JVM, since code sources don't change during a test run.
+     *
+     * @param clazz the class
+     * @return the hash or null if code source can't be determined
+     */
+    static byte[] getCodeSourceHash(Class<?> clazz) {
+
+        CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            return null;
+        }
+
+        try {
+
+            URI location = codeSource.getLocation().toURI();
+            byte[] hash = CODE_SOURCE_HASHES.get(location);
+            if (hash == null) {
+                hash = computeCodeSourceHash(Paths.get(location));
+                CODE_SOURCE_HASHES.put(location, hash);
+            }
+            return hash;
+
+        } catch (Exception e) {
+            return null;
+        }
+
+    }
+
+    private static byte[] computeCodeSourceHash(Path path) throws IOException, NoSuchAlgorithmException {
+
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+
+        if (Files.isDirectory(path)) {
+
+            List<Path> files;
+            try (Stream<Path> stream = Files.walk(path)) {
+                files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+
+            for (Path file : files) {
+                update(messageDigest, path.relativize(file).toString());
+                update(messageDigest, Files.readAllBytes(file));
+            }
+
+        } else {
+            update(messageDigest, Files.readAllBytes(path));
+        }
+
+        return messageDigest.digest();
+
+    }
+
+    private static JavaFileManager.Location getLocation(String name) {
+        return StandardLocation.locationFor(name);
+    }
+
+    private static void update(MessageDigest messageDigest, String value) {
+        update(messageDigest, (value != null ? value : "").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void update(MessageDigest messageDigest, byte[] bytes) {
+        // length prefix prevents collisions of concatenated values
+        messageDigest.update((byte) (bytes.length >>> 24));
+        messageDigest.update((byte) (bytes.length >>> 16));
+        messageDigest.update((byte) (bytes.length >>> 8));
+        messageDigest.update((byte) bytes.length);
+        messageDigest.update(bytes);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder result = new StringBuilder();
+        for (byte b : bytes) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+
+    private static byte[] readFully(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream outputStream, String value) throws IOException {
+        writeBytes(outputStream, value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    private static String readString(DataInputStream inputStream) throws IOException {
+        byte[] bytes = readBytes(inputStream);
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+
+    private static void writeBytes(DataOutputStream outputStream, byte[] value) throws IOException {
+        if (value == null) {
+            outputStream.writeInt(-1);
+        } else {
+            outputStream.writeInt(value.length);
+            outputStream.write(value);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream inputStream) throws IOException {
+        int length = inputStream.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] result = new byte[length];
+        inputStream.readFully(result);
+        return result;
+    }
+
+}
@@ -0,0 +1,226 @@
+package io.toolisticon.cute;
+
+import javax.tools.JavaCompiler;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings of the phases of a compile test.
+ * <p>
+ * Allows to determine whether time went into the setup of the file manager, the compiler phases, the processors or the assertions.
+ * Compiler phases are only measured if the compiler supports task listeners, compilation results restored from cache don't provide compiler and processor timings.
+ */
+public final class CompilationTimings {
+
+    private long fileManagerSetupNanos;
+    private long compilationNanos;
+    private long assertionNanos = -1L;
+
+    private final Map<String, Long> compilerPhaseNanos = new LinkedHashMap<>();
+    private final List<ProcessorTimings> processorTimings = new ArrayList<>();
+
+    CompilationTimings() {
+
+    }
+
+    /**
+     * Measures the compiler phases of the passed compilation task, if supported by the compiler.
+     *
+     * @param compilationTask the compilation task
+     */
+    void measureCompilerPhases(JavaCompiler.CompilationTask compilationTask) {
+        CompilerPhaseTimingListener.register(compilationTask, this);
+    }
+
+    /**
+     * Adds all timings of the passed timings, used if a compile test is done by more than one compilation.
+     *
+     * @param compilationTimings the timings to add
+     */
+    void add(CompilationTimings compilationTimings) {
+
+        // read the passed timings under their own lock before locking these timings
+        Duration addedFileManagerSetupDuration = compilationTimings.getFileManagerSetupDuration();
+        Duration addedCompilationDuration = compilationTimings.getCompilationDuration();
+        Map<String, Long> addedCompilerPhaseNanos = compilationTimings.getCompilerPhaseNanos();
+        List<ProcessorTimings> addedProcessorTimings = compilationTimings.getProcessorTimings();
+
+        synchronized (this) {
+            fileManagerSetupNanos += addedFileManagerSetupDuration.toNanos();
+            compilationNanos += addedCompilationDuration.toNanos();
+            for (Map.Entry<String, Long> entry : addedCompilerPhaseNanos.entrySet()) {
+                compilerPhaseNanos.merge(entry.getKey(), entry.getValue(), Long::sum);
+            }
+            processorTimings.addAll(addedProcessorTimings);
+        }
+
+    }
+
+    private synchronized Map<String, Long> getCompilerPhaseNanos() {
+        return new LinkedHashMap<>(compilerPhaseNanos);
+    }
+
+    synchronized void addFileManagerSetupNanos(long nanos) {
+        fileManagerSetupNanos += nanos;
+    }
+
+    synchronized void addCompilationNanos(long nanos) {
+        compilationNanos += nanos;
+    }
+
+    synchronized void addCompilerPhaseNanos(String phase, long nanos) {
+        compilerPhaseNanos.merge(phase, nanos, Long::sum);
+    }
+
+    synchronized void addProcessorTimings(ProcessorTimings timings) {
+        processorTimings.add(timings);
+    }
+
+    synchronized void setAssertionNanos(long nanos) {
+        assertionNanos = nanos;
+    }
+
+    /**
+     * Gets the time spent to set up the compiler session, file manager and compilation task.
+     *
+     * @return the duration
+     */
+    public synchronized Duration getFileManagerSetupDuration() {
+        return Duration.ofNanos(fileManagerSetupNanos);
+    }
+
+    /**
+     * Gets the time spent in the compiler, including annotation processing.
+     *
+     * @return the duration
+     */
+    public synchronized Duration getCompilationDuration() {
+        return Duration.ofNanos(compilationNanos);
+    }
+
+    /**
+     * Gets the wall clock time spent in each compiler phase.
+     * Keys are the names of the javac task events, for example PARSE, ENTER, ANALYZE, GENERATE or ANNOTATION_PROCESSING, in order of their first occurrence.
+     *
+     * @return the durations of the compiler phases, or an empty map if they couldn't be measured
+     */
+    public synchronized Map<String, Duration> getCompilerPhaseDurations() {
+        Map<String, Duration> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : compilerPhaseNanos.entrySet()) {
+            result.put(entry.getKey(), Duration.ofNanos(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Gets the timings of all processors used during compilation.
+     *
+     * @return the processor timings
+     */
+    public synchronized List<ProcessorTimings> getProcessorTimings() {
+        return Collections.unmodifiableList(new ArrayList<>(processorTimings));
+    }
+
+    /**
+     * Gets the time spent to execute all configured checks.
+     *
+     * @return the duration, or null if the checks haven't been completed
+     */
+    public synchronized Duration getAssertionDuration() {
+        return assertionNanos >= 0 ? Duration.ofNanos(assertionNanos) : null;
+    }
+
+    @Override
+    public synchronized String toString() {
+
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append("File manager setup : ").append(formatNanos(fileManagerSetupNanos)).append("\n");
+        stringBuilder.append("Compilation : ").append(formatNanos(compilationNanos)).append("\n");
+
+        for (Map.Entry<String, Long> entry : compilerPhaseNanos.entrySet()) {
+            stringBuilder.append("    ").append(entry.getKey()).append(" : ").append(formatNanos(entry.getValue())).append("\n");
+        }
+
+        for (ProcessorTimings timings : processorTimings) {
+            stringBuilder.append("Processor ").append(timings.getProcessorClassName()).append(" : ").append(formatNanos(timings.getTotalDuration().toNanos())).append("\n");
+            stringBuilder.append("    init : ").append(formatNanos(timings.getInitDuration().toNanos())).append("\n");
+            int round = 1;
+            for (Duration roundDuration : timings.getRoundDurations()) {
+                stringBuilder.append("    round ").append(round++).append(" : ").append(formatNanos(roundDuration.toNanos())).append("\n");
+            }
+        }
+
+        if (assertionNanos >= 0) {
+            stringBuilder.append("Assertions : ").append(formatNanos(assertionNanos)).append("\n");
+        }
+
+        return stringBuilder.toString();
+    }
+
+    private static String formatNanos(long nanos) {
+        return String.format("%.3f ms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Timings of one processor.
+     */
+    public static final class ProcessorTimings {
+
+        private final String processorClassName;
+        private final Duration initDuration;
+        private final List<Duration> roundDurations;
+
+        ProcessorTimings(String processorClassName, Duration initDuration, List<Duration> roundDurations) {
+            this.processorClassName = processorClassName;
+            this.initDuration = initDuration;
+            this.roundDurations = Collections.unmodifiableList(new ArrayList<>(roundDurations));
+        }
+
+        /**
+         * Gets the name of the processor class.
+         *
+         * @return the processor class name
+         */
+        public String getProcessorClassName() {
+            return processorClassName;
+        }
+
+        /**
+         * Gets the time spent in the init method of the processor.
+         *
+         * @return the duration
+         */
+        public Duration getInitDuration() {
+            return initDuration;
+        }
+
+        /**
+         * Gets the time spent in the process method of the processor, one entry per processing round.
+         *
+         * @return the durations
+         */
+        public List<Duration> getRoundDurations() {
+            return roundDurations;
+        }
+
+        /**
+         * Gets the total time spent in the processor.
+         *
+         * @return the duration
+         */
+        public Duration getTotalDuration() {
+            Duration result = initDuration;
+            for (Duration roundDuration : roundDurations) {
+                result = result.plus(roundDuration);
+            }
+            return result;
+        }
+
+    }
+
+}
@@ -1,23 +1,25 @@
 package io.toolisticon.cute;
 
-import io.toolisticon.cute.extension.api.AssertionSpiServiceLocator;
+import io.toolisticon.cute.extension.api.ExtensionRegistry;
 import io.toolisticon.cute.extension.api.ModuleSupportSpi;
-import io.toolisticon.cute.extension.api.ModuleSupportSpiServiceLocator;
 
+import javax.annotation.processing.Processor;
 import javax.tools.Diagnostic;
 import javax.tools.DiagnosticCollector;
 import javax.tools.FileObject;
 import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardJavaFileManager;
-import javax.tools.ToolProvider;
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Implementation of a compile test.
@@ -46,6 +48,16 @@ class CompileTest {
      * The compile-test execution main method.
      */
     CompilationResult executeTest() {
+        return executeTest(() -> compile(compileTestConfiguration, wrappedAnnotationProcessors));
+    }
+
+    /**
+     * Executes all checks on the compilation result provided by the passed compilation.
+     *
+     * @param compilation the compilation to check
+     * @return the compilation result
+     */
+    CompilationResult executeTest(Supplier<CompilationResult> compilation) {
 
         CompilationResult compilationResult = null;
 
@@ -53,176 +65,193 @@ class CompileTest {
         try {
 
             // Execute tests now
-            compilationResult = compile(compileTestConfiguration, wrappedAnnotationProcessors);
+            compilationResult = compilation.get();
+            long assertionStart = System.nanoTime();
 
+            try {
 
-            // Check if all processors have been applied
-            checkIfProcessorsHaveBeenApplied(compilationResult.getDiagnostics());
+                // Check if all processors have been applied - aborted compilations might have been stopped before processing
+                if (!compilationResult.isCompilationAborted()) {
+                    checkIfProcessorsHaveBeenApplied(compilationResult);
+                }
 
-            // check if error messages and shouldSucceed aren't set contradictory
-            if (compileTestConfiguration.compilationSucceeded() != null
-                    && compileTestConfiguration.compilationSucceeded()
-                    && compileTestConfiguration.countErrorMessageChecks() > 0) {
-                throw new InvalidTestConfigurationException(Constants.Messages.MESSAGE_COMPILATION_SHOULD_SUCCEED_AND_ERROR_MESSAGE_EXPECTED.produceMessage());
-            }
+                // check if error messages and shouldSucceed aren't set contradictory
+                if (compileTestConfiguration.compilationSucceeded() != null
+                        && compileTestConfiguration.compilationSucceeded()
+                        && compileTestConfiguration.countErrorMessageChecks() > 0) {
+                    throw new InvalidTestConfigurationException(Constants.Messages.MESSAGE_COMPILATION_SHOULD_SUCCEED_AND_ERROR_MESSAGE_EXPECTED.produceMessage());
+                }
 
 
-            // Check if compilation succeeded
-            if (compileTestConfiguration.compilationSucceeded() != null && !compileTestConfiguration.compilationSucceeded().equals(compilationResult.getCompilationSucceeded())) {
+                // Check if compilation succeeded
+                if (compileTestConfiguration.compilationSucceeded() != null && !compileTestConfiguration.compilationSucceeded().equals(compilationResult.getCompilationSucceeded())) {
 
-                throw new FailingAssertionException(
-                        compileTestConfiguration.compilationSucceeded()
-                                ? Constants.Messages.MESSAGE_COMPILATION_SHOULD_HAVE_SUCCEEDED_BUT_FAILED.produceMessage() + "\nERRORS:\n" + CompileTestUtilities.getMessages(compilationResult.getDiagnostics(), Diagnostic.Kind.ERROR)
-                                : Constants.Messages.MESSAGE_COMPILATION_SHOULD_HAVE_FAILED_BUT_SUCCEEDED.produceMessage()
-                );
+                    throw new FailingAssertionException(
+                            compileTestConfiguration.compilationSucceeded()
+                                    ? Constants.Messages.MESSAGE_COMPILATION_SHOULD_HAVE_SUCCEEDED_BUT_FAILED.produceMessage() + "\nERRORS:\n" + compilationResult.getDiagnosticsIndex().getMessages(Diagnostic.Kind.ERROR, null)
+                                    : Constants.Messages.MESSAGE_COMPILATION_SHOULD_HAVE_FAILED_BUT_SUCCEEDED.produceMessage()
+                    );
 
-            }
+                }
 
 
-            // Check messages
-            checkMessages(compilationResult.getDiagnostics());
+                // Check messages
+                checkMessages(compilationResult.getDiagnosticsIndex());
 
-            // Check compiled classes
-            for (GeneratedClassesTest generatedClassesTest : this.compileTestConfiguration.getGeneratedClassesTest()) {
-                CuteClassLoader cuteClassLoader = new CuteClassLoaderImpl(compilationResult.getCompileTestFileManager());
+                // Check compiled classes
+                for (GeneratedClassesTest generatedClassesTest : this.compileTestConfiguration.getGeneratedClassesTest()) {
+                    CuteClassLoader cuteClassLoader = compilationResult.getClassLoader();
 
-                try {
-                    generatedClassesTest.doTests(cuteClassLoader);
-                } catch (AssertionError e) {
-                    // make sure AssertionErrors will pass
-                    throw e;
-                } catch (Exception e) {
-                    throw new FailingAssertionException(Constants.Messages.MESSAGE_GOT_UNEXPECTED_EXCEPTION_DURING_CLASS_TEST_ERROR.produceMessage(generatedClassesTest, e.getMessage()));
+                    try {
+                        generatedClassesTest.doTests(cuteClassLoader);
+                    } catch (AssertionError e) {
+                        // make sure AssertionErrors will pass
+                        throw e;
+                    } catch (Exception e) {
+                        throw new FailingAssertionException(Constants.Messages.MESSAGE_GOT_UNEXPECTED_EXCEPTION_DURING_CLASS_TEST_ERROR.produceMessage(generatedClassesTest, e.getMessage()));
+                    }
                 }
-            }
 
-            // Check generated JavaFileObjects
-            for (CuteApi.GeneratedJavaFileObjectCheckBB generatedJavaFileObjectCheck : this.compileTestConfiguration.javaFileObjectChecks()) {
-                if (CuteApi.FileObjectCheckType.EXISTS.equals(generatedJavaFileObjectCheck.getCheckType())) {
-                    if (!compilationResult.getCompileTestFileManager().existsExpectedJavaFileObject(generatedJavaFileObjectCheck.getLocation(), generatedJavaFileObjectCheck.getClassName(), generatedJavaFileObjectCheck.getKind())) {
-                        throw new FailingAssertionException(Constants.Messages.MESSAGE_JFO_DOESNT_EXIST.produceMessage(getJavaFileObjectInfoString(generatedJavaFileObjectCheck)));
-                    } else {
+                // Check generated JavaFileObjects
+                for (CuteApi.GeneratedJavaFileObjectCheckBB generatedJavaFileObjectCheck : this.compileTestConfiguration.javaFileObjectChecks()) {
+                    if (CuteApi.FileObjectCheckType.EXISTS.equals(generatedJavaFileObjectCheck.getCheckType())) {
+                        if (!compilationResult.getCompileTestFileManagerWithoutClassFileGeneration().existsExpectedJavaFileObject(generatedJavaFileObjectCheck.getLocation(), generatedJavaFileObjectCheck.getClassName(), generatedJavaFileObjectCheck.getKind())) {
+                            throw new FailingAssertionException(Constants.Messages.MESSAGE_JFO_DOESNT_EXIST.produceMessage(getJavaFileObjectInfoString(generatedJavaFileObjectCheck)));
+                        } else {
 
-                        try {
+                            try {
 
-                            JavaFileObject foundJavaFileObject = compilationResult.getCompileTestFileManager().getJavaFileForInput(generatedJavaFileObjectCheck.getLocation(), generatedJavaFileObjectCheck.getClassName(), generatedJavaFileObjectCheck.getKind());
+                                JavaFileObject foundJavaFileObject = compilationResult.getCompileTestFileManagerWithoutClassFileGeneration().getJavaFileForInput(generatedJavaFileObjectCheck.getLocation(), generatedJavaFileObjectCheck.getClassName(), generatedJavaFileObjectCheck.getKind());
 
-                            // check with passed matcher
-                            if (generatedJavaFileObjectCheck.getGeneratedFileObjectMatcher() != null) {
+                                // check with passed matcher
+                                if (generatedJavaFileObjectCheck.getGeneratedFileObjectMatcher() != null) {
 
-                                try {
-                                    if (!generatedJavaFileObjectCheck.getGeneratedFileObjectMatcher().check(foundJavaFileObject)) {
+                                    try {
+                                        if (!generatedJavaFileObjectCheck.getGeneratedFileObjectMatcher().check(foundJavaFileObject)) {
 
-                                        // Throw Exception as fallback if not done by matcher
-                                        throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_COMPARISION_FAILED.produceMessage(generatedJavaFileObjectCheck.getGeneratedFileObjectMatcher().getClass().getCanonicalName()));
+                                            // Throw Exception as fallback if not done by matcher
+                                            throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_COMPARISION_FAILED.produceMessage(generatedJavaFileObjectCheck.getGeneratedFileObjectMatcher().getClass().getCanonicalName()));
 
 
+                                        }
+                                    } catch (FailingAssertionException e) {
+                                        throw new FailingAssertionException(Constants.Messages.MESSAGE_JFO_EXISTS_BUT_DOESNT_MATCH_MATCHER.produceMessage(getJavaFileObjectInfoString(generatedJavaFileObjectCheck), e.getMessage()));
                                     }
-                                } catch (FailingAssertionException e) {
-                                    throw new FailingAssertionException(Constants.Messages.MESSAGE_JFO_EXISTS_BUT_DOESNT_MATCH_MATCHER.produceMessage(getJavaFileObjectInfoString(generatedJavaFileObjectCheck), e.getMessage()));
-                                }
 
-                            }
+                                }
 
-                            // Check with test
-                            if (generatedJavaFileObjectCheck.getGeneratedClassesTest() != null) {
-                                CuteClassLoader cuteClassLoader = new CuteClassLoaderImpl(compilationResult.getCompileTestFileManager());
+                                // Check with test
+                                if (generatedJavaFileObjectCheck.getGeneratedClassesTest() != null) {
+                                    CuteClassLoader cuteClassLoader = compilationResult.getClassLoader();
 
-                                try {
-                                    generatedJavaFileObjectCheck.getGeneratedClassesTest().doTests(cuteClassLoader.getClass(generatedJavaFileObjectCheck.getClassName()), cuteClassLoader);
-                                } catch (AssertionError e) {
-                                    throw e;
-                                } catch (Exception e) {
-                                    throw new FailingAssertionException(Constants.Messages.MESSAGE_GOT_UNEXPECTED_EXCEPTION_DURING_CLASS_TEST_ERROR.produceMessage(getJavaFileObjectInfoString(generatedJavaFileObjectCheck), e.getMessage()));
+                                    try {
+                                        generatedJavaFileObjectCheck.getGeneratedClassesTest().doTests(cuteClassLoader.getClass(generatedJavaFileObjectCheck.getClassName()), cuteClassLoader);
+                                    } catch (AssertionError e) {
+                                        throw e;
+                                    } catch (Exception e) {
+                                        throw new FailingAssertionException(Constants.Messages.MESSAGE_GOT_UNEXPECTED_EXCEPTION_DURING_CLASS_TEST_ERROR.produceMessage(getJavaFileObjectInfoString(generatedJavaFileObjectCheck), e.getMessage()));
+                                    }
                                 }
+
+
+                            } catch (IOException e) {
+                                // ignore
                             }
 
 
-                        } catch (IOException e) {
-                            // ignore
                         }
+                    } else {
+                        if (compilationResult.getCompileTestFileManagerWithoutClassFileGeneration().existsExpectedJavaFileObject(generatedJavaFileObjectCheck.getLocation(), generatedJavaFileObjectCheck.getClassName(), generatedJavaFileObjectCheck.getKind())) {
+                            throw new FailingAssertionException(Constants.Messages.MESSAGE_JFO_EXISTS_BUT_SHOULD_BE_NON_EXISTENT.produceMessage(getJavaFileObjectInfoString(generatedJavaFileObjectCheck)));
+                        }
+                    }
 
 
-                    }
-                } else {
-                    if (compilationResult.getCompileTestFileManager().existsExpectedJavaFileObject(generatedJavaFileObjectCheck.getLocation(), generatedJavaFileObjectCheck.getClassName(), generatedJavaFileObjectCheck.getKind())) {
-                        throw new FailingAssertionException(Constants.Messages.MESSAGE_JFO_EXISTS_BUT_SHOULD_BE_NON_EXISTENT.produceMessage(getJavaFileObjectInfoString(generatedJavaFileObjectCheck)));
-                    }
                 }
 
+                for (CuteApi.GeneratedFileObjectCheckBB generatedFileObjectCheck : this.compileTestConfiguration.fileObjectChecks()) {
 
-            }
+                    if (CuteApi.FileObjectCheckType.EXISTS.equals(generatedFileObjectCheck.getCheckType())) {
 
-            for (CuteApi.GeneratedFileObjectCheckBB generatedFileObjectCheck : this.compileTestConfiguration.fileObjectChecks()) {
+                        if (!compilationResult.getCompileTestFileManagerWithoutClassFileGeneration().existsExpectedFileObject(generatedFileObjectCheck.getLocation(), generatedFileObjectCheck.getPackageName(), generatedFileObjectCheck.getRelativeName())) {
+                            throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_DOESNT_EXIST.produceMessage(getFileObjectInfoString(generatedFileObjectCheck)));
+                        } else {
 
-                if (CuteApi.FileObjectCheckType.EXISTS.equals(generatedFileObjectCheck.getCheckType())) {
-
-                    if (!compilationResult.getCompileTestFileManager().existsExpectedFileObject(generatedFileObjectCheck.getLocation(), generatedFileObjectCheck.getPackageName(), generatedFileObjectCheck.getRelativeName())) {
-                        throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_DOESNT_EXIST.produceMessage(getFileObjectInfoString(generatedFileObjectCheck)));
-                    } else {
+                            try {
 
-                        try {
+                                FileObject foundFileObject = compilationResult.getCompileTestFileManagerWithoutClassFileGeneration().getFileForInput(generatedFileObjectCheck.getLocation(), generatedFileObjectCheck.getPackageName(), generatedFileObjectCheck.getRelativeName());
 
-                            FileObject foundFileObject = compilationResult.getCompileTestFileManager().getFileForInput(generatedFileObjectCheck.getLocation(), generatedFileObjectCheck.getPackageName(), generatedFileObjectCheck.getRelativeName());
+                                // check with passed matcher
+                                if (generatedFileObjectCheck.getGeneratedFileObjectMatchers() != null) {
 
-                            // check with passed matcher
-                            if (generatedFileObjectCheck.getGeneratedFileObjectMatchers() != null) {
-
-                                try {
-                                    for (GeneratedFileObjectMatcher matcher : generatedFileObjectCheck.getGeneratedFileObjectMatchers()) {
-                                        if (!matcher.check(foundFileObject)) {
-                                            // Throw Exception as fallback if not done by matcher
-                                            throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_COMPARISION_FAILED.produceMessage(matcher.getClass().getCanonicalName()));
+                                    try {
+                                        for (GeneratedFileObjectMatcher matcher : generatedFileObjectCheck.getGeneratedFileObjectMatchers()) {
+                                            if (!matcher.check(foundFileObject)) {
+                                                // Throw Exception as fallback if not done by matcher
+                                                throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_COMPARISION_FAILED.produceMessage(matcher.getClass().getCanonicalName()));
+                                            }
                                         }
+                                    } catch (FailingAssertionException e) {
+                                        throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_EXISTS_BUT_DOESNT_MATCH_MATCHER.produceMessage(getFileObjectInfoString(generatedFileObjectCheck), e.getMessage()));
                                     }
-                                } catch (FailingAssertionException e) {
-                                    throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_EXISTS_BUT_DOESNT_MATCH_MATCHER.produceMessage(getFileObjectInfoString(generatedFileObjectCheck), e.getMessage()));
+
                                 }
 
+                            } catch (IOException e) {
+                                throw new FailingAssertionException(Constants.Messages.MESSAGE_TECHNICAL_ERROR.produceMessage(e.getMessage()));
                             }
 
-                        } catch (IOException e) {
-                            throw new FailingAssertionException(Constants.Messages.MESSAGE_TECHNICAL_ERROR.produceMessage(e.getMessage()));
-                        }
-
 
+                        }
+                    } else {
+                        if (compilationResult.getCompileTestFileManagerWithoutClassFileGeneration().existsExpectedFileObject(generatedFileObjectCheck.getLocation(), generatedFileObjectCheck.getPackageName(), generatedFileObjectCheck.getRelativeName())) {
+                            throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_EXISTS_BUT_SHOULD_BE_NON_EXISTENT.produceMessage(getFileObjectInfoString(generatedFileObjectCheck)));
+                        }
                     }
-                } else {
-                    if (compilationResult.getCompileTestFileManager().existsExpectedFileObject(generatedFileObjectCheck.getLocation(), generatedFileObjectCheck.getPackageName(), generatedFileObjectCheck.getRelativeName())) {
-                        throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_EXISTS_BUT_SHOULD_BE_NON_EXISTENT.produceMessage(getFileObjectInfoString(generatedFileObjectCheck)));
-                    }
+
                 }
 
+            } finally {
+                // record the assertion time before a failing assertion triggers the debug output
+                compilationResult.getCompilationTimings().setAssertionNanos(System.nanoTime() - assertionStart);
             }
 
-
         } catch (FailingAssertionException e) {
 
             // now trigger failing assertion, but also enrich message with debug output
-            AssertionSpiServiceLocator.locate().fail(e.getMessage() + "\n" + DebugOutputGenerator.getDebugOutput(compilationResult, compileTestConfiguration, e));
+            ExtensionRegistry.locateAssertionSpi().fail(e.getMessage() + "\n" + DebugOutputGenerator.getDebugOutput(compilationResult, compileTestConfiguration, e));
 
         } catch (RuntimeException e) {
 
             if (e.getCause() != null && AssertionError.class.isAssignableFrom(e.getCause().getClass())) {
                 FailingAssertionException failingAssertionException = new FailingAssertionException(e.getMessage(), e.getCause());
-                AssertionSpiServiceLocator.locate().fail(e.getCause().getMessage() + "\n" + DebugOutputGenerator.getDebugOutput(compilationResult, compileTestConfiguration, failingAssertionException));
+                ExtensionRegistry.locateAssertionSpi().fail(e.getCause().getMessage() + "\n" + DebugOutputGenerator.getDebugOutput(compilationResult, compileTestConfiguration, failingAssertionException));
                 throw (failingAssertionException);
             }
 
             if (e.getCause() != null && FailingAssertionException.class.isAssignableFrom(e.getCause().getClass())) {
                 // now trigger failing assertion, but also enrich message with debug output
-                AssertionSpiServiceLocator.locate().fail(e.getCause().getMessage() + "\n" + DebugOutputGenerator.getDebugOutput(compilationResult, compileTestConfiguration, (FailingAssertionException) e.getCause()));
+                ExtensionRegistry.locateAssertionSpi().fail(e.getCause().getMessage() + "\n" + DebugOutputGenerator.getDebugOutput(compilationResult, compileTestConfiguration, (FailingAssertionException) e.getCause()));
                 throw (FailingAssertionException) (e.getCause());
             }
 
             throw e;
 
 
+        } finally {
+            // file manager isn't needed anymore after all checks are done
+            if (compilationResult != null) {
+                compilationResult.releaseCompilerSession();
+            }
         }
         return compilationResult;
     }
 
 
+    Set<AnnotationProcessorWrapper> getWrappedAnnotationProcessors() {
+        return wrappedAnnotationProcessors;
+    }
+
     static String getJavaFileObjectInfoString(CuteApi.GeneratedJavaFileObjectCheckBB generatedJavaFileObjectCheck) {
         return generatedJavaFileObjectCheck.getLocation() + "; " + generatedJavaFileObjectCheck.getClassName() + "; " + generatedJavaFileObjectCheck.getKind();
     }
@@ -237,44 +266,271 @@ class CompileTest {
      * @param compileTestConfiguration the compile-test configuration to use
      * @return the compilation result
      */
-    public static CompilationResult compile(CuteApi.CompilerTestBB compileTestConfiguration, Set<AnnotationProcessorWrapper> wrappedAnnotationProcessors) {
+    public static CompilationResult compile(CuteApi.CompilerTestBB compileTestConfiguration, Set<? extends Processor> wrappedAnnotationProcessors) {
+
+        // skip compilation if result of an unchanged compilation is cached
+        String cacheKey = CompilationResultCache.isApplicable(compileTestConfiguration) ? CompilationResultCache.createKey(compileTestConfiguration) : null;
+        if (cacheKey != null) {
+
+            CompilationResult compilationResult = CompilationResultCache.load(compileTestConfiguration, cacheKey);
+            if (compilationResult == null) {
+                compilationResult = compileSourceFiles(compileTestConfiguration, wrappedAnnotationProcessors);
+                // results of aborted compilations are incomplete
+                if (!compilationResult.isCompilationAborted()) {
+                    CompilationResultCache.store(cacheKey, compilationResult);
+                }
+            }
+            return compilationResult;
 
-        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        }
 
-        StandardJavaFileManager stdJavaFileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        return compileSourceFiles(compileTestConfiguration, wrappedAnnotationProcessors);
 
+    }
 
-        // Configure java compilation task
-        CompileTestFileManager javaFileManager = new CompileTestFileManager(stdJavaFileManager, compileTestConfiguration.resourceFiles());
+    private static CompilationResult compileSourceFiles(CuteApi.CompilerTestBB compileTestConfiguration, Set<? extends Processor> wrappedAnnotationProcessors) {
 
-        JavaCompiler.CompilationTask compilationTask = compiler.getTask(
-                null,
-                javaFileManager,
-                diagnostics,
+        // try to reuse already compiled source files if enabled
+        if (CompiledSourceFilesCache.isApplicable(compileTestConfiguration, wrappedAnnotationProcessors)) {
+            CompilationResult compilationResult = CompiledSourceFilesCache.compile(compileTestConfiguration, wrappedAnnotationProcessors);
+            if (compilationResult != null) {
+                return compilationResult;
+            }
+        }
+
+        // class files are generated on demand if they aren't needed by the configured checks
+        return compile(
+                compileTestConfiguration,
+                wrappedAnnotationProcessors,
                 compileTestConfiguration.compilerOptions().isEmpty() ? null : compileTestConfiguration.getNormalizedCompilerOptions(),
-                null,
-                compileTestConfiguration.sourceFiles());
+                compileTestConfiguration.sourceFiles(),
+                Collections.emptyMap(),
+                !isClassFileGenerationNeeded(compileTestConfiguration),
+                FailFastDiagnosticListener.isEnabled(compileTestConfiguration));
 
-        compilationTask.setProcessors(wrappedAnnotationProcessors);
+    }
+
+    /**
+     * Checks if class files are needed by the configured checks.
+     * Class files aren't needed if just compiler messages, generated sources or generated resources are checked.
+     *
+     * @param compileTestConfiguration the compile-test configuration
+     * @return true if class files must be generated during compilation, otherwise false
+     */
+    static boolean isClassFileGenerationNeeded(CuteApi.CompilerTestBB compileTestConfiguration) {
 
-        // handle java 9 module support via SPI to be backward compatible with older Java versions prior to java 9
-        if (!Java9SupportCheck.UNSUPPORTED_JAVA_VERSION) {
-            ModuleSupportSpi moduleService = ModuleSupportSpiServiceLocator.locate();
-            if (moduleService != null) {
+        if (!compileTestConfiguration.getGeneratedClassesTest().isEmpty() || CompilationResultCache.isApplicable(compileTestConfiguration)) {
+            return true;
+        }
 
-                Set<String> modulePath = new HashSet<>(compileTestConfiguration.modules());
-                if (compileTestConfiguration.testType() == CuteApi.TestType.UNIT && hasModuleInfoSourceFile(compileTestConfiguration)) {
-                    modulePath.add("cute");
+        for (CuteApi.GeneratedJavaFileObjectCheckBB generatedJavaFileObjectCheck : compileTestConfiguration.javaFileObjectChecks()) {
+            if (generatedJavaFileObjectCheck.getKind() == JavaFileObject.Kind.CLASS || generatedJavaFileObjectCheck.getGeneratedClassesTest() != null) {
+                return true;
+            }
+        }
+
+        for (CuteApi.GeneratedFileObjectCheckBB generatedFileObjectCheck : compileTestConfiguration.fileObjectChecks()) {
+            if (generatedFileObjectCheck.getRelativeName() != null && generatedFileObjectCheck.getRelativeName().endsWith(JavaFileObject.Kind.CLASS.extension)) {
+                return true;
+            }
+        }
+
+        // javac reports the deferred mandatory warning notes (deprecation, unchecked, -Xlint hints) only in its generate phase
+        for (CuteApi.CompilerMessageCheckBB compilerMessageCheck : compileTestConfiguration.compilerMessageChecks()) {
+            if (compilerMessageCheck.getKind() != CuteApi.CompilerMessageKind.ERROR) {
+                return true;
+            }
+        }
+
+        // warnings are turned into errors at the end of the compilation
+        return compileTestConfiguration.getNormalizedCompilerOptions().contains("-Werror");
+
+    }
+
+    /**
+     * Generates the class files of an analyzed compilation.
+     * Source files and generated source files are compiled without processors, class files generated by processors are provided via the class path.
+     *
+     * @param compileTestConfiguration the compile-test configuration
+     * @param compilerOptions          the compiler options used during the analyzed compilation
+     * @param sourceFiles              the source files used during the analyzed compilation
+     * @param classPathClasses         the classes provided via the class path during the analyzed compilation
+     * @param compilationResult        the result of the analyzed compilation
+     */
+    private static void generateClassFiles(CuteApi.CompilerTestBB compileTestConfiguration, List<String> compilerOptions, Iterable<? extends JavaFileObject> sourceFiles, Map<String, byte[]> classPathClasses, CompilationResult compilationResult) {
+
+        CompileTestFileManager compileTestFileManager = compilationResult.getCompileTestFileManagerWithoutClassFileGeneration();
+
+        List<JavaFileObject> allSourceFiles = new ArrayList<>();
+        for (JavaFileObject sourceFile : sourceFiles) {
+            allSourceFiles.add(sourceFile);
+        }
+        allSourceFiles.addAll(compileTestFileManager.getGeneratedJavaFileObjects(JavaFileObject.Kind.SOURCE));
+
+        List<String> compilerOptionsWithoutProcessing = compilerOptions != null ? new ArrayList<>(compilerOptions) : new ArrayList<>();
+        compilerOptionsWithoutProcessing.add("-proc:none");
+
+        Map<String, byte[]> allClassPathClasses = new HashMap<>(classPathClasses);
+        allClassPathClasses.putAll(compileTestFileManager.getGeneratedClasses());
+
+        CompilationResult classFilesResult = compile(compileTestConfiguration, Collections.emptySet(), compilerOptionsWithoutProcessing, allSourceFiles, allClassPathClasses);
+        try {
+            compileTestFileManager.addGeneratedClasses(classFilesResult.getCompileTestFileManager().getGeneratedClasses());
+            compilationResult.getCompilationTimings().add(classFilesResult.getCompilationTimings());
+        } finally {
+            classFilesResult.releaseCompilerSession();
+        }
+
+    }
+
+    /**
+     * Compiles with explicitly passed compiler options and source files.
+     *
+     * @param compileTestConfiguration    the compile-test configuration to use
+     * @param wrappedAnnotationProcessors the processors to use
+     * @param compilerOptions             the compiler options to use
+     * @param sourceFiles                 the source files to compile
+     * @param classPathClasses            already compiled classes to provide via the class path - binary class names mapped to class file content
+     * @return the compilation result
+     */
+    static CompilationResult compile(CuteApi.CompilerTestBB compileTestConfiguration, Set<? extends Processor> wrappedAnnotationProcessors, List<String> compilerOptions, Iterable<? extends JavaFileObject> sourceFiles, Map<String, byte[]> classPathClasses) {
+        return compile(compileTestConfiguration, wrappedAnnotationProcessors, compilerOptions, sourceFiles, classPathClasses, false, false);
+    }
+
+    /**
+     * Compiles with explicitly passed compiler options and source files.
+     * <p>
+     * Analyzing only stops the compilation after annotation processing, attribution and flow analysis, so no class files are generated.
+     * This is only done for javac compilation tasks, other compilers will always generate class files.
+     *
+     * @param compileTestConfiguration    the compile-test configuration to use
+     * @param wrappedAnnotationProcessors the processors to use
+     * @param compilerOptions             the compiler options to use
+     * @param sourceFiles                 the source files to compile
+     * @param classPathClasses            already compiled classes to provide via the class path - binary class names mapped to class file content
+     * @param analyzeOnly                 true if class files shouldn't be generated
+     * @param failFast                    true if compilation should be aborted as soon as the outcome of the compile-test is decided
+     * @return the compilation result
+     */
+    static CompilationResult compile(CuteApi.CompilerTestBB compileTestConfiguration, Set<? extends Processor> wrappedAnnotationProcessors, List<String> compilerOptions, Iterable<? extends JavaFileObject> sourceFiles, Map<String, byte[]> classPathClasses, boolean analyzeOnly, boolean failFast) {
+
+        long start = System.nanoTime();
+        CompilationTimings compilationTimings = new CompilationTimings();
+        CompilationLimits compilationLimits = CompilationLimits.of(compileTestConfiguration);
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        Set<String> modulePath = getModulePath(compileTestConfiguration);
+
+        // file managers are reused across compilations with same class path, module path and compiler options
+        CompilerSessionPool.CompilerSession compilerSession = CompilerSessionPool.getInstance().borrow(CompilerSessionPool.SessionKey.of(modulePath, compilerOptions), diagnostics);
+
+        try {
+
+            StandardJavaFileManager stdJavaFileManager = compilerSession.getStandardJavaFileManager();
+
+            // Configure java compilation task
+            CompileTestFileManager javaFileManager = new CompileTestFileManager(stdJavaFileManager, compileTestConfiguration.resourceFiles());
+            javaFileManager.addClassPathClasses(classPathClasses);
+
+            FailFastDiagnosticListener failFastDiagnosticListener = failFast ? new FailFastDiagnosticListener(diagnostics, compileTestConfiguration, wrappedAnnotationProcessors) : null;
+
+            JavaCompiler.CompilationTask compilationTask = compilerSession.getCompiler().getTask(
+                    null,
+                    javaFileManager,
+                    failFastDiagnosticListener != null ? failFastDiagnosticListener : diagnostics,
+                    compilerOptions,
+                    null,
+                    sourceFiles);
+
+            compilationTask.setProcessors(wrappedAnnotationProcessors);
+            setCompilationLimits(javaFileManager, wrappedAnnotationProcessors, compilationLimits);
+
+            // handle java 9 module support via SPI to be backward compatible with older Java versions prior to java 9
+            if (!Java9SupportCheck.UNSUPPORTED_JAVA_VERSION) {
+                ModuleSupportSpi moduleService = ExtensionRegistry.locateModuleSupportSpi();
+                if (moduleService != null) {
+                    moduleService.applyModulePath(stdJavaFileManager, compilationTask, modulePath);
+                }
+            }
+
+            compilationTimings.measureCompilerPhases(compilationTask);
+            compilationTimings.addFileManagerSetupNanos(System.nanoTime() - start);
+
+            Method analyzeMethod = analyzeOnly ? JavacTaskSupport.getAnalyzeMethod(compilationTask) : null;
+
+            long compilationStart = System.nanoTime();
+            Boolean compilationSucceeded;
+            try {
+                if (analyzeMethod != null) {
+                    JavacTaskSupport.analyze(compilationTask, analyzeMethod);
+                    compilationSucceeded = diagnostics.getDiagnostics().stream().noneMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR);
+                } else {
+                    compilationSucceeded = compilationTask.call();
+                }
+            } catch (RuntimeException e) {
+                if (failFastDiagnosticListener == null || !failFastDiagnosticListener.isAborted()) {
+                    throw e;
+                }
+                // outcome is decided - an error has been reported
+                compilationSucceeded = false;
+            } finally {
+                setCompilationLimits(javaFileManager, wrappedAnnotationProcessors, null);
+            }
+
+            if (compilationLimits != null) {
+                compilationLimits.checkCompilationTime();
+            }
+            compilationTimings.addCompilationNanos(System.nanoTime() - compilationStart);
+
+            List<String> appliedProcessors = new ArrayList<>();
+            for (Processor processor : wrappedAnnotationProcessors) {
+                if (processor instanceof AnnotationProcessorWrapper) {
+                    AnnotationProcessorWrapper annotationProcessorWrapper = (AnnotationProcessorWrapper) processor;
+                    compilationTimings.addProcessorTimings(annotationProcessorWrapper.getTimings());
+                    if (annotationProcessorWrapper.wasApplied()) {
+                        appliedProcessors.add(annotationProcessorWrapper.getWrappedProcessorClassName());
+                    }
                 }
+            }
 
-                moduleService.applyModulePath(stdJavaFileManager, compilationTask, modulePath);
+            // diagnostics of javac reference the compiler context - snapshots allow the context to be garbage collected right away
+            List<DiagnosticRecord> diagnosticRecords = DiagnosticRecord.of(diagnostics.getDiagnostics(), DiagnosticRecord.getRequestedLocales(compileTestConfiguration));
+            compilerSession.detachDiagnosticListener();
+
+            CompilationResult compilationResult = new CompilationResult(compilationSucceeded, diagnosticRecords, javaFileManager, compilerSession, compilationTimings);
+            compilationResult.addAppliedProcessors(appliedProcessors);
+            if (failFastDiagnosticListener != null && failFastDiagnosticListener.isAborted()) {
+                compilationResult.setCompilationAborted();
+            } else if (analyzeMethod != null) {
+                compilationResult.setPendingClassFileGeneration(() -> generateClassFiles(compileTestConfiguration, compilerOptions, sourceFiles, classPathClasses, compilationResult));
             }
+            return compilationResult;
+
+        } catch (RuntimeException | Error e) {
+            // state of file manager is unknown after abnormal termination - so it mustn't be reused
+            CompilerSessionPool.getInstance().discard(compilerSession);
+            throw e;
         }
 
-        Boolean compilationSucceeded = compilationTask.call();
+    }
 
-        return new CompilationResult(compilationSucceeded, diagnostics, javaFileManager);
+    private static void setCompilationLimits(CompileTestFileManager compileTestFileManager, Set<? extends Processor> wrappedAnnotationProcessors, CompilationLimits compilationLimits) {
+        compileTestFileManager.setCompilationLimits(compilationLimits);
+        for (Processor processor : wrappedAnnotationProcessors) {
+            if (processor instanceof AnnotationProcessorWrapper) {
+                ((AnnotationProcessorWrapper) processor).setCompilationLimits(compilationLimits);
+            }
+        }
+    }
+
+    static Set<String> getModulePath(CuteApi.CompilerTestBB compileTestConfiguration) {
+
+        Set<String> modulePath = new HashSet<>(compileTestConfiguration.modules());
+        if (!Java9SupportCheck.UNSUPPORTED_JAVA_VERSION && compileTestConfiguration.testType() == CuteApi.TestType.UNIT && hasModuleInfoSourceFile(compileTestConfiguration)) {
+            modulePath.add("cute");
+        }
+        return modulePath;
 
     }
 
@@ -285,19 +541,16 @@ class CompileTest {
     /**
      * Allows checking if annotation processor has been applied during the compilation test.
      *
-     * @param diagnostics the DiagnosticCollector instance
+     * @param compilationResult the compilation result
      */
-    void checkIfProcessorsHaveBeenApplied(DiagnosticCollector<JavaFileObject> diagnostics) {
+    void checkIfProcessorsHaveBeenApplied(CompilationResult compilationResult) {
 
-        Set<String> messages = CompileTestUtilities.getMessages(diagnostics, Diagnostic.Kind.NOTE);
+        Set<String> appliedProcessors = compilationResult.getAppliedProcessors();
 
-        outer:
         for (AnnotationProcessorWrapper processor : this.wrappedAnnotationProcessors) {
 
-            for (String message : messages) {
-                if (message.equals(processor.getProcessorWasAppliedMessage())) {
-                    continue outer;
-                }
+            if (appliedProcessors.contains(processor.getWrappedProcessorClassName())) {
+                continue;
             }
 
             throw new FailingAssertionException(Constants.Messages.MESSAGE_PROCESSOR_HASNT_BEEN_APPLIED.produceMessage(processor.getWrappedProcessor().getClass().getCanonicalName(), processor.getSupportedAnnotationTypes()));
@@ -309,66 +562,81 @@ class CompileTest {
 
     /**
      * Method to check for specific messages.
+     * Only diagnostics matching the kind, source and line of a check are compared.
+     *
+     * @param diagnosticsIndex the index of the compilations diagnostics
      */
-    void checkMessages(DiagnosticCollector<JavaFileObject> diagnostics) {
+    void checkMessages(DiagnosticsIndex diagnosticsIndex) {
 
-        // Just check messages of matching kind
-        Map<Diagnostic.Kind, List<CuteApi.CompilerMessageCheckBB>> compileMessageChecks = getCompilerMessageCheckByKindMap(compileTestConfiguration);
+        for (CuteApi.CompilerMessageCheckBB messageToCheck : compileTestConfiguration.compilerMessageChecks()) {
 
-        for (Map.Entry<Diagnostic.Kind, List<CuteApi.CompilerMessageCheckBB>> entry : compileMessageChecks.entrySet()) {
+            List<DiagnosticsIndex.Entry> candidates = diagnosticsIndex.getEntries(
+                    messageToCheck.getKind().toDiagnosticsKind(),
+                    messageToCheck.atSource(),
+                    messageToCheck.atLine() != null ? Long.valueOf(messageToCheck.atLine()) : null);
 
-            Set<Diagnostic<? extends JavaFileObject>> filteredDiagnostics = CompileTestUtilities.getDiagnosticByKind(diagnostics, entry.getKey());
+            if (!containsMatchingMessage(messageToCheck, candidates)) {
+                // Not found ==> assertion fails
+                throw new FailingAssertionException(Constants.Messages.MESSAGE_HAVENT_FOUND_MESSSAGE.produceMessage(messageToCheck.getSearchString(), messageToCheck.getKind().name(), messageToCheck.toString()));
+            }
 
-            outer:
-            for (CuteApi.CompilerMessageCheckBB messageToCheck : entry.getValue()) {
+        }
 
-                for (Diagnostic<?> element : filteredDiagnostics) {
+    }
 
-                    String localizedMessage = element.getMessage(messageToCheck.withLocale());
+    private static boolean containsMatchingMessage(CuteApi.CompilerMessageCheckBB messageToCheck, List<DiagnosticsIndex.Entry> candidates) {
 
+        for (DiagnosticsIndex.Entry candidate : candidates) {
+            if (matches(messageToCheck, candidate)) {
+                return true;
+            }
+        }
 
-                    // Check message
-                    switch (messageToCheck.getComparisonType()) {
+        return false;
 
-                        case EQUALS: {
-                            if (!localizedMessage.equals(messageToCheck.getSearchString().get(0))) {
-                                continue;
-                            }
-                            break;
-                        }
-                        case CONTAINS:
-                        default: {
-                            if (!messageToCheck.getSearchString().stream().allMatch(localizedMessage::contains)) {
-                                continue;
-                            }
-                        }
-                    }
+    }
 
-                    // check source
-                    if (messageToCheck.atSource() != null && !messageToCheck.atSource().equals(((FileObject) element.getSource()).getName())) {
-                        continue;
-                    }
+    /**
+     * Checks if a diagnostic matches a message check.
+     *
+     * @param messageToCheck the message check
+     * @param entry          the diagnostic to check
+     * @return true if diagnostic matches all criteria of the message check, otherwise false
+     */
+    static boolean matches(CuteApi.CompilerMessageCheckBB messageToCheck, DiagnosticsIndex.Entry entry) {
 
-                    // check line
-                    if (messageToCheck.atLine() != null && element.getLineNumber() != messageToCheck.atLine()) {
-                        continue;
-                    }
+        // check kind
+        if (entry.getKind() != messageToCheck.getKind().toDiagnosticsKind()) {
+            return false;
+        }
 
-                    // check column
-                    if (messageToCheck.atColumn() != null && element.getColumnNumber() != messageToCheck.atColumn()) {
-                        continue;
-                    }
+        // check source
+        if (messageToCheck.atSource() != null && !messageToCheck.atSource().equals(entry.getSourceName())) {
+            return false;
+        }
 
-                    // found it
-                    continue outer;
+        // check line
+        if (messageToCheck.atLine() != null && entry.getLineNumber() != messageToCheck.atLine()) {
+            return false;
+        }
 
-                }
+        // check column
+        if (messageToCheck.atColumn() != null && entry.getColumnNumber() != messageToCheck.atColumn()) {
+            return false;
+        }
 
-                // Not found ==> assertion fails
-                throw new FailingAssertionException(Constants.Messages.MESSAGE_HAVENT_FOUND_MESSSAGE.produceMessage(messageToCheck.getSearchString(), messageToCheck.getKind().name(), messageToCheck.toString()));
+        String localizedMessage = entry.getMessage(messageToCheck.withLocale());
 
-            }
+        // Check message
+        switch (messageToCheck.getComparisonType()) {
 
+            case EQUALS: {
+                return localizedMessage.equals(messageToCheck.getSearchString().get(0));
+            }
+            case CONTAINS:
+            default: {
+                return messageToCheck.getSearchString().stream().allMatch(localizedMessage::contains);
+            }
         }
 
     }
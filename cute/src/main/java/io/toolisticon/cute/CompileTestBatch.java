@@ -0,0 +1,284 @@
+package io.toolisticon.cute;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Executes multiple compile-test configurations in parallel.
+ * <p>
+ * Configurations can be created via the fluent api by using createCompileTestConfiguration() instead of executeTest():
+ * <pre>
+ * List&lt;CompileTestBatch.BatchResult&gt; results = CompileTestBatch.execute(Arrays.asList(
+ *         Cute.blackBoxTest().given().processors(MyProcessor.class).andSourceFiles("/Test1.java").createCompileTestConfiguration(),
+ *         Cute.blackBoxTest().given().processors(MyProcessor.class).andSourceFiles("/Test2.java").createCompileTestConfiguration()
+ * ));
+ *
+ * results.get(0).executeCustomAssertions(e -&gt; ...);
+ * </pre>
+ * Each configuration is executed in its own compilation, unless unit tests are executed with shared compilations.
+ * Failures are kept in the result of the originating configuration and will be rethrown when accessing it.
+ */
+public final class CompileTestBatch {
+
+    /**
+     * Hidden constructor.
+     */
+    private CompileTestBatch() {
+
+    }
+
+    /**
+     * Executes all passed configurations in parallel by using as many threads as processors are available.
+     *
+     * @param compileTestConfigurations the configurations to execute
+     * @return the results in order of the passed configurations
+     */
+    public static List<BatchResult> execute(Collection<CuteApi.CompilerTestBB> compileTestConfigurations) {
+        return execute(compileTestConfigurations, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Executes all passed configurations in parallel.
+     *
+     * @param compileTestConfigurations the configurations to execute
+     * @param parallelism               the maximal number of concurrently running compilations
+     * @return the results in order of the passed configurations
+     */
+    public static List<BatchResult> execute(Collection<CuteApi.CompilerTestBB> compileTestConfigurations, int parallelism) {
+
+        if (compileTestConfigurations == null || compileTestConfigurations.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<CuteApi.CompilerTestBB> configurations = new ArrayList<>(compileTestConfigurations);
+
+        List<List<Integer>> workUnits = new ArrayList<>();
+        for (int i = 0; i < configurations.size(); i++) {
+            workUnits.add(Collections.singletonList(i));
+        }
+
+        return execute(configurations, workUnits, parallelism);
+
+    }
+
+    /**
+     * Executes all passed configurations in parallel by using as many threads as processors are available.
+     * Unit tests with the same source files, compiler options and modules share one single compilation.
+     *
+     * @param compileTestConfigurations the configurations to execute
+     * @return the results in order of the passed configurations
+     * @see #executeWithSharedCompilations(Collection, int)
+     */
+    public static List<BatchResult> executeWithSharedCompilations(Collection<CuteApi.CompilerTestBB> compileTestConfigurations) {
+        return executeWithSharedCompilations(compileTestConfigurations, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Executes all passed configurations in parallel.
+     * Unit tests with the same source files, compiler options and modules share one single compilation.
+     * <p>
+     * Only unit tests without expected exceptions and without checks of generated files or classes can share a compilation.
+     * Compiler messages are assigned to the unit test that has printed them.
+     * A unit test is compiled separately if its outcome might have been influenced by other unit tests of the shared compilation,
+     * for example if any unit test has generated a file or has reported an error.
+     *
+     * @param compileTestConfigurations the configurations to execute
+     * @param parallelism               the maximal number of concurrently running compilations
+     * @return the results in order of the passed configurations
+     */
+    public static List<BatchResult> executeWithSharedCompilations(Collection<CuteApi.CompilerTestBB> compileTestConfigurations, int parallelism) {
+
+        if (compileTestConfigurations == null || compileTestConfigurations.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<CuteApi.CompilerTestBB> configurations = new ArrayList<>(compileTestConfigurations);
+
+        List<List<Integer>> workUnits = new ArrayList<>();
+        Map<SharedCompilation.GroupKey, List<Integer>> sharedCompilations = new LinkedHashMap<>();
+        for (int i = 0; i < configurations.size(); i++) {
+
+            SharedCompilation.GroupKey groupKey = SharedCompilation.getGroupKey(configurations.get(i));
+            if (groupKey != null) {
+                sharedCompilations.computeIfAbsent(groupKey, k -> new ArrayList<>()).add(i);
+            } else {
+                workUnits.add(Collections.singletonList(i));
+            }
+
+        }
+        workUnits.addAll(sharedCompilations.values());
+
+        return execute(configurations, workUnits, parallelism);
+
+    }
+
+    private static List<BatchResult> execute(List<CuteApi.CompilerTestBB> configurations, List<List<Integer>> workUnits, int parallelism) {
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(Constants.Messages.IAE_INVALID_PARALLELISM.produceMessage(parallelism));
+        }
+
+        // ServiceLoader based SPI lookups and processors may rely on the context class loader of the caller
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(Math.min(parallelism, workUnits.size()));
+
+        try {
+
+            List<Future<List<BatchResult>>> futures = new ArrayList<>(workUnits.size());
+            for (List<Integer> workUnit : workUnits) {
+                futures.add(forkJoinPool.submit(() -> executeWorkUnit(configurations, workUnit, contextClassLoader)));
+            }
+
+            BatchResult[] results = new BatchResult[configurations.size()];
+            for (int i = 0; i < workUnits.size(); i++) {
+
+                List<BatchResult> workUnitResults = futures.get(i).get();
+                for (int j = 0; j < workUnitResults.size(); j++) {
+                    results[workUnits.get(i).get(j)] = workUnitResults.get(j);
+                }
+
+            }
+
+            return Arrays.asList(results);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(Constants.Messages.ISE_BATCH_EXECUTION_INTERRUPTED.produceMessage(), e);
+        } catch (ExecutionException e) {
+            // can't happen since all failures are captured in BatchResult
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            forkJoinPool.shutdownNow();
+        }
+
+    }
+
+    private static List<BatchResult> executeWorkUnit(List<CuteApi.CompilerTestBB> configurations, List<Integer> workUnit, ClassLoader contextClassLoader) {
+
+        Thread currentThread = Thread.currentThread();
+        ClassLoader previousContextClassLoader = currentThread.getContextClassLoader();
+        currentThread.setContextClassLoader(contextClassLoader);
+
+        try {
+
+            if (workUnit.size() == 1) {
+                return Collections.singletonList(executeTest(configurations.get(workUnit.get(0))));
+            }
+
+            List<CuteApi.CompilerTestBB> sharedCompilationConfigurations = new ArrayList<>();
+            for (Integer index : workUnit) {
+                sharedCompilationConfigurations.add(configurations.get(index));
+            }
+            return SharedCompilation.execute(sharedCompilationConfigurations);
+
+        } finally {
+            currentThread.setContextClassLoader(previousContextClassLoader);
+        }
+
+    }
+
+    static BatchResult executeTest(CuteApi.CompilerTestBB compileTestConfiguration) {
+        return executeTest(compileTestConfiguration, () -> CuteApi.ExecuteTestCommand.myCommand(compileTestConfiguration));
+    }
+
+    static BatchResult executeTest(CuteApi.CompilerTestBB compileTestConfiguration, Supplier<CuteApi.DoCustomAssertions> test) {
+
+        try {
+            return new BatchResult(compileTestConfiguration, test.get(), null);
+        } catch (Throwable e) {
+            return new BatchResult(compileTestConfiguration, null, e);
+        }
+
+    }
+
+    /**
+     * The result of one compile-test configuration executed in a batch.
+     */
+    public static final class BatchResult implements CuteApi.DoCustomAssertions {
+
+        private final CuteApi.CompilerTestBB compileTestConfiguration;
+        private final CuteApi.DoCustomAssertions doCustomAssertions;
+        private final Throwable failure;
+
+        BatchResult(CuteApi.CompilerTestBB compileTestConfiguration, CuteApi.DoCustomAssertions doCustomAssertions, Throwable failure) {
+            this.compileTestConfiguration = compileTestConfiguration;
+            this.doCustomAssertions = doCustomAssertions;
+            this.failure = failure;
+        }
+
+        /**
+         * Gets the configuration this result belongs to.
+         *
+         * @return the compile-test configuration
+         */
+        public CuteApi.CompilerTestBB getCompileTestConfiguration() {
+            return compileTestConfiguration;
+        }
+
+        /**
+         * Checks if the test has passed all checks.
+         *
+         * @return true if test has passed, otherwise false
+         */
+        public boolean isSuccessful() {
+            return failure == null;
+        }
+
+        /**
+         * Gets the failure of the test.
+         *
+         * @return the AssertionError or exception raised by the test or null if test has passed
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        /**
+         * Rethrows the failure of the test in the current thread, does nothing if test has passed.
+         * Failures are AssertionErrors of your unit test framework passed through the AssertionSpi.
+         */
+        public void rethrowFailure() {
+
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            } else if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure != null) {
+                throw new IllegalStateException(failure);
+            }
+
+        }
+
+        /**
+         * Rethrows the failure of the test or executes custom assertions if test has passed.
+         *
+         * @param customAssertion the custom assertions to do (use lambda!)
+         */
+        @Override
+        public void executeCustomAssertions(CuteApi.CustomAssertion customAssertion) {
+            rethrowFailure();
+            doCustomAssertions.executeCustomAssertions(customAssertion);
+        }
+
+        /**
+         * Releases the file manager and the class loader of the compilation, does nothing if test has failed.
+         */
+        @Override
+        public void close() {
+            if (doCustomAssertions != null) {
+                doCustomAssertions.close();
+            }
+        }
+    }
+
+}
@@ -1,7 +1,5 @@
 package io.toolisticon.cute;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -10,11 +8,17 @@ import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.tools.FileObject;
 import javax.tools.ForwardingJavaFileManager;
@@ -33,12 +37,16 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
 
 
 	/**
-	 * The file object cache that is used to store generated classes and resources.
+	 * The thread-safe file object cache that is used to store generated classes and resources.
+	 * File objects are indexed by location and package as well as by kind, so lookups don't need to scan all entries.
 	 * @param <T> The type of cached file objects, must be either FileObject or JavaFileObject
 	 */
     public static class FileObjectCache<T extends FileObject> {
 
-        final Map<URI, T> fileObjectCache = new HashMap<>();
+        final ConcurrentMap<URI, T> fileObjectCache = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<String, ConcurrentMap<String, T>> packageIndex = new ConcurrentHashMap<>();
+        private final ConcurrentMap<JavaFileObject.Kind, ConcurrentMap<URI, T>> kindIndex = new ConcurrentHashMap<>();
 
 
         public boolean contains(URI uri) {
@@ -51,16 +59,76 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
 
         public void addFileObject(URI uri, T fileObject) {
             fileObjectCache.put(uri, fileObject);
+            JavaFileObject.Kind kind = fileObject instanceof JavaFileObject ? ((JavaFileObject) fileObject).getKind() : null;
+            kindIndex.computeIfAbsent(kind != null ? kind : JavaFileObject.Kind.OTHER, k -> new ConcurrentHashMap<>()).put(uri, fileObject);
+        }
+
+        /**
+         * Adds a file object and indexes it by location and path.
+         *
+         * @param location   the location of the file object
+         * @param path       the path of the file object relative to the location
+         * @param fileObject the file object
+         */
+        public void addFileObject(Location location, String path, T fileObject) {
+            addFileObject(fileObject.toUri(), fileObject);
+            int lastSlash = path.lastIndexOf('/');
+            packageIndex.computeIfAbsent(getPackageKey(location, lastSlash >= 0 ? path.substring(0, lastSlash) : ""), k -> new ConcurrentHashMap<>())
+                    .put(path.substring(lastSlash + 1), fileObject);
+        }
+
+        /**
+         * Gets a file object by location and path.
+         *
+         * @param location the location of the file object
+         * @param path     the path of the file object relative to the location
+         * @return the file object or null if it doesn't exist
+         */
+        public T getFileObject(Location location, String path) {
+            int lastSlash = path.lastIndexOf('/');
+            Map<String, T> packageEntries = packageIndex.get(getPackageKey(location, lastSlash >= 0 ? path.substring(0, lastSlash) : ""));
+            return packageEntries != null ? packageEntries.get(path.substring(lastSlash + 1)) : null;
+        }
+
+        public boolean contains(Location location, String path) {
+            return getFileObject(location, path) != null;
+        }
+
+        /**
+         * Gets all file objects of a package.
+         *
+         * @param location    the location of the file objects
+         * @param packageName the package name
+         * @return an unmodifiable view of the file objects, sub packages aren't included
+         */
+        public Collection<T> getFileObjects(Location location, String packageName) {
+            Map<String, T> packageEntries = packageIndex.get(getPackageKey(location, packageName.replace('.', '/')));
+            return packageEntries != null ? Collections.unmodifiableCollection(packageEntries.values()) : Collections.emptyList();
+        }
+
+        /**
+         * Gets all file objects of a kind.
+         *
+         * @param kind the kind of the file objects
+         * @return an unmodifiable view of the file objects
+         */
+        public Collection<T> getFileObjects(JavaFileObject.Kind kind) {
+            Map<URI, T> kindEntries = kindIndex.get(kind);
+            return kindEntries != null ? Collections.unmodifiableCollection(kindEntries.values()) : Collections.emptyList();
         }
 
         public Collection<T> getEntries() {
-            return fileObjectCache.values();
+            return Collections.unmodifiableCollection(fileObjectCache.values());
         }
 
         public boolean isEmpty() {
             return fileObjectCache.isEmpty();
         }
 
+        private static String getPackageKey(Location location, String packagePath) {
+            return location.getName() + ':' + packagePath;
+        }
+
 
     }
    
@@ -95,6 +163,8 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
     private final FileObjectCache<InMemoryOutputJavaFileObject> generatedJavaFileObjectCache = new FileObjectCache<>();
     private final FileObjectCache<InMemoryOutputFileObject> generatedFileObjectCache = new FileObjectCache<>();
     private final ProvidedResourceFilesCache providedResourceFilesCache;
+    private final List<InMemoryOutputJavaFileObject> precompiledClasses = new ArrayList<>();
+    private volatile CompilationLimits compilationLimits;
 
 
     public CompileTestFileManager(StandardJavaFileManager standardJavaFileManager, List<CuteApi.ResourceFileBB> resourceFiles) {
@@ -105,12 +175,148 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
 
     }
 
-    List<InMemoryOutputJavaFileObject> getGeneratedJavaFileObjects() {
-        return new ArrayList<>(generatedJavaFileObjectCache.getEntries());
+    Collection<InMemoryOutputJavaFileObject> getGeneratedJavaFileObjects() {
+        return generatedJavaFileObjectCache.getEntries();
+    }
+
+    Collection<InMemoryOutputJavaFileObject> getGeneratedJavaFileObjects(JavaFileObject.Kind kind) {
+        return generatedJavaFileObjectCache.getFileObjects(kind);
+    }
+
+    Collection<InMemoryOutputFileObject> getGeneratedFileObjects() {
+        return generatedFileObjectCache.getEntries();
+    }
+
+    /**
+     * Gets a generated JavaFileObject by its path.
+     *
+     * @param location the output location
+     * @param path     the path relative to the location, for example io/toolisticon/Test.class
+     * @return the JavaFileObject or null if it doesn't exist
+     */
+    InMemoryOutputJavaFileObject getGeneratedJavaFileObject(Location location, String path) {
+        return generatedJavaFileObjectCache.getFileObject(location, path);
     }
 
-    List<InMemoryOutputFileObject> getGeneratedFileObjects() {
-        return new ArrayList<>(generatedFileObjectCache.getEntries());
+    /**
+     * Gets a generated FileObject by its path.
+     *
+     * @param location the output location
+     * @param path     the path relative to the location, for example META-INF/services/javax.annotation.processing.Processor
+     * @return the FileObject or null if it doesn't exist
+     */
+    InMemoryOutputFileObject getGeneratedFileObject(Location location, String path) {
+        return generatedFileObjectCache.getFileObject(location, path);
+    }
+
+    /**
+     * Adds already compiled classes to the class path.
+     *
+     * @param classes the binary class names mapped to the content of the class files
+     */
+    void addClassPathClasses(Map<String, byte[]> classes) {
+
+        for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+            InMemoryOutputJavaFileObject javaFileObject = new InMemoryOutputJavaFileObject(StandardLocation.CLASS_PATH, entry.getKey(), JavaFileObject.Kind.CLASS);
+            javaFileObject.setContent(entry.getValue());
+            precompiledClasses.add(javaFileObject);
+        }
+
+    }
+
+    /**
+     * Adds classes that have been compiled in a separate compilation as generated classes.
+     *
+     * @param classes the binary class names mapped to the content of the class files
+     */
+    void addGeneratedClasses(Map<String, byte[]> classes) {
+
+        for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+            addGeneratedJavaFileObject(StandardLocation.CLASS_OUTPUT, entry.getKey(), JavaFileObject.Kind.CLASS, entry.getValue());
+        }
+
+    }
+
+    /**
+     * Adds a JavaFileObject that has been generated outside of this file manager.
+     *
+     * @param location  the output location
+     * @param className the class name
+     * @param kind      the kind of the JavaFileObject
+     * @param content   the content
+     */
+    void addGeneratedJavaFileObject(Location location, String className, JavaFileObject.Kind kind, byte[] content) {
+        InMemoryOutputJavaFileObject javaFileObject = new InMemoryOutputJavaFileObject(location, className, kind);
+        javaFileObject.setContent(content);
+        generatedJavaFileObjectCache.addFileObject(location, pathForJavaFileObject(className, kind), javaFileObject);
+    }
+
+    /**
+     * Adds a FileObject that has been generated outside of this file manager.
+     *
+     * @param location     the output location
+     * @param packageName  the package name
+     * @param relativeName the name relative to the package
+     * @param content      the content
+     */
+    void addGeneratedFileObject(Location location, String packageName, String relativeName, byte[] content) {
+        InMemoryOutputFileObject fileObject = new InMemoryOutputFileObject(location, packageName, relativeName);
+        fileObject.setContent(content);
+        generatedFileObjectCache.addFileObject(location, pathForFileObject(packageName, relativeName), fileObject);
+    }
+
+    /**
+     * Gets all generated classes.
+     *
+     * @return the binary class names mapped to the content of the class files
+     */
+    Map<String, byte[]> getGeneratedClasses() {
+
+        Map<String, byte[]> result = new HashMap<>();
+        for (InMemoryOutputJavaFileObject javaFileObject : generatedJavaFileObjectCache.getFileObjects(JavaFileObject.Kind.CLASS)) {
+            result.put(javaFileObject.getClassName(), javaFileObject.getContent());
+        }
+        return result;
+
+    }
+
+    @Override
+    public Iterable<JavaFileObject> list(Location location, String packageName, Set<JavaFileObject.Kind> kinds, boolean recurse) throws IOException {
+
+        Iterable<JavaFileObject> result = super.list(location, packageName, kinds, recurse);
+
+        if (precompiledClasses.isEmpty() || !StandardLocation.CLASS_PATH.equals(location) || !kinds.contains(JavaFileObject.Kind.CLASS)) {
+            return result;
+        }
+
+        List<JavaFileObject> extendedResult = new ArrayList<>();
+        for (InMemoryOutputJavaFileObject precompiledClass : precompiledClasses) {
+            String className = precompiledClass.getClassName();
+            int lastDot = className.lastIndexOf('.');
+            String classPackageName = lastDot >= 0 ? className.substring(0, lastDot) : "";
+            if (classPackageName.equals(packageName) || (recurse && classPackageName.startsWith(packageName.isEmpty() ? "" : packageName + "."))) {
+                extendedResult.add(precompiledClass);
+            }
+        }
+        for (JavaFileObject javaFileObject : result) {
+            extendedResult.add(javaFileObject);
+        }
+        return extendedResult;
+
+    }
+
+    @Override
+    public String inferBinaryName(Location location, JavaFileObject file) {
+        if (file instanceof InMemoryOutputJavaFileObject) {
+            return ((InMemoryOutputJavaFileObject) file).getClassName();
+        }
+        return super.inferBinaryName(location, file);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The standard file manager is owned by the CompilerSessionPool and must stay open
+        flush();
     }
 
     @Override
@@ -118,11 +324,24 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
         return a.toUri().equals(b.toUri());
     }
 
+    /**
+     * Sets the limits of the current compilation, generated files and their size will be reported to it.
+     *
+     * @param compilationLimits the limits or null if compilation isn't limited
+     */
+    void setCompilationLimits(CompilationLimits compilationLimits) {
+        this.compilationLimits = compilationLimits;
+    }
+
     @Override
     public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
 
         InMemoryOutputJavaFileObject result = new InMemoryOutputJavaFileObject(location, className, kind);
-        generatedJavaFileObjectCache.addFileObject(result.toUri(), result);
+        if (compilationLimits != null) {
+            compilationLimits.fileGenerated(result.getName());
+            result.setCompilationLimits(compilationLimits);
+        }
+        generatedJavaFileObjectCache.addFileObject(location, pathForJavaFileObject(className, kind), result);
         return result;
 
     }
@@ -130,7 +349,11 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
     @Override
     public FileObject getFileForOutput(Location location, String packageName, String relativeName, FileObject sibling) {
         InMemoryOutputFileObject result = new InMemoryOutputFileObject(location, packageName, relativeName);
-        generatedFileObjectCache.addFileObject(result.toUri(), result);
+        if (compilationLimits != null) {
+            compilationLimits.fileGenerated(result.getName());
+            result.setCompilationLimits(compilationLimits);
+        }
+        generatedFileObjectCache.addFileObject(location, pathForFileObject(packageName, relativeName), result);
         return result;
     }
 
@@ -139,12 +362,12 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
 
         if (location.isOutputLocation()) {
 
-            URI uri = uriForJavaFileObject(location, className, kind);
+            InMemoryOutputJavaFileObject javaFileObject = generatedJavaFileObjectCache.getFileObject(location, pathForJavaFileObject(className, kind));
 
-            if (generatedJavaFileObjectCache.contains(uri)) {
-                return generatedJavaFileObjectCache.getFileObject(uri);
+            if (javaFileObject != null) {
+                return javaFileObject;
             } else {
-                throw new IllegalArgumentException(Constants.Messages.IAE_CANNOT_FIND_JAVAFILEOBJECT.produceMessage(uri.toString()));
+                throw new IllegalArgumentException(Constants.Messages.IAE_CANNOT_FIND_JAVAFILEOBJECT.produceMessage(uriForJavaFileObject(location, className, kind).toString()));
             }
         }
         return super.getJavaFileForInput(location, className, kind);
@@ -156,12 +379,12 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
 
         if (location.isOutputLocation()) {
 
-            URI uri = uriForFileObject(location, packageName, relativeName);
+            InMemoryOutputFileObject fileObject = generatedFileObjectCache.getFileObject(location, pathForFileObject(packageName, relativeName));
 
-            if (generatedFileObjectCache.contains(uri)) {
-                return generatedFileObjectCache.getFileObject(uri);
+            if (fileObject != null) {
+                return fileObject;
             } else {
-                throw new IllegalArgumentException(Constants.Messages.IAE_CANNOT_FIND_FILEOBJECT.produceMessage(uri.toString()));
+                throw new IllegalArgumentException(Constants.Messages.IAE_CANNOT_FIND_FILEOBJECT.produceMessage(uriForFileObject(location, packageName, relativeName).toString()));
             }
         } else if (StandardLocation.CLASS_PATH.equals(location)) {
         	
@@ -190,7 +413,7 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
     public boolean existsExpectedJavaFileObject(JavaFileManager.Location location, String className, JavaFileObject.Kind kind) {
     	
     	if (location.isOutputLocation()) {
-    		return this.generatedJavaFileObjectCache.contains(uriForJavaFileObject(location, className, kind));
+    		return this.generatedJavaFileObjectCache.contains(location, pathForJavaFileObject(className, kind));
     	} 
     	
     	try {
@@ -219,7 +442,7 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
     	
     	// otherwise check the generated file object cache
     	if (location.isOutputLocation()) {
-    		return this.generatedFileObjectCache.contains(uriForFileObject(location, packageName, relativeName));
+    		return this.generatedFileObjectCache.contains(location, pathForFileObject(packageName, relativeName));
     	}
     	
     	// use standard file manager for input files
@@ -236,6 +459,10 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
 
         void setContent(byte[] content);
 
+        default void publishContent(InMemoryContent content) {
+            setContent(content.getBytes());
+        }
+
     }
 
     
@@ -257,32 +484,76 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
         return URI.create(uri.toString());
     }
 
+    static String pathForFileObject(String packageName, String relativeName) {
+        return packageName.isEmpty() ? relativeName : packageName.replace('.', '/') + '/' + relativeName;
+    }
+
+    static String pathForJavaFileObject(String className, JavaFileObject.Kind kind) {
+        return className.replace('.', '/') + kind.extension;
+    }
+
     private static URI uriForJavaFileObject(Location location, String className, JavaFileObject.Kind kind) {
         return URI.create(
                 "mem://" + location.getName() + '/' + className.replace('.', '/') + kind.extension);
     }
 
 
-    public static abstract class AbstractInMemoryOutputFileObject extends SimpleJavaFileObject implements OutputStreamCallback {
+    public static abstract class AbstractInMemoryOutputFileObject extends SimpleJavaFileObject implements OutputStreamCallback, InMemoryFileObject {
 
-        private byte[] content = new byte[0];
+        private volatile InMemoryContent content = InMemoryContent.EMPTY;
+        private volatile CompilationLimits compilationLimits;
 
         public AbstractInMemoryOutputFileObject(URI uri, Kind kind) {
             super(uri, kind);
         }
 
+        /**
+         * Gets the content as byte array.
+         * The array is shared and must not be modified.
+         *
+         * @return the content
+         */
         public byte[] getContent() {
-            return content;
+            return content.getBytes();
+        }
+
+        /**
+         * Gets a read-only view of the content.
+         *
+         * @return the content
+         */
+        @Override
+        public ByteBuffer getContentAsByteBuffer() {
+            return content.asByteBuffer();
+        }
+
+        @Override
+        public int getContentLength() {
+            return content.size();
         }
 
         @Override
         public void setContent(byte[] content) {
-            this.content = content != null ? content : new byte[0];
+            publishContent(content != null ? InMemoryContent.of(content) : InMemoryContent.EMPTY);
+        }
+
+        @Override
+        public void publishContent(InMemoryContent content) {
+            InMemoryContent previousContent = this.content;
+            this.content = content != null ? content : InMemoryContent.EMPTY;
+            CompilationLimits currentCompilationLimits = compilationLimits;
+            if (currentCompilationLimits != null) {
+                currentCompilationLimits.contentChanged((long) this.content.size() - previousContent.size());
+            }
+        }
+
+        void setCompilationLimits(CompilationLimits compilationLimits) {
+            this.compilationLimits = compilationLimits;
         }
 
         @Override
         public InputStream openInputStream() {
-            return new ByteArrayInputStream(content);
+            return content.openInputStream();
         }
 
         @Override
@@ -297,7 +568,7 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
 
         @Override
         public CharSequence getCharContent(boolean ignoreEncodingErrors) {
-            return new String(content);
+            return content.getCharContent();
         }
 
         @Override
@@ -361,29 +632,85 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
     }
 
     /**
-     * Does call a callback function on close to set content.
-     * Have to check if it is sufficient to pass content on close.
+     * Output stream that writes into growing chunks and publishes its content to a callback on flush and close.
+     * Written bytes are never copied into a bigger buffer, publishing content just passes references to the chunks.
      */
-    public static class InMemoryOutputStream extends ByteArrayOutputStream {
+    public static class InMemoryOutputStream extends OutputStream {
+
+        private static final int INITIAL_CHUNK_SIZE = 1024;
+        private static final int MAX_CHUNK_SIZE = 1024 * 1024;
 
         private final OutputStreamCallback outputStreamCallback;
 
+        private byte[][] chunks = new byte[4][];
+        private int chunkCount;
+        private int positionInChunk;
+        private int size;
+
         public InMemoryOutputStream(OutputStreamCallback outputStreamCallback) {
             this.outputStreamCallback = outputStreamCallback;
         }
 
         @Override
-        public void close() throws IOException {
+        public void write(int b) {
+            nextChunkIfNeeded(1);
+            chunks[chunkCount - 1][positionInChunk++] = (byte) b;
+            size++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
 
-            super.close();
-            outputStreamCallback.setContent(this.toByteArray());
+            while (len > 0) {
 
+                nextChunkIfNeeded(len);
+                byte[] chunk = chunks[chunkCount - 1];
+                int length = Math.min(len, chunk.length - positionInChunk);
+                System.arraycopy(b, off, chunk, positionInChunk, length);
+                positionInChunk += length;
+                size += length;
+                off += length;
+                len -= length;
+
+            }
+
+        }
+
+        /**
+         * Publishes the content written so far.
+         */
+        @Override
+        public void flush() {
+            outputStreamCallback.publishContent(new InMemoryContent(Arrays.copyOf(chunks, chunkCount), size));
         }
 
         @Override
-        public void write(byte[] b) throws IOException {
-            super.write(b);
-            outputStreamCallback.setContent(this.toByteArray());
+        public void close() {
+            flush();
+        }
+
+        private void nextChunkIfNeeded(int requiredLength) {
+
+            if (chunkCount > 0 && positionInChunk < chunks[chunkCount - 1].length) {
+                return;
+            }
+
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunkCount * 2);
+            }
+
+            // chunks are growing with the content, but the first chunk is sized to the first write to avoid wasting memory
+            int chunkSize = chunkCount == 0
+                    ? Math.max(INITIAL_CHUNK_SIZE, Math.min(requiredLength, MAX_CHUNK_SIZE))
+                    : Math.min(Math.max(size, INITIAL_CHUNK_SIZE), MAX_CHUNK_SIZE);
+
+            chunks[chunkCount++] = new byte[chunkSize];
+            positionInChunk = 0;
+
         }
     }
     
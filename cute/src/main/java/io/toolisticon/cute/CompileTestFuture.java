@@ -0,0 +1,139 @@
+package io.toolisticon.cute;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Future of an asynchronously executed compile-test.
+ * <p>
+ * The test is executed exactly like a synchronous test, so all failures are raised via the AssertionSpi in the executing thread.
+ * They complete the future exceptionally and are rethrown unwrapped by {@link #join()} and {@link #getNow(Object)},
+ * so joining the future behaves like calling executeTest() in the joining thread.
+ * {@link #get()} keeps its contract and wraps failures in an ExecutionException.
+ * <p>
+ * Tests are executed by the passed executor or by a shared pool of daemon threads managed by cute.
+ * The context class loader of the calling thread is used while executing the test,
+ * since ServiceLoader based SPI lookups and processors may rely on it.
+ */
+final class CompileTestFuture extends CompletableFuture<CuteApi.DoCustomAssertions> {
+
+    /**
+     * Lazily created executor managed by cute.
+     */
+    private static final class DefaultExecutorHolder {
+
+        private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+
+            private final AtomicInteger threadCounter = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "cute-async-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+
+        });
+
+    }
+
+    /**
+     * Hidden constructor.
+     */
+    private CompileTestFuture() {
+
+    }
+
+    /**
+     * Executes the passed compile-test configuration asynchronously.
+     *
+     * @param compileTestConfiguration the configuration to execute
+     * @param executor                 the executor to use or null to use the executor managed by cute
+     * @return the future of the custom assertions stage
+     */
+    static CompletableFuture<CuteApi.DoCustomAssertions> execute(CuteApi.CompilerTestBB compileTestConfiguration, Executor executor) {
+
+        final CompileTestFuture future = new CompileTestFuture();
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        try {
+
+            (executor != null ? executor : DefaultExecutorHolder.EXECUTOR).execute(() -> {
+
+                // skip compilation if future has been cancelled in the meantime
+                if (future.isDone()) {
+                    return;
+                }
+
+                Thread currentThread = Thread.currentThread();
+                ClassLoader previousContextClassLoader = currentThread.getContextClassLoader();
+                currentThread.setContextClassLoader(contextClassLoader);
+
+                try {
+                    future.complete(CuteApi.ExecuteTestCommand.myCommand(compileTestConfiguration));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    currentThread.setContextClassLoader(previousContextClassLoader);
+                }
+
+            });
+
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+
+    }
+
+    /**
+     * Waits for the test and returns its custom assertions stage.
+     * Failures of the test are rethrown unwrapped, AssertionErrors of your unit test framework will be passed through.
+     *
+     * @return the custom assertions stage
+     */
+    @Override
+    public CuteApi.DoCustomAssertions join() {
+        try {
+            return super.join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Returns the custom assertions stage if test is completed, otherwise the passed value.
+     * Failures of the test are rethrown unwrapped, AssertionErrors of your unit test framework will be passed through.
+     *
+     * @param valueIfAbsent the value to return if test isn't completed yet
+     * @return the custom assertions stage or passed value
+     */
+    @Override
+    public CuteApi.DoCustomAssertions getNow(CuteApi.DoCustomAssertions valueIfAbsent) {
+        try {
+            return super.getNow(valueIfAbsent);
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(CompletionException completionException) {
+
+        Throwable cause = completionException.getCause();
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        } else if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return completionException;
+
+    }
+
+}
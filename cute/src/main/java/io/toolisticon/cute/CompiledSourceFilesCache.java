@@ -0,0 +1,337 @@
+package io.toolisticon.cute;
+
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Cache for compiled source files of black-box tests.
+ * <p>
+ * Source files are compiled once without annotation processing. Subsequent compile-tests with the same source files and compiler options
+ * are just doing the annotation processing ({@code -proc:only}) on the source files.
+ * Generated source files are compiled afterwards in a separate compilation against the cached classes.
+ * <p>
+ * Source files that can't be compiled without annotation processing, for example because they are referencing generated classes, aren't cached.
+ * In this case compile-tests fall back to a regular compilation.
+ */
+final class CompiledSourceFilesCache {
+
+    /**
+     * The maximal number of cached source file sets.
+     */
+    static final int MAX_ENTRIES = 32;
+
+    private static final String OPTION_PROC_NONE = "-proc:none";
+    private static final String OPTION_PROC_ONLY = "-proc:only";
+
+    private static final Map<String, CompiledSourceFiles> CACHE = Collections.synchronizedMap(new LinkedHashMap<String, CompiledSourceFiles>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledSourceFiles> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+
+    });
+
+    /**
+     * Hidden constructor.
+     */
+    private CompiledSourceFilesCache() {
+
+    }
+
+    /**
+     * Checks if the cache can be used for the passed compile-test configuration.
+     *
+     * @param compileTestConfiguration the compile-test configuration
+     * @param processors               the processors to use
+     * @return true if caching is enabled and applicable, otherwise false
+     */
+    static boolean isApplicable(CuteApi.CompilerTestBB compileTestConfiguration, Set<? extends Processor> processors) {
+
+        if (!Boolean.TRUE.equals(compileTestConfiguration.reuseCompiledSourceFiles())
+                || compileTestConfiguration.testType() != CuteApi.TestType.BLACK_BOX
+                || processors.isEmpty()
+                || !compileTestConfiguration.modules().isEmpty()) {
+            return false;
+        }
+
+        for (String compilerOption : compileTestConfiguration.getNormalizedCompilerOptions()) {
+            // processing related options would interfere with the separation of processing and compilation
+            if (compilerOption.startsWith("-proc") || compilerOption.startsWith("-processor") || compilerOption.startsWith("--processor") || compilerOption.startsWith("-implicit") || compilerOption.equals("-Werror")) {
+                return false;
+            }
+        }
+
+        for (JavaFileObject sourceFile : compileTestConfiguration.sourceFiles()) {
+            if (sourceFile.getName().endsWith("module-info.java")) {
+                return false;
+            }
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Compiles by reusing cached classes of the source files.
+     *
+     * @param compileTestConfiguration the compile-test configuration
+     * @param processors               the processors to use
+     * @return the compilation result or null if source files can't be compiled without annotation processing
+     */
+    static CompilationResult compile(CuteApi.CompilerTestBB compileTestConfiguration, Set<? extends Processor> processors) {
+
+        String key = createKey(compileTestConfiguration);
+        if (key == null) {
+            return null;
+        }
+
+        CompiledSourceFiles compiledSourceFiles = CACHE.get(key);
+        if (compiledSourceFiles == null) {
+            compiledSourceFiles = compileSourceFiles(compileTestConfiguration);
+            CACHE.put(key, compiledSourceFiles);
+        }
+
+        if (!compiledSourceFiles.successful) {
+            return null;
+        }
+
+        // processing only
+        CompilationResult processingResult = CompileTest.compile(
+                compileTestConfiguration,
+                processors,
+                withOption(compileTestConfiguration.getNormalizedCompilerOptions(), OPTION_PROC_ONLY),
+                compileTestConfiguration.sourceFiles(),
+                Collections.emptyMap());
+
+        // javac doesn't compile anything if errors occurred during processing
+        if (!processingResult.getCompilationSucceeded()) {
+            return processingResult;
+        }
+
+        List<DiagnosticRecord> generatedSourceFilesDiagnostics = Collections.emptyList();
+
+        CompileTestFileManager compileTestFileManager = processingResult.getCompileTestFileManager();
+        boolean compilationSucceeded = true;
+
+        // compile generated source files against cached and generated classes
+        List<JavaFileObject> generatedSourceFiles = new ArrayList<>(compileTestFileManager.getGeneratedJavaFileObjects(JavaFileObject.Kind.SOURCE));
+
+        if (!generatedSourceFiles.isEmpty()) {
+
+            Map<String, byte[]> classPathClasses = new HashMap<>(compiledSourceFiles.classes);
+            classPathClasses.putAll(compileTestFileManager.getGeneratedClasses());
+
+            CompilationResult generatedSourceFilesResult = CompileTest.compile(
+                    compileTestConfiguration,
+                    Collections.emptySet(),
+                    withOption(compileTestConfiguration.getNormalizedCompilerOptions(), OPTION_PROC_NONE),
+                    generatedSourceFiles,
+                    classPathClasses);
+
+            try {
+
+                generatedSourceFilesDiagnostics = generatedSourceFilesResult.getDiagnostics();
+
+                compilationSucceeded = generatedSourceFilesResult.getCompilationSucceeded();
+                processingResult.getCompilationTimings().add(generatedSourceFilesResult.getCompilationTimings());
+                compileTestFileManager.addGeneratedClasses(generatedSourceFilesResult.getCompileTestFileManager().getGeneratedClasses());
+
+            } finally {
+                generatedSourceFilesResult.releaseCompilerSession();
+            }
+
+        }
+
+        compileTestFileManager.addGeneratedClasses(compiledSourceFiles.classes);
+
+        List<DiagnosticRecord> diagnostics = mergeDiagnostics(processingResult.getDiagnostics(), compiledSourceFiles.diagnostics, generatedSourceFilesDiagnostics);
+
+        CompilationResult compilationResult = new CompilationResult(compilationSucceeded, diagnostics, compileTestFileManager, processingResult.getCompilerSession(), processingResult.getCompilationTimings());
+        compilationResult.addAppliedProcessors(processingResult.getAppliedProcessors());
+        return compilationResult;
+
+    }
+
+    private static CompiledSourceFiles compileSourceFiles(CuteApi.CompilerTestBB compileTestConfiguration) {
+
+        CompilationResult compilationResult = CompileTest.compile(
+                compileTestConfiguration,
+                Collections.emptySet(),
+                withOption(compileTestConfiguration.getNormalizedCompilerOptions(), OPTION_PROC_NONE),
+                compileTestConfiguration.sourceFiles(),
+                Collections.emptyMap());
+
+        try {
+
+            if (!compilationResult.getCompilationSucceeded()) {
+                return new CompiledSourceFiles(false, Collections.emptyMap(), Collections.emptyList());
+            }
+
+            return new CompiledSourceFiles(true, compilationResult.getCompileTestFileManager().getGeneratedClasses(), compilationResult.getDiagnostics());
+
+        } finally {
+            compilationResult.releaseCompilerSession();
+        }
+
+    }
+
+    /**
+     * Merges the diagnostics of the separate compilations in the order javac would report them in a single compilation.
+     * <p>
+     * The {@code -proc:only} run reports the parser and attribution diagnostics of the source files again,
+     * so diagnostics of the {@code -proc:none} compilations that are equal in kind, source, position and code are dropped.
+     * The mandatory warning notes (deprecation, unchecked) are reported by javac at the end of a compilation.
+     *
+     * @param processingDiagnostics           the diagnostics of the annotation processing run
+     * @param sourceFilesDiagnostics          the diagnostics of the cached compilation of the source files
+     * @param generatedSourceFilesDiagnostics the diagnostics of the compilation of the generated source files
+     * @return the merged diagnostics
+     */
+    static List<DiagnosticRecord> mergeDiagnostics(List<DiagnosticRecord> processingDiagnostics, List<DiagnosticRecord> sourceFilesDiagnostics, List<DiagnosticRecord> generatedSourceFilesDiagnostics) {
+
+        Set<List<Object>> reportedDiagnostics = new HashSet<>();
+        for (DiagnosticRecord diagnostic : processingDiagnostics) {
+            reportedDiagnostics.add(getDiagnosticKey(diagnostic));
+        }
+
+        List<DiagnosticRecord> diagnostics = new ArrayList<>(processingDiagnostics);
+        List<DiagnosticRecord> mandatoryWarningNotes = new ArrayList<>();
+
+        for (List<DiagnosticRecord> compilationDiagnostics : Arrays.asList(sourceFilesDiagnostics, generatedSourceFilesDiagnostics)) {
+            for (DiagnosticRecord diagnostic : compilationDiagnostics) {
+
+                if (!reportedDiagnostics.add(getDiagnosticKey(diagnostic))) {
+                    continue;
+                }
+
+                // annotation processing is disabled in these compilations, so position-less notes are javac's mandatory warning notes
+                if (diagnostic.getKind() == Diagnostic.Kind.NOTE && diagnostic.getPosition() == Diagnostic.NOPOS) {
+                    mandatoryWarningNotes.add(diagnostic);
+                } else {
+                    diagnostics.add(diagnostic);
+                }
+
+            }
+        }
+
+        diagnostics.addAll(mandatoryWarningNotes);
+        return diagnostics;
+
+    }
+
+    private static List<Object> getDiagnosticKey(DiagnosticRecord diagnostic) {
+        return Arrays.asList(
+                diagnostic.getKind(),
+                diagnostic.getSource() != null ? diagnostic.getSource().toUri() : null,
+                diagnostic.getPosition(),
+                diagnostic.getCode());
+    }
+
+    private static List<String> withOption(List<String> compilerOptions, String option) {
+        List<String> result = new ArrayList<>(compilerOptions);
+        result.add(option);
+        return result;
+    }
+
+    /**
+     * Creates the cache key by hashing class path, compiler options, requested locales and the source files.
+     *
+     * @param compileTestConfiguration the compile-test configuration
+     * @return the key or null if source files can't be read
+     */
+    static String createKey(CuteApi.CompilerTestBB compileTestConfiguration) {
+
+        try {
+
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            update(messageDigest, System.getProperty("java.class.path"));
+            update(messageDigest, compileTestConfiguration.getNormalizedCompilerOptions().toString());
+
+            // diagnostics are only localized for the requested locales
+            Set<String> locales = new TreeSet<>();
+            for (Locale locale : DiagnosticRecord.getRequestedLocales(compileTestConfiguration)) {
+                locales.add(locale.toLanguageTag());
+            }
+            update(messageDigest, locales.toString());
+
+            // order of source files mustn't influence the key
+            Map<String, JavaFileObject> sourceFiles = new TreeMap<>();
+            for (JavaFileObject sourceFile : compileTestConfiguration.sourceFiles()) {
+                sourceFiles.put(sourceFile.toUri().toString(), sourceFile);
+            }
+
+            for (Map.Entry<String, JavaFileObject> entry : sourceFiles.entrySet()) {
+                update(messageDigest, entry.getKey());
+                update(messageDigest, entry.getValue().getCharContent(true).toString());
+            }
+
+            StringBuilder key = new StringBuilder();
+            for (byte b : messageDigest.digest()) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+
+        } catch (IOException | RuntimeException e) {
+            return null;
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 must be supported by all java platforms
+            throw new IllegalStateException(e);
+        }
+
+    }
+
+    private static void update(MessageDigest messageDigest, String value) {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        // length prefix prevents collisions of concatenated values
+        messageDigest.update((byte) (bytes.length >>> 24));
+        messageDigest.update((byte) (bytes.length >>> 16));
+        messageDigest.update((byte) (bytes.length >>> 8));
+        messageDigest.update((byte) bytes.length);
+        messageDigest.update(bytes);
+    }
+
+    static void clear() {
+        CACHE.clear();
+    }
+
+    static int size() {
+        return CACHE.size();
+    }
+
+    /**
+     * The compiled classes and diagnostics of a set of source files.
+     */
+    private static final class CompiledSourceFiles {
+
+        private final boolean successful;
+        private final Map<String, byte[]> classes;
+        private final List<DiagnosticRecord> diagnostics;
+
+        private CompiledSourceFiles(boolean successful, Map<String, byte[]> classes, List<DiagnosticRecord> diagnostics) {
+            this.successful = successful;
+            this.classes = classes;
+            this.diagnostics = diagnostics;
+        }
+    }
+
+}
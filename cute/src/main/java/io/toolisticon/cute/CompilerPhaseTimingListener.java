@@ -0,0 +1,123 @@
+package io.toolisticon.cute;
+
+import javax.tools.JavaCompiler;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Task listener that measures the wall clock time of the javac compiler phases.
+ * <p>
+ * The com.sun.source api is accessed via reflection, since it is part of the compiler and not of the java api.
+ * The listener won't be registered if the compilation task isn't a javac task.
+ * <p>
+ * Events of one phase may overlap, for example ENTER is started for all compilation units before being finished.
+ * Therefore, the time is measured from the first start of a phase until all started events of the phase are finished.
+ */
+final class CompilerPhaseTimingListener implements InvocationHandler {
+
+    private static final String JAVAC_TASK_CLASS_NAME = "com.sun.source.util.JavacTask";
+    private static final String TASK_LISTENER_CLASS_NAME = "com.sun.source.util.TaskListener";
+    private static final String TASK_EVENT_CLASS_NAME = "com.sun.source.util.TaskEvent";
+
+    private final CompilationTimings compilationTimings;
+    private final Method getKindMethod;
+
+    private final Map<String, Integer> openEvents = new HashMap<>();
+    private final Map<String, Long> startTimes = new HashMap<>();
+
+    private CompilerPhaseTimingListener(CompilationTimings compilationTimings, Method getKindMethod) {
+        this.compilationTimings = compilationTimings;
+        this.getKindMethod = getKindMethod;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+        switch (method.getName()) {
+            case "started":
+                started(getKind(args[0]));
+                return null;
+            case "finished":
+                finished(getKind(args[0]));
+                return null;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return getClass().getSimpleName();
+            default:
+                return null;
+        }
+
+    }
+
+    private String getKind(Object taskEvent) throws ReflectiveOperationException {
+        return ((Enum<?>) getKindMethod.invoke(taskEvent)).name();
+    }
+
+    private void started(String kind) {
+
+        if (!isMeasured(kind)) {
+            return;
+        }
+
+        int open = openEvents.getOrDefault(kind, 0);
+        if (open == 0) {
+            startTimes.put(kind, System.nanoTime());
+        }
+        openEvents.put(kind, open + 1);
+
+    }
+
+    private void finished(String kind) {
+
+        int open = openEvents.getOrDefault(kind, 0);
+        if (open == 0) {
+            return;
+        }
+
+        openEvents.put(kind, open - 1);
+        if (open == 1) {
+            compilationTimings.addCompilerPhaseNanos(kind, System.nanoTime() - startTimes.get(kind));
+        }
+
+    }
+
+    private static boolean isMeasured(String kind) {
+        // rounds are covered by the processor timings, the compilation phase (java 9+) covers the whole compilation
+        return !"ANNOTATION_PROCESSING_ROUND".equals(kind) && !"COMPILATION".equals(kind);
+    }
+
+    /**
+     * Registers a listener at the passed compilation task if it is a javac task.
+     *
+     * @param compilationTask    the compilation task
+     * @param compilationTimings the timings to add the measured compiler phases to
+     */
+    static void register(JavaCompiler.CompilationTask compilationTask, CompilationTimings compilationTimings) {
+
+        try {
+
+            ClassLoader classLoader = compilationTask.getClass().getClassLoader();
+            Class<?> javacTaskClass = Class.forName(JAVAC_TASK_CLASS_NAME, false, classLoader);
+            if (!javacTaskClass.isInstance(compilationTask)) {
+                return;
+            }
+
+            Class<?> taskListenerClass = Class.forName(TASK_LISTENER_CLASS_NAME, false, classLoader);
+            Method getKindMethod = Class.forName(TASK_EVENT_CLASS_NAME, false, classLoader).getMethod("getKind");
+
+            Object taskListener = Proxy.newProxyInstance(classLoader, new Class<?>[]{taskListenerClass}, new CompilerPhaseTimingListener(compilationTimings, getKindMethod));
+            javacTaskClass.getMethod("addTaskListener", taskListenerClass).invoke(compilationTask, taskListener);
+
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            // compiler phases just can't be measured
+        }
+
+    }
+
+}
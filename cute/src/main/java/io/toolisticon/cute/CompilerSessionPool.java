@@ -0,0 +1,269 @@
+package io.toolisticon.cute;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticListener;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of reusable compiler sessions.
+ * <p>
+ * Creating a StandardJavaFileManager is expensive, because it has to open and index all jars of the platform and class path.
+ * Since javac stores class path, module path and path related compiler options inside the file manager, sessions are only shared between
+ * compilations with the same {@link SessionKey}.
+ * <p>
+ * A session is exclusively used by one compilation at a time. Diagnostics reported by the file manager itself are routed to the
+ * diagnostic listener of the current borrower, generated files are never stored in the pooled file manager.
+ */
+final class CompilerSessionPool {
+
+    /**
+     * The maximal number of idle sessions kept per session key.
+     */
+    static final int MAX_IDLE_SESSIONS_PER_KEY = 4;
+
+    /**
+     * The maximal number of idle sessions kept in total.
+     */
+    static final int MAX_IDLE_SESSIONS = 16;
+
+    private static final CompilerSessionPool INSTANCE = new CompilerSessionPool();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::closeIdleSessions, "cute-compiler-session-pool-shutdown"));
+    }
+
+    private final ConcurrentMap<SessionKey, Queue<CompilerSession>> idleSessions = new ConcurrentHashMap<>();
+    private final AtomicInteger idleSessionCount = new AtomicInteger();
+
+    private volatile JavaCompiler compiler;
+
+    /**
+     * Gets the shared pool instance.
+     *
+     * @return the shared pool
+     */
+    static CompilerSessionPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Borrows a session for the passed key. Creates a new session if no idle session is available.
+     *
+     * @param sessionKey         the key of the session
+     * @param diagnosticListener the listener to route diagnostics of the file manager to
+     * @return the borrowed session
+     */
+    CompilerSession borrow(SessionKey sessionKey, DiagnosticListener<? super JavaFileObject> diagnosticListener) {
+
+        Queue<CompilerSession> queue = idleSessions.get(sessionKey);
+        CompilerSession session = queue != null ? queue.poll() : null;
+
+        if (session != null) {
+            idleSessionCount.decrementAndGet();
+        } else {
+            session = new CompilerSession(sessionKey, getCompiler());
+        }
+
+        session.diagnosticListener.setDelegate(diagnosticListener);
+        return session;
+
+    }
+
+    /**
+     * Returns a session to the pool. The session must not be used by the caller afterwards.
+     *
+     * @param session the session to return
+     */
+    void release(CompilerSession session) {
+
+        if (session == null) {
+            return;
+        }
+
+        session.diagnosticListener.setDelegate(null);
+
+        Queue<CompilerSession> queue = idleSessions.computeIfAbsent(session.sessionKey, k -> new ConcurrentLinkedQueue<>());
+        // bounds are checked optimistically, exceeding them slightly under contention is harmless
+        if (queue.size() < MAX_IDLE_SESSIONS_PER_KEY && idleSessionCount.get() < MAX_IDLE_SESSIONS) {
+            idleSessionCount.incrementAndGet();
+            queue.offer(session);
+        } else {
+            session.close();
+        }
+
+    }
+
+    /**
+     * Closes a session without returning it to the pool.
+     * Must be used if the compilation using the session terminated abnormally.
+     *
+     * @param session the session to discard
+     */
+    void discard(CompilerSession session) {
+
+        if (session != null) {
+            session.diagnosticListener.setDelegate(null);
+            session.close();
+        }
+
+    }
+
+    /**
+     * Closes all idle sessions.
+     */
+    void closeIdleSessions() {
+
+        for (Queue<CompilerSession> queue : idleSessions.values()) {
+            CompilerSession session;
+            while ((session = queue.poll()) != null) {
+                idleSessionCount.decrementAndGet();
+                session.close();
+            }
+        }
+
+    }
+
+    int getIdleSessionCount() {
+        return idleSessionCount.get();
+    }
+
+    private JavaCompiler getCompiler() {
+        if (compiler == null) {
+            compiler = ToolProvider.getSystemJavaCompiler();
+        }
+        return compiler;
+    }
+
+    /**
+     * A compiler session - bundles the java compiler and a StandardJavaFileManager.
+     */
+    static final class CompilerSession {
+
+        private final SessionKey sessionKey;
+        private final JavaCompiler compiler;
+        private final RoutingDiagnosticListener diagnosticListener = new RoutingDiagnosticListener();
+        private final StandardJavaFileManager standardJavaFileManager;
+
+        private CompilerSession(SessionKey sessionKey, JavaCompiler compiler) {
+            this.sessionKey = sessionKey;
+            this.compiler = compiler;
+            this.standardJavaFileManager = compiler.getStandardFileManager(diagnosticListener, null, null);
+        }
+
+        SessionKey getSessionKey() {
+            return sessionKey;
+        }
+
+        JavaCompiler getCompiler() {
+            return compiler;
+        }
+
+        StandardJavaFileManager getStandardJavaFileManager() {
+            return standardJavaFileManager;
+        }
+
+        /**
+         * Stops routing diagnostics of the file manager to the listener passed when the session was borrowed.
+         * Should be called once the compilation has been completed, so the listener and its diagnostics aren't kept reachable by the session.
+         */
+        void detachDiagnosticListener() {
+            diagnosticListener.setDelegate(null);
+        }
+
+        private void close() {
+            try {
+                standardJavaFileManager.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+
+    }
+
+    /**
+     * Key of a compiler session.
+     * Contains everything that is stored as state in the StandardJavaFileManager during compilation.
+     */
+    static final class SessionKey {
+
+        private final String classPath;
+        private final Set<String> modules;
+        private final List<String> compilerOptions;
+
+        SessionKey(String classPath, Collection<String> modules, Collection<String> compilerOptions) {
+            this.classPath = classPath != null ? classPath : "";
+            this.modules = modules != null ? Collections.unmodifiableSet(new TreeSet<>(modules)) : Collections.emptySet();
+            this.compilerOptions = compilerOptions != null ? Collections.unmodifiableList(new ArrayList<>(compilerOptions)) : Collections.emptyList();
+        }
+
+        /**
+         * Creates a key for the current class path.
+         *
+         * @param modules         the modules to put on module path
+         * @param compilerOptions the compiler options
+         * @return the session key
+         */
+        static SessionKey of(Collection<String> modules, Collection<String> compilerOptions) {
+            return new SessionKey(System.getProperty("java.class.path"), modules, compilerOptions);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            SessionKey that = (SessionKey) o;
+            return classPath.equals(that.classPath) && modules.equals(that.modules) && compilerOptions.equals(that.compilerOptions);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(classPath, modules, compilerOptions);
+        }
+
+        @Override
+        public String toString() {
+            return "SessionKey{modules=" + modules + ", compilerOptions=" + compilerOptions + "}";
+        }
+    }
+
+    /**
+     * Diagnostic listener that forwards to the listener of the current borrower of the session.
+     */
+    static final class RoutingDiagnosticListener implements DiagnosticListener<JavaFileObject> {
+
+        private volatile DiagnosticListener<? super JavaFileObject> delegate;
+
+        void setDelegate(DiagnosticListener<? super JavaFileObject> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void report(Diagnostic<? extends JavaFileObject> diagnostic) {
+            DiagnosticListener<? super JavaFileObject> currentDelegate = delegate;
+            if (currentDelegate != null) {
+                currentDelegate.report(diagnostic);
+            }
+        }
+    }
+
+}
@@ -71,6 +71,12 @@ public final class Constants {
 
         public final static Message MESSAGE_GOT_UNEXPECTED_EXCEPTION_DURING_CLASS_TEST_ERROR = new Message("Unexpected Exception happened during test of generated class %s : %s");
 
+        public final static Message MESSAGE_COMPILATION_LIMIT_EXCEEDED = new Message("Compilation has been stopped since %s has been exceeded ! Generated files per processing round:\n%s");
+        public final static Message TOKEN_LIMIT_COMPILATION_TIME = new Message("maximal compilation time of %d ms");
+        public final static Message TOKEN_LIMIT_PROCESSING_ROUNDS = new Message("maximal number of %d processing rounds");
+        public final static Message TOKEN_LIMIT_GENERATED_FILES = new Message("maximal number of %d generated files");
+        public final static Message TOKEN_LIMIT_GENERATED_BYTES = new Message("maximal size of %d bytes of generated files");
+
 
         // IllegalArgumentException Messages
         public final static Message IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL = new Message("Passed %s must not be null");
@@ -78,18 +84,31 @@ public final class Constants {
         public final static Message IAE_CANNOT_INSTANTIATE_PROCESSOR = new Message("Cannot instantiate passed processor of type '%s'. Make sure that a NoArg constructor exists and is accessible.");
         public final static Message IAE_CANNOT_FIND_JAVAFILEOBJECT = new Message("Can't find JavaFileObject for uri:%s");
         public final static Message IAE_CANNOT_FIND_FILEOBJECT = new Message("Can't find FileObject for uri:%s");
+        public final static Message IAE_INVALID_PARALLELISM = new Message("Parallelism must be at least 1, but was %s");
+        public final static Message IAE_COMPILER_MESSAGE_NOT_AVAILABLE_FOR_LOCALE = new Message("Compiler message isn't available for locale '%s' - messages are only kept for the default locale, for English and for the locales used by compiler message checks");
+        public final static Message IAE_CANNOT_LOAD_XML_SCHEMA = new Message("Can't load xml schema from resource '%s': %s");
 
         // IllegalStateException
         public final static Message ISE_CANNOT_OPEN_INPUTSTREAM_WITH_URI = new Message("Cannot open InputStream for resource with uri '%s' ! ");
         public final static Message ISE_MUST_CONFIGURE_AT_LEAST_ONE_SOURCE_FILE = new Message("At least one source file has to be added to the compiler test configuration");
         public final static Message ISE_MUST_CONFIGURE_AT_LEAST_ONE_PROCESSOR = new Message( "At least one processor has to be added to the compiler test configuration");
+        public final static Message ISE_BATCH_EXECUTION_INTERRUPTED = new Message("Execution of compile test batch has been interrupted");
+        public final static Message ISE_COMPILATION_OUTCOME_CLOSED = new Message("Compilation outcome has already been closed");
 
         // Generated File Object Matchers
         public final static Message GFOM_FILEOBJECTS_ARENT_EQUAL_BY_BINARY_COMPARISION = new Message("FileObjects aren't equal by using binary comparison");
+        public final static Message GFOM_FILEOBJECTS_ARENT_EQUAL_BY_BINARY_COMPARISION_SIZE = new Message("FileObjects aren't equal by using binary comparison: expected %s bytes, but got %s bytes");
+        public final static Message GFOM_FILEOBJECTS_ARENT_EQUAL_BY_BINARY_COMPARISION_AT_OFFSET = new Message("FileObjects aren't equal by using binary comparison: first difference at offset %s\nexpected: %s\nactual  : %s");
         public final static Message GFOM_COULDNT_FIND_SUBSTRING = new Message("Couldn't find substring %s in file %s");
+        public final static Message GFOM_COULDNT_FIND_SUBSTRINGS = new Message("Couldn't find substrings %s in file %s");
         public final static Message GFOM_FILEOBJECTS_ARENT_EQUAL_BY_TEXTUAL_COMPARISION_WITH_IGNORE_LINEENDINGS = new Message("FileObjects aren't equal by doing textual comparision and ignoring line endings");
+        public final static Message GFOM_FILEOBJECTS_ARENT_EQUAL_BY_TEXTUAL_COMPARISION_WITH_IGNORE_LINEENDINGS_AT_POSITION = new Message("FileObjects aren't equal by doing textual comparision and ignoring line endings: first difference at line %s, column %s - expected %s, but got %s");
         public final static Message GFOM_FILEOBJECT_DOESNT_MATCH_PATTERN = new Message("File '%s' doesn't match the following pattern: '%s'!");
+        public final static Message GFOM_FILEOBJECT_DOESNT_CONTAIN_PATTERN_FRAGMENT = new Message("Couldn't find fragment %s of %s matching pattern '%s' after offset %s in file '%s'!");
+        public final static Message GFOM_FILEOBJECT_PATTERN_BUDGET_EXCEEDED = new Message("Matching pattern '%s' has been aborted after %s steps and %sms - the pattern is probably backtracking excessively. File: '%s'");
         public final static Message GFOM_FILEOBJECT_IS_NOT_WELL_FORMED = new Message("File %s is no well formed xml file!");
+        public final static Message GFOM_FILEOBJECT_IS_NOT_WELL_FORMED_WITH_CAUSE = new Message("File %s is no well formed xml file: %s");
+        public final static Message GFOM_FILEOBJECT_DOESNT_MATCH_XML_SCHEMA = new Message("File %s isn't valid according to xml schema %s: %s");
 
 
         /**
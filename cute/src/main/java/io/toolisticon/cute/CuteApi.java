@@ -2,7 +2,7 @@ package io.toolisticon.cute;
 
 
 import io.toolisticon.cute.extension.api.AssertionSpi;
-import io.toolisticon.cute.extension.api.AssertionSpiServiceLocator;
+import io.toolisticon.cute.extension.api.ExtensionRegistry;
 import io.toolisticon.cute.matchers.CoreGeneratedFileObjectMatchers;
 import io.toolisticon.fluapigen.api.FluentApi;
 import io.toolisticon.fluapigen.api.FluentApiBackingBean;
@@ -34,6 +34,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -42,6 +43,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -92,6 +95,30 @@ public class CuteApi {
         @FluentApiBackingBeanField("generatedClassesTest")
         List<GeneratedClassesTest> getGeneratedClassesTest();
 
+        @FluentApiBackingBeanField("reuseCompiledSourceFiles")
+        Boolean reuseCompiledSourceFiles();
+
+        @FluentApiBackingBeanField("cacheCompilationResult")
+        Boolean cacheCompilationResult();
+
+        @FluentApiBackingBeanField("failFast")
+        Boolean failFast();
+
+        @FluentApiBackingBeanField("maxCompilationTime")
+        Duration maxCompilationTime();
+
+        @FluentApiBackingBeanField("maxProcessingRounds")
+        Integer maxProcessingRounds();
+
+        @FluentApiBackingBeanField("maxGeneratedFiles")
+        Integer maxGeneratedFiles();
+
+        @FluentApiBackingBeanField("maxGeneratedBytes")
+        Long maxGeneratedBytes();
+
+        @FluentApiBackingBeanField("asyncExecutor")
+        Executor asyncExecutor();
+
         default long countErrorMessageChecks() {
             long count = 0;
 
@@ -513,6 +540,81 @@ public class CuteApi {
          */
         BlackBoxTestFinalGivenInterface andUseModules(@FluentApiBackingBeanMapping(value = "modules", action = MappingAction.ADD) @NotNull String... modules);
 
+        /**
+         * Reuses the compiled source files in subsequent compile-tests with same source files and compiler options.
+         * Source files are compiled once without processors, subsequent compile-tests will only do the annotation processing on them.
+         * Generated source files will be compiled against the cached classes.
+         * <p>
+         * This will be ignored if source files can't be compiled without processors, if modules are used or if processing related compiler options are set.
+         *
+         * @return the next builder instance
+         */
+        @FluentApiImplicitValue(id = "reuseCompiledSourceFiles", value = "true")
+        BlackBoxTestFinalGivenInterface andReuseCompiledSourceFiles();
+
+        /**
+         * Caches the compilation result on disk.
+         * Subsequent test runs will skip the compilation as long as source files, resource files, compiler options, class path and processor classes are unchanged.
+         * <p>
+         * The cache directory defaults to target/cute-cache and can be configured by the system property cute.cache.directory.
+         * Caching can be enabled for all black-box tests by setting the system property cute.cache.enabled to true.
+         *
+         * @return the next builder instance
+         */
+        @FluentApiImplicitValue(id = "cacheCompilationResult", value = "true")
+        BlackBoxTestFinalGivenInterface andCacheCompilationResult();
+
+        /**
+         * Aborts the compilation as soon as the outcome of the compile-test is decided.
+         * Compilation is aborted at the first error if compilation is expected to succeed.
+         * If compilation is expected to fail, it's aborted as soon as an error and all expected compiler messages have been reported,
+         * as long as no generated files, classes or exceptions are checked.
+         * <p>
+         * Compiler messages and generated files of the outcome just reflect the aborted compilation.
+         * This will be ignored if compiled source files are reused or if the outcome of the compilation isn't checked.
+         *
+         * @return the next builder instance
+         */
+        @FluentApiImplicitValue(id = "failFast", value = "true")
+        BlackBoxTestFinalGivenInterface andFailFast();
+
+        /**
+         * Limits the wall clock time of the compilation.
+         * The time is checked whenever a processing round is started, a file is generated and after the compilation.
+         * Exceeding the limit fails the test with the history of generated files per processing round.
+         *
+         * @param maxCompilationTime the maximal compilation time
+         * @return the next builder instance
+         */
+        BlackBoxTestFinalGivenInterface andLimitCompilationTimeTo(@FluentApiBackingBeanMapping(value = "maxCompilationTime") @NotNull Duration maxCompilationTime);
+
+        /**
+         * Limits the number of annotation processing rounds, including the final round.
+         * Exceeding the limit fails the test with the history of generated files per processing round, which helps to detect processors generating files in each round.
+         *
+         * @param maxProcessingRounds the maximal number of processing rounds
+         * @return the next builder instance
+         */
+        BlackBoxTestFinalGivenInterface andLimitProcessingRoundsTo(@FluentApiBackingBeanMapping(value = "maxProcessingRounds") int maxProcessingRounds);
+
+        /**
+         * Limits the number of files generated during compilation, including class files.
+         * Exceeding the limit fails the test with the history of generated files per processing round.
+         *
+         * @param maxGeneratedFiles the maximal number of generated files
+         * @return the next builder instance
+         */
+        BlackBoxTestFinalGivenInterface andLimitGeneratedFilesTo(@FluentApiBackingBeanMapping(value = "maxGeneratedFiles") int maxGeneratedFiles);
+
+        /**
+         * Limits the total size of all files generated during compilation, including class files.
+         * Exceeding the limit fails the test with the history of generated files per processing round.
+         *
+         * @param maxGeneratedBytes the maximal size in bytes
+         * @return the next builder instance
+         */
+        BlackBoxTestFinalGivenInterface andLimitGeneratedBytesTo(@FluentApiBackingBeanMapping(value = "maxGeneratedBytes") long maxGeneratedBytes);
+
         /**
          * Traverses to the compilation result validation section.
          *
@@ -527,6 +629,37 @@ public class CuteApi {
         @FluentApiImplicitValue(id = "compilationSucceeded", value = "true")
         DoCustomAssertions executeTest();
 
+        /**
+         * Executes the test asynchronously by using the executor managed by cute.
+         * Failures are passed through to your unit test framework when the returned future is joined.
+         *
+         * @return the future of the custom assertions stage
+         */
+        @FluentApiCommand(ExecuteTestAsyncCommand.class)
+        @FluentApiImplicitValue(id = "compilationSucceeded", value = "true")
+        CompletableFuture<DoCustomAssertions> executeTestAsync();
+
+        /**
+         * Executes the test asynchronously by using the passed executor.
+         * Failures are passed through to your unit test framework when the returned future is joined.
+         *
+         * @param executor the executor to run the compilation on
+         * @return the future of the custom assertions stage
+         */
+        @FluentApiCommand(ExecuteTestAsyncCommand.class)
+        @FluentApiImplicitValue(id = "compilationSucceeded", value = "true")
+        CompletableFuture<DoCustomAssertions> executeTestAsync(@FluentApiBackingBeanMapping(value = "asyncExecutor") @NotNull Executor executor);
+
+        /**
+         * Creates the compile-test configuration instance without executing the test.
+         * The configuration can be executed later, for example in a batch by {@link CompileTestBatch}.
+         *
+         * @return the configuration instance
+         */
+        @FluentApiCommand(ClosingCommand.class)
+        @FluentApiImplicitValue(id = "compilationSucceeded", value = "true")
+        CompilerTestBB createCompileTestConfiguration();
+
     }
 
     // --------------------------------------------------------------------
@@ -946,6 +1079,34 @@ public class CuteApi {
         @FluentApiCommand(ExecuteTestCommand.class)
         DoCustomAssertions executeTest();
 
+        /**
+         * Executes the test asynchronously by using the executor managed by cute.
+         * Failures are passed through to your unit test framework when the returned future is joined.
+         *
+         * @return the future of the custom assertions stage
+         */
+        @FluentApiCommand(ExecuteTestAsyncCommand.class)
+        CompletableFuture<DoCustomAssertions> executeTestAsync();
+
+        /**
+         * Executes the test asynchronously by using the passed executor.
+         * Failures are passed through to your unit test framework when the returned future is joined.
+         *
+         * @param executor the executor to run the compilation on
+         * @return the future of the custom assertions stage
+         */
+        @FluentApiCommand(ExecuteTestAsyncCommand.class)
+        CompletableFuture<DoCustomAssertions> executeTestAsync(@FluentApiBackingBeanMapping(value = "asyncExecutor") @NotNull Executor executor);
+
+        /**
+         * Creates the compile-test configuration instance without executing the test.
+         * The configuration can be executed later, for example in a batch by {@link CompileTestBatch}.
+         *
+         * @return the configuration instance
+         */
+        @FluentApiCommand(ClosingCommand.class)
+        CompilerTestBB createCompileTestConfiguration();
+
 
     }
 
@@ -966,6 +1127,34 @@ public class CuteApi {
         @FluentApiCommand(ExecuteTestCommand.class)
         DoCustomAssertions executeTest();
 
+        /**
+         * Executes the test asynchronously by using the executor managed by cute.
+         * Failures are passed through to your unit test framework when the returned future is joined.
+         *
+         * @return the future of the custom assertions stage
+         */
+        @FluentApiCommand(ExecuteTestAsyncCommand.class)
+        CompletableFuture<DoCustomAssertions> executeTestAsync();
+
+        /**
+         * Executes the test asynchronously by using the passed executor.
+         * Failures are passed through to your unit test framework when the returned future is joined.
+         *
+         * @param executor the executor to run the compilation on
+         * @return the future of the custom assertions stage
+         */
+        @FluentApiCommand(ExecuteTestAsyncCommand.class)
+        CompletableFuture<DoCustomAssertions> executeTestAsync(@FluentApiBackingBeanMapping(value = "asyncExecutor") @NotNull Executor executor);
+
+        /**
+         * Creates the compile-test configuration instance without executing the test.
+         * The configuration can be executed later, for example in a batch by {@link CompileTestBatch}.
+         *
+         * @return the configuration instance
+         */
+        @FluentApiCommand(ClosingCommand.class)
+        CompilerTestBB createCompileTestConfiguration();
+
 
     }
 
@@ -1054,6 +1243,34 @@ public class CuteApi {
         @FluentApiCommand(ExecuteTestCommand.class)
         DoCustomAssertions executeTest();
 
+        /**
+         * Executes the test asynchronously by using the executor managed by cute.
+         * Failures are passed through to your unit test framework when the returned future is joined.
+         *
+         * @return the future of the custom assertions stage
+         */
+        @FluentApiCommand(ExecuteTestAsyncCommand.class)
+        CompletableFuture<DoCustomAssertions> executeTestAsync();
+
+        /**
+         * Executes the test asynchronously by using the passed executor.
+         * Failures are passed through to your unit test framework when the returned future is joined.
+         *
+         * @param executor the executor to run the compilation on
+         * @return the future of the custom assertions stage
+         */
+        @FluentApiCommand(ExecuteTestAsyncCommand.class)
+        CompletableFuture<DoCustomAssertions> executeTestAsync(@FluentApiBackingBeanMapping(value = "asyncExecutor") @NotNull Executor executor);
+
+        /**
+         * Creates the compile-test configuration instance without executing the test.
+         * The configuration can be executed later, for example in a batch by {@link CompileTestBatch}.
+         *
+         * @return the configuration instance
+         */
+        @FluentApiCommand(ClosingCommand.class)
+        CompilerTestBB createCompileTestConfiguration();
+
     }
 
     @FluentApiInterface(CompilerTestBB.class)
@@ -1438,6 +1655,20 @@ public class CuteApi {
         }
     }
 
+    @FluentApiCommand
+    public static class ExecuteTestAsyncCommand {
+        static CompletableFuture<DoCustomAssertions> myCommand(CompilerTestBB backingBean) {
+            return CompileTestFuture.execute(backingBean, backingBean.asyncExecutor());
+        }
+    }
+
+    @FluentApiCommand
+    public static class ClosingCommand {
+        static CompilerTestBB getConfig(CompilerTestBB backingBean) {
+            return backingBean;
+        }
+    }
+
     // --------------------------------------------------------------------
     // Endgame
     // --------------------------------------------------------------------
@@ -1445,16 +1676,16 @@ public class CuteApi {
     /**
      * The compilation outcome.
      * Allows custom assertions for compiler messages, generated files and provides classloader.
+     * <p>
+     * Closing the outcome releases the file manager and the class loader of the compilation.
+     * Compiler messages and timings remain accessible after closing.
      */
-    public static class CompilationOutcome {
+    public static class CompilationOutcome implements AutoCloseable {
 
         private final CompilationResult compilationResult;
 
-        private final CuteClassLoader cuteClassLoader;
-
         CompilationOutcome(CompilationResult compilationResult) {
             this.compilationResult = compilationResult;
-            this.cuteClassLoader = new CuteClassLoaderImpl(compilationResult.getCompileTestFileManager());
         }
 
         /**
@@ -1472,7 +1703,7 @@ public class CuteApi {
          * @return A list of all compiler messages or an empty list if there are none.
          */
         public List<CompilerMessage> getCompilerMessages() {
-            return this.compilationResult.getDiagnostics().getDiagnostics().stream().map(CompilerMessage::new).collect(Collectors.toList());
+            return this.compilationResult.getDiagnosticsIndex().getCompilerMessages();
         }
 
         /**
@@ -1481,6 +1712,7 @@ public class CuteApi {
          * @return the FileManager
          */
         public FileManager getFileManager() {
+            compilationResult.ensureOpen();
             return new FileManager(compilationResult.getCompileTestFileManager());
         }
 
@@ -1490,7 +1722,26 @@ public class CuteApi {
          * @return the ClassLoader for generated Classes
          */
         public CuteClassLoader getClassLoader() {
-            return cuteClassLoader;
+            compilationResult.ensureOpen();
+            return compilationResult.getClassLoader();
+        }
+
+        /**
+         * Provides access to the timings of the compilation, the processors and the checks.
+         *
+         * @return the timings
+         */
+        public CompilationTimings getCompilationTimings() {
+            return compilationResult.getCompilationTimings();
+        }
+
+        /**
+         * Releases the file manager and the class loader of the compilation.
+         * Closing an already closed outcome has no effect.
+         */
+        @Override
+        public void close() {
+            compilationResult.close();
         }
 
     }
@@ -1500,10 +1751,10 @@ public class CuteApi {
      */
     public static class CompilerMessage {
 
-        Diagnostic<? extends JavaFileObject> diagnostic;
+        final DiagnosticsIndex.Entry entry;
 
-        CompilerMessage(Diagnostic<? extends JavaFileObject> diagnostic) {
-            this.diagnostic = diagnostic;
+        CompilerMessage(DiagnosticsIndex.Entry entry) {
+            this.entry = entry;
         }
 
 
@@ -1513,7 +1764,7 @@ public class CuteApi {
          * @return the kind
          */
         public Diagnostic.Kind getKind() {
-            return diagnostic.getKind();
+            return entry.getKind();
         }
 
         /**
@@ -1528,12 +1779,15 @@ public class CuteApi {
 
         /**
          * Gets the compiler message string.
+         * Messages are captured when compilation ends, so they are only available for the default locale, for English
+         * and for the locales used by the configured compiler message checks (see withLocale).
          *
          * @param locale the locale to use
          * @return the message string
+         * @throws IllegalArgumentException if the message isn't available for the passed locale
          */
         public String getMessage(Locale locale) {
-            return diagnostic.getMessage(locale);
+            return entry.getMessage(locale);
         }
 
         /**
@@ -1542,7 +1796,7 @@ public class CuteApi {
          * @return the column number of the compiler message
          */
         public long getColumnNumber() {
-            return diagnostic.getColumnNumber();
+            return entry.getColumnNumber();
         }
 
         /**
@@ -1551,7 +1805,7 @@ public class CuteApi {
          * @return the line number of the compiler message.
          */
         public long getLineNumber() {
-            return diagnostic.getLineNumber();
+            return entry.getLineNumber();
         }
 
         /**
@@ -1560,12 +1814,7 @@ public class CuteApi {
          * @return The source file name or {@code null} if no source object is associated
          */
         public String getSource() {
-            JavaFileObject source = diagnostic.getSource();
-            if (source == null) {
-                return null;
-            }
-
-            return source.getName();
+            return entry.getSourceName();
         }
 
 
@@ -1591,9 +1840,9 @@ public class CuteApi {
          */
         public Optional<JavaFileObjectWrapper> getGeneratedSourceFile(String className) {
 
-            for (JavaFileObjectWrapper javaFileObjectWrapper : getJavaFileObjects().stream().filter(e -> (e.getKind() == JavaFileObject.Kind.SOURCE)).collect(Collectors.toList())) {
-                if (className.equals(javaFileObjectWrapper.getClassName())) {
-                    return Optional.of(javaFileObjectWrapper);
+            for (CompileTestFileManager.InMemoryOutputJavaFileObject javaFileObject : compileTestFileManager.getGeneratedJavaFileObjects(JavaFileObject.Kind.SOURCE)) {
+                if (className.equals(javaFileObject.getClassName())) {
+                    return Optional.of(new JavaFileObjectWrapper(javaFileObject));
                 }
             }
 
@@ -1763,8 +2012,12 @@ public class CuteApi {
 
     /**
      * The endgame interface to provide custom assertions.
+     * <p>
+     * Pooled compiler resources are released right after the test has been executed.
+     * Closing releases the remaining file manager and class loader of the compilation,
+     * which is useful if many outcomes are kept, for example by using try-with-resources.
      */
-    public interface DoCustomAssertions {
+    public interface DoCustomAssertions extends AutoCloseable {
 
         /**
          * This method can be used to execute custom assertions.
@@ -1773,6 +2026,18 @@ public class CuteApi {
          */
         void executeCustomAssertions(CustomAssertion customAssertion);
 
+        /**
+         * Releases the file manager and the class loader of the compilation.
+         * Custom assertions can't be executed anymore afterwards.
+         * Closing an already closed instance has no effect.
+         * <p>
+         * The default implementation does nothing.
+         */
+        @Override
+        default void close() {
+
+        }
+
     }
 
     /**
@@ -1794,7 +2059,7 @@ public class CuteApi {
     /**
      * The implementation for custom annotations.
      */
-    private static class DoCustomAssertionsImpl implements DoCustomAssertions {
+    static class DoCustomAssertionsImpl implements DoCustomAssertions {
 
         private final CompilationResult compilationResult;
 
@@ -1808,13 +2073,15 @@ public class CuteApi {
         @Override
         public void executeCustomAssertions(CustomAssertion customAssertion) {
 
+            compilationResult.ensureOpen();
+
             try {
                 customAssertion.executeCustomAssertions(new CompilationOutcome(compilationResult));
             } catch (RuntimeException e) {
             	throw e;
             } catch (Throwable e) {
                
-            	AssertionSpi assertionSpi = AssertionSpiServiceLocator.locate();
+            	AssertionSpi assertionSpi = ExtensionRegistry.locateAssertionSpi();
             	if (assertionSpi.getSupportedAssertionTypes().contains(e.getClass())) {
             		
             		assertionSpi.fail("" + e.getMessage() + "\n" + DebugOutputGenerator.getDebugOutput(compilationResult, compileTestConfiguration, null), e );
@@ -1825,6 +2092,11 @@ public class CuteApi {
             }
 
         }
+
+        @Override
+        public void close() {
+            compilationResult.close();
+        }
     }
     
     public static class ExecuteCustomAssertionException extends RuntimeException {
@@ -1,7 +1,39 @@
 package io.toolisticon.cute;
 
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+
 public interface CuteClassLoader {
 
     Class<?> getClass(String binaryClassName) throws ClassNotFoundException;
 
+    /**
+     * Finds a resource by name.
+     * Generated resources and class files of location CLASS_OUTPUT are found as well.
+     * <p>
+     * Implementations extending {@link ClassLoader} inherit {@link ClassLoader#getResource(String)}, others find no resources by default.
+     *
+     * @param name the resource name, for example META-INF/services/javax.annotation.processing.Processor
+     * @return the URL of the resource or null if it can't be found
+     */
+    default URL getResource(String name) {
+        return null;
+    }
+
+    /**
+     * Finds all resources with the passed name.
+     * Generated resources and class files of location CLASS_OUTPUT are found as well.
+     * <p>
+     * Implementations extending {@link ClassLoader} inherit {@link ClassLoader#getResources(String)}, others find no resources by default.
+     *
+     * @param name the resource name, for example META-INF/services/javax.annotation.processing.Processor
+     * @return the URLs of the resources
+     * @throws IOException if an I/O error occurs
+     */
+    default Enumeration<URL> getResources(String name) throws IOException {
+        return Collections.emptyEnumeration();
+    }
+
 }
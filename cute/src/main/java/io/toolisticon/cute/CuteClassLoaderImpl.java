@@ -1,60 +1,145 @@
 package io.toolisticon.cute;
 
 import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
+/**
+ * Class loader for generated classes and resources.
+ * <p>
+ * Generated classes are indexed on first access, each class is defined once.
+ * Therefore, one instance should be shared for all tests done on one compilation result.
+ */
 class CuteClassLoaderImpl extends ClassLoader implements CuteClassLoader {
 
     final CompileTestFileManager compileTestFileManager;
 
-    final Map<String, CompileTestFileManager.InMemoryOutputJavaFileObject> classMap = new HashMap<>();
+    private volatile Map<String, CompileTestFileManager.InMemoryOutputJavaFileObject> classMap;
+
+    private final URLStreamHandler urlStreamHandler = new InMemoryURLStreamHandler();
 
     public CuteClassLoaderImpl(CompileTestFileManager compileTestFileManager) {
         this.compileTestFileManager = compileTestFileManager;
+    }
 
-        // get classes
-        List<CompileTestFileManager.InMemoryOutputJavaFileObject> javaFileObjectList = compileTestFileManager.getGeneratedJavaFileObjects().stream()
-                .filter(e -> e.getKind() == JavaFileObject.Kind.CLASS)
-                .collect(Collectors.toList());
+    private Map<String, CompileTestFileManager.InMemoryOutputJavaFileObject> getClassMap() {
 
-        for (CompileTestFileManager.InMemoryOutputJavaFileObject javaFileObject : javaFileObjectList) {
+        Map<String, CompileTestFileManager.InMemoryOutputJavaFileObject> result = classMap;
+        if (result == null) {
 
-            String className = convertJavaFileObjectNameToBinaryClassName(javaFileObject);
-            classMap.put(className, javaFileObject);
+            result = new HashMap<>();
+            for (CompileTestFileManager.InMemoryOutputJavaFileObject javaFileObject : compileTestFileManager.getGeneratedJavaFileObjects(JavaFileObject.Kind.CLASS)) {
+                result.put(convertJavaFileObjectNameToBinaryClassName(javaFileObject), javaFileObject);
+            }
+            classMap = result;
 
         }
+        return result;
 
     }
 
-
     static String convertJavaFileObjectNameToBinaryClassName(JavaFileObject javaFileObject) {
-        Pattern pattern = Pattern.compile("^/(.*)[.]class$");
-        Matcher matcher = pattern.matcher(javaFileObject.getName());
-        if (matcher.matches()) {
-            return matcher.group(1).replaceAll("/", ".");
+
+        String name = javaFileObject.getName();
+        String extension = JavaFileObject.Kind.CLASS.extension;
+        if (name.length() > extension.length() + 1 && name.charAt(0) == '/' && name.endsWith(extension)) {
+            return name.substring(1, name.length() - extension.length()).replace('/', '.');
         }
-        throw new IllegalStateException("Got invalid name : " + javaFileObject.getName());
+        throw new IllegalStateException("Got invalid name : " + name);
+
     }
 
     @Override
     protected Class<?> findClass(String name) throws ClassNotFoundException {
 
-        if (!classMap.containsKey(name)) {
+        CompileTestFileManager.InMemoryOutputJavaFileObject javaFileObject = getClassMap().get(name);
+
+        if (javaFileObject == null) {
             throw new ClassNotFoundException("Couldn't find class : " + name);
         }
 
-        CompileTestFileManager.InMemoryOutputJavaFileObject javaFileObject = classMap.get(name);
+        return defineClass(name, javaFileObject.getContentAsByteBuffer(), null);
+    }
+
+    @Override
+    protected URL findResource(String name) {
+
+        CompileTestFileManager.AbstractInMemoryOutputFileObject fileObject = getGeneratedResource(name);
+        if (fileObject == null) {
+            return null;
+        }
+
+        try {
+            return new URL(null, fileObject.toUri().toString(), urlStreamHandler);
+        } catch (MalformedURLException e) {
+            return null;
+        }
+
+    }
+
+    @Override
+    protected Enumeration<URL> findResources(String name) {
+        URL url = findResource(name);
+        return url != null ? Collections.enumeration(Collections.singletonList(url)) : Collections.emptyEnumeration();
+    }
+
+    private CompileTestFileManager.AbstractInMemoryOutputFileObject getGeneratedResource(String name) {
+
+        String path = name.startsWith("/") ? name.substring(1) : name;
+
+        CompileTestFileManager.AbstractInMemoryOutputFileObject fileObject = compileTestFileManager.getGeneratedFileObject(StandardLocation.CLASS_OUTPUT, path);
+        if (fileObject == null) {
+            fileObject = compileTestFileManager.getGeneratedJavaFileObject(StandardLocation.CLASS_OUTPUT, path);
+        }
+        return fileObject;
 
-        return defineClass(name, javaFileObject.getContent(), 0, javaFileObject.getContent().length);
     }
 
     @Override
     public Class<?> getClass(String binaryClassName) throws ClassNotFoundException {
         return this.loadClass(binaryClassName);
     }
+
+    /**
+     * Opens connections to generated resources.
+     */
+    private class InMemoryURLStreamHandler extends URLStreamHandler {
+
+        @Override
+        protected URLConnection openConnection(URL url) throws IOException {
+
+            final CompileTestFileManager.AbstractInMemoryOutputFileObject fileObject = getGeneratedResource(url.getPath());
+            if (fileObject == null) {
+                throw new IOException("Couldn't find resource : " + url);
+            }
+
+            return new URLConnection(url) {
+
+                @Override
+                public void connect() {
+                    connected = true;
+                }
+
+                @Override
+                public InputStream getInputStream() {
+                    return fileObject.openInputStream();
+                }
+
+                @Override
+                public long getContentLengthLong() {
+                    return fileObject.getContentLength();
+                }
+            };
+
+        }
+    }
 }
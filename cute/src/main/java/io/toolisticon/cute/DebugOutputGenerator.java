@@ -1,11 +1,10 @@
 package io.toolisticon.cute;
 
+import io.toolisticon.cute.extension.api.ExtensionRegistry;
 import io.toolisticon.cute.extension.api.ModuleSupportSpi;
-import io.toolisticon.cute.extension.api.ModuleSupportSpiServiceLocator;
 
 import javax.tools.Diagnostic;
 import javax.tools.FileObject;
-import javax.tools.JavaFileObject;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileOutputStream;
@@ -13,8 +12,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Utility class to generate debug output
@@ -56,6 +55,9 @@ final class DebugOutputGenerator {
             // Generated File objects
             stringBuilder.append(getDebugOutputHeader("GENERATED FILEOBJECTS")).append(getGeneratedFileOverview(compilationResult));
 
+            // Timings
+            stringBuilder.append(getDebugOutputHeader("TIMINGS")).append(compilationResult.getCompilationTimings());
+
         }
 
         // Compile test configuration
@@ -63,7 +65,7 @@ final class DebugOutputGenerator {
 
         if (!Java9SupportCheck.UNSUPPORTED_JAVA_VERSION && compileTestConfiguration.modules() != null) {
 
-            ModuleSupportSpi moduleSupportSpi = ModuleSupportSpiServiceLocator.locate();
+            ModuleSupportSpi moduleSupportSpi = ExtensionRegistry.locateModuleSupportSpi();
             if (moduleSupportSpi != null) {
                 stringBuilder.append(getDebugOutputHeader("MODULE PATH"));
                 moduleSupportSpi.writeModuleDebugOutput(stringBuilder);
@@ -117,17 +119,17 @@ final class DebugOutputGenerator {
     private static String getDebugMessages(CompilationResult compilationResult, Diagnostic.Kind kind) {
         StringBuilder stringBuilder = new StringBuilder();
 
-        Set<Diagnostic<? extends JavaFileObject>> filteredDiagnostics = CompileTestUtilities.getDiagnosticByKind(compilationResult.getDiagnostics(), kind);
+        List<DiagnosticsIndex.Entry> filteredDiagnostics = compilationResult.getDiagnosticsIndex().getEntries(kind);
         if (!filteredDiagnostics.isEmpty()) {
             stringBuilder.append(getDebugOutputHeader(kind.toString() + " MESSAGES"));
 
             int i = 1;
-            for (Diagnostic<? extends JavaFileObject> diagnostics : filteredDiagnostics) {
+            for (DiagnosticsIndex.Entry entry : filteredDiagnostics) {
 
 
                 stringBuilder.append("[").append(i)
                         .append("] : ")
-                        .append(getDiagnosticString(diagnostics))
+                        .append(getDiagnosticString(entry))
                         .append("\n");
                 i++;
             }
@@ -137,27 +139,27 @@ final class DebugOutputGenerator {
         return stringBuilder.toString();
     }
 
-    private static String getDiagnosticString(Diagnostic<? extends JavaFileObject> diagnostics) {
-        return "[ " + diagnostics.getKind() + ", "
-                + "s:" + ( diagnostics.getSource() != null ? "'" +  diagnostics.getSource().getName() + "'" : "<NOT_RELATED_WITH_SOURCE_FILE>") + ", "
-                + "l:" + diagnostics.getLineNumber() + ", "
-                + "c:" + diagnostics.getColumnNumber()+ " ] "
-                + ":= '" + diagnostics.getMessage(null) + "'";
+    private static String getDiagnosticString(DiagnosticsIndex.Entry entry) {
+        return "[ " + entry.getKind() + ", "
+                + "s:" + ( entry.getSourceName() != null ? "'" +  entry.getSourceName() + "'" : "<NOT_RELATED_WITH_SOURCE_FILE>") + ", "
+                + "l:" + entry.getLineNumber() + ", "
+                + "c:" + entry.getColumnNumber()+ " ] "
+                + ":= '" + entry.getMessage(null) + "'";
     }
 
     private static String getGeneratedFileOverview(CompilationResult compilationResult) {
 
        return "{\n" +
                 "  'GENERATED JAVA FILE OBJECTS' : " +
-                createGeneratedFileObjectOverview(compilationResult.getCompileTestFileManager().getGeneratedJavaFileObjects()) +
+                createGeneratedFileObjectOverview(compilationResult.getCompileTestFileManagerWithoutClassFileGeneration().getGeneratedJavaFileObjects()) +
                 ",\n  'GENERATED FILE OBJECTS' :" +
-                createGeneratedFileObjectOverview(compilationResult.getCompileTestFileManager().getGeneratedFileObjects()) +
+                createGeneratedFileObjectOverview(compilationResult.getCompileTestFileManagerWithoutClassFileGeneration().getGeneratedFileObjects()) +
                 "\n}";
 
     }
 
 
-    private static <FILE_OBJECT extends FileObject> String createGeneratedFileObjectOverview(List<FILE_OBJECT> fileObjects) {
+    private static <FILE_OBJECT extends FileObject> String createGeneratedFileObjectOverview(Collection<FILE_OBJECT> fileObjects) {
 
         final String prefix = determineBuildFolder() + "/cute_failingUnitTests/" + CommonUtilities.getRandomString(10);
 
@@ -0,0 +1,254 @@
+package io.toolisticon.cute;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Immutable snapshot of a {@link Diagnostic}.
+ * <p>
+ * Diagnostics created by javac are referencing the compiler context. A snapshot doesn't and therefore can be kept after compilation.
+ * Messages are stored for the default locale, for {@link Locale#ENGLISH} and for all locales requested when the snapshot was created.
+ * Requesting messages for other locales fails, since localizing them would need the compiler context.
+ * <p>
+ * Sources that are neither provided nor generated by cute, for example class files opened by the StandardJavaFileManager,
+ * are replaced by a {@link DetachedSourceFileObject} keeping just their uri and name.
+ */
+final class DiagnosticRecord implements Diagnostic<JavaFileObject> {
+
+    private final Kind kind;
+    private final JavaFileObject source;
+    private final long position;
+    private final long startPosition;
+    private final long endPosition;
+    private final long lineNumber;
+    private final long columnNumber;
+    private final String code;
+
+    /**
+     * The messages per locale - the message of the default locale is stored with key null
+     */
+    private final Map<Locale, String> messages;
+
+    DiagnosticRecord(Kind kind, JavaFileObject source, long position, long startPosition, long endPosition, long lineNumber, long columnNumber, String code, Map<Locale, String> messages) {
+        this.kind = kind;
+        this.source = source;
+        this.position = position;
+        this.startPosition = startPosition;
+        this.endPosition = endPosition;
+        this.lineNumber = lineNumber;
+        this.columnNumber = columnNumber;
+        this.code = code;
+        this.messages = Collections.unmodifiableMap(new HashMap<>(messages));
+    }
+
+    /**
+     * Creates a snapshot of the passed diagnostic that contains messages for the default locale and {@link Locale#ENGLISH}.
+     *
+     * @param diagnostic the diagnostic
+     * @return the snapshot
+     */
+    static DiagnosticRecord of(Diagnostic<? extends JavaFileObject> diagnostic) {
+        return of(diagnostic, Collections.emptySet());
+    }
+
+    /**
+     * Creates a snapshot of the passed diagnostic. Snapshots are returned as they are.
+     *
+     * @param diagnostic the diagnostic
+     * @param locales    the additional locales to store messages for
+     * @return the snapshot
+     */
+    static DiagnosticRecord of(Diagnostic<? extends JavaFileObject> diagnostic, Collection<Locale> locales) {
+
+        // snapshots can't be localized for further locales
+        if (diagnostic instanceof DiagnosticRecord) {
+            return (DiagnosticRecord) diagnostic;
+        }
+
+        Map<Locale, String> messages = new HashMap<>();
+        messages.put(null, diagnostic.getMessage(null));
+        messages.put(Locale.ENGLISH, diagnostic.getMessage(Locale.ENGLISH));
+        for (Locale locale : locales) {
+            messages.put(locale, diagnostic.getMessage(locale));
+        }
+
+        return new DiagnosticRecord(
+                diagnostic.getKind(),
+                detach(diagnostic.getSource()),
+                diagnostic.getPosition(),
+                diagnostic.getStartPosition(),
+                diagnostic.getEndPosition(),
+                diagnostic.getLineNumber(),
+                diagnostic.getColumnNumber(),
+                diagnostic.getCode(),
+                messages);
+
+    }
+
+    /**
+     * Creates snapshots of the passed diagnostics.
+     *
+     * @param diagnostics the diagnostics
+     * @param locales     the additional locales to store messages for
+     * @return the snapshots in order of the passed diagnostics
+     */
+    static List<DiagnosticRecord> of(List<? extends Diagnostic<? extends JavaFileObject>> diagnostics, Collection<Locale> locales) {
+
+        List<DiagnosticRecord> result = new ArrayList<>(diagnostics.size());
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+            result.add(of(diagnostic, locales));
+        }
+        return result;
+
+    }
+
+    /**
+     * Gets the locales used by the compiler message checks of the passed compile-test configuration.
+     *
+     * @param compileTestConfiguration the compile-test configuration
+     * @return the locales
+     */
+    static Set<Locale> getRequestedLocales(CuteApi.CompilerTestBB compileTestConfiguration) {
+
+        Set<Locale> locales = new LinkedHashSet<>();
+        for (CuteApi.CompilerMessageCheckBB compilerMessageCheck : compileTestConfiguration.compilerMessageChecks()) {
+            if (compilerMessageCheck.withLocale() != null) {
+                locales.add(compilerMessageCheck.withLocale());
+            }
+        }
+        return locales;
+
+    }
+
+    private static JavaFileObject detach(JavaFileObject source) {
+        // source files passed to and files generated by cute don't reference the compiler
+        if (source == null || source instanceof SimpleJavaFileObject) {
+            return source;
+        }
+        return new DetachedSourceFileObject(source.toUri(), source.getName());
+    }
+
+    /**
+     * Creates a copy with all messages mapped by the passed function.
+     *
+     * @param messageMapper the function to apply to each message
+     * @return the copy
+     */
+    DiagnosticRecord withMappedMessages(UnaryOperator<String> messageMapper) {
+
+        Map<Locale, String> mappedMessages = new HashMap<>();
+        for (Map.Entry<Locale, String> entry : messages.entrySet()) {
+            mappedMessages.put(entry.getKey(), entry.getValue() != null ? messageMapper.apply(entry.getValue()) : null);
+        }
+        return new DiagnosticRecord(kind, source, position, startPosition, endPosition, lineNumber, columnNumber, code, mappedMessages);
+
+    }
+
+    /**
+     * Gets the messages per locale. The message of the default locale is stored with key null.
+     *
+     * @return the messages
+     */
+    Map<Locale, String> getMessages() {
+        return messages;
+    }
+
+    @Override
+    public Kind getKind() {
+        return kind;
+    }
+
+    @Override
+    public JavaFileObject getSource() {
+        return source;
+    }
+
+    @Override
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    public long getStartPosition() {
+        return startPosition;
+    }
+
+    @Override
+    public long getEndPosition() {
+        return endPosition;
+    }
+
+    @Override
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public long getColumnNumber() {
+        return columnNumber;
+    }
+
+    @Override
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Gets the message for the passed locale.
+     * Messages can't be localized after compilation, so only the locales stored in the snapshot are available.
+     *
+     * @param locale the locale, null or the default locale for the message of the default locale
+     * @return the message
+     * @throws IllegalArgumentException if the message hasn't been stored for the passed locale
+     */
+    @Override
+    public String getMessage(Locale locale) {
+
+        if (messages.containsKey(locale)) {
+            return messages.get(locale);
+        }
+
+        // javac uses the default locale if no locale is passed
+        if (Locale.getDefault().equals(locale)) {
+            return messages.get(null);
+        }
+
+        throw new IllegalArgumentException(Constants.Messages.IAE_COMPILER_MESSAGE_NOT_AVAILABLE_FOR_LOCALE.produceMessage(locale));
+
+    }
+
+    @Override
+    public String toString() {
+        return (source != null ? source.getName() + ":" + lineNumber + ": " : "") + kind + ": " + getMessage(null);
+    }
+
+    /**
+     * Placeholder for sources of diagnostics that are neither a source file nor a generated file, for example classes on class path.
+     */
+    static final class DetachedSourceFileObject extends SimpleJavaFileObject {
+
+        private final String name;
+
+        DetachedSourceFileObject(URI uri, String name) {
+            super(uri, Kind.OTHER);
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package io.toolisticon.cute;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable index of the diagnostics of a compilation.
+ * <p>
+ * Diagnostics are indexed by kind, by kind and source name, by kind and line and by kind, source name and line.
+ * Localized messages are provided by the diagnostics, {@link DiagnosticRecord}s of compilation results already store them per locale.
+ */
+final class DiagnosticsIndex {
+
+    private final List<Entry> entries;
+    private final Map<Key, List<Entry>> entriesByKey = new HashMap<>();
+
+    private volatile List<CuteApi.CompilerMessage> compilerMessages;
+
+    /**
+     * Constructor.
+     *
+     * @param diagnostics the diagnostics to index, in order of their occurrence
+     */
+    DiagnosticsIndex(List<? extends Diagnostic<? extends JavaFileObject>> diagnostics) {
+
+        List<Entry> allEntries = new ArrayList<>(diagnostics.size());
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+
+            Entry entry = new Entry(diagnostic);
+            allEntries.add(entry);
+
+            add(new Key(entry.getKind(), null, null), entry);
+            add(new Key(entry.getKind(), null, entry.getLineNumber()), entry);
+            if (entry.getSourceName() != null) {
+                add(new Key(entry.getKind(), entry.getSourceName(), null), entry);
+                add(new Key(entry.getKind(), entry.getSourceName(), entry.getLineNumber()), entry);
+            }
+
+        }
+
+        entries = Collections.unmodifiableList(allEntries);
+
+    }
+
+    private void add(Key key, Entry entry) {
+        entriesByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+    }
+
+    /**
+     * Gets all entries.
+     *
+     * @return all entries in order of their occurrence
+     */
+    List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Gets all entries of a kind.
+     *
+     * @param kind the kind
+     * @return the entries in order of their occurrence
+     */
+    List<Entry> getEntries(Diagnostic.Kind kind) {
+        return getEntries(kind, null, null);
+    }
+
+    /**
+     * Gets the entries matching the passed criteria.
+     *
+     * @param kind       the kind
+     * @param sourceName the name of the source file or null to match all source files
+     * @param lineNumber the line number or null to match all lines
+     * @return the entries in order of their occurrence
+     */
+    List<Entry> getEntries(Diagnostic.Kind kind, String sourceName, Long lineNumber) {
+        List<Entry> result = entriesByKey.get(new Key(kind, sourceName, lineNumber));
+        return result != null ? Collections.unmodifiableList(result) : Collections.emptyList();
+    }
+
+    /**
+     * Gets all distinct messages of a kind.
+     *
+     * @param kind   the kind
+     * @param locale the locale to use or null for the default locale
+     * @return the messages
+     */
+    Set<String> getMessages(Diagnostic.Kind kind, Locale locale) {
+
+        Set<String> result = new LinkedHashSet<>();
+        for (Entry entry : getEntries(kind)) {
+            result.add(entry.getMessage(locale));
+        }
+        return result;
+
+    }
+
+    /**
+     * Gets all diagnostics as compiler messages.
+     * The list is created once.
+     *
+     * @return the compiler messages
+     */
+    List<CuteApi.CompilerMessage> getCompilerMessages() {
+
+        List<CuteApi.CompilerMessage> result = compilerMessages;
+        if (result == null) {
+
+            List<CuteApi.CompilerMessage> messages = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                messages.add(new CuteApi.CompilerMessage(entry));
+            }
+            result = Collections.unmodifiableList(messages);
+            compilerMessages = result;
+
+        }
+        return result;
+
+    }
+
+    /**
+     * One indexed diagnostic.
+     */
+    static final class Entry {
+
+        private final Diagnostic<? extends JavaFileObject> diagnostic;
+        private final String sourceName;
+
+        Entry(Diagnostic<? extends JavaFileObject> diagnostic) {
+            this.diagnostic = diagnostic;
+            this.sourceName = diagnostic.getSource() != null ? diagnostic.getSource().getName() : null;
+        }
+
+        Diagnostic<? extends JavaFileObject> getDiagnostic() {
+            return diagnostic;
+        }
+
+        Diagnostic.Kind getKind() {
+            return diagnostic.getKind();
+        }
+
+        String getSourceName() {
+            return sourceName;
+        }
+
+        long getLineNumber() {
+            return diagnostic.getLineNumber();
+        }
+
+        long getColumnNumber() {
+            return diagnostic.getColumnNumber();
+        }
+
+        /**
+         * Gets the localized message.
+         *
+         * @param locale the locale or null for the default locale
+         * @return the message
+         */
+        String getMessage(Locale locale) {
+            return diagnostic.getMessage(locale);
+        }
+
+    }
+
+    private static final class Key {
+
+        private final Diagnostic.Kind kind;
+        private final String sourceName;
+        private final Long lineNumber;
+
+        private Key(Diagnostic.Kind kind, String sourceName, Long lineNumber) {
+            this.kind = kind;
+            this.sourceName = sourceName;
+            this.lineNumber = lineNumber;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return kind == key.kind && Objects.equals(sourceName, key.sourceName) && Objects.equals(lineNumber, key.lineNumber);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, sourceName, lineNumber);
+        }
+
+    }
+
+}
@@ -0,0 +1,155 @@
+package io.toolisticon.cute;
+
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticListener;
+import javax.tools.JavaFileObject;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Diagnostic listener that evaluates the expectations of a compile-test while diagnostics are reported.
+ * <p>
+ * Aborts the compilation as soon as its outcome is decided:
+ * <ul>
+ *     <li>at the first error, if compilation is expected to succeed</li>
+ *     <li>if compilation is expected to fail, an error has been reported, all expected compiler messages have been found, all processors have been applied and no other checks are configured</li>
+ * </ul>
+ * Compilation is aborted by throwing an exception, which is wrapped by the compiler.
+ * So {@link #isAborted()} must be checked if compilation terminated with an exception.
+ */
+final class FailFastDiagnosticListener implements DiagnosticListener<JavaFileObject> {
+
+    private final DiagnosticListener<? super JavaFileObject> delegate;
+    private final CuteApi.CompilerTestBB compileTestConfiguration;
+    private final Set<? extends Processor> processors;
+
+    /**
+     * Message checks that haven't been satisfied yet
+     */
+    private final List<CuteApi.CompilerMessageCheckBB> pendingMessageChecks;
+
+    /**
+     * Whether other checks than the compilation outcome and compiler messages are configured
+     */
+    private final boolean hasOtherChecks;
+
+    private boolean errorReported = false;
+    private volatile boolean aborted = false;
+
+    /**
+     * Constructor.
+     *
+     * @param delegate                 the listener to pass all diagnostics to
+     * @param compileTestConfiguration the compile-test configuration
+     * @param processors               the processors used during compilation
+     */
+    FailFastDiagnosticListener(DiagnosticListener<? super JavaFileObject> delegate, CuteApi.CompilerTestBB compileTestConfiguration, Set<? extends Processor> processors) {
+        this.delegate = delegate;
+        this.compileTestConfiguration = compileTestConfiguration;
+        this.processors = processors;
+        this.pendingMessageChecks = new ArrayList<>(compileTestConfiguration.compilerMessageChecks());
+        this.hasOtherChecks = !compileTestConfiguration.javaFileObjectChecks().isEmpty()
+                || !compileTestConfiguration.fileObjectChecks().isEmpty()
+                || !compileTestConfiguration.getGeneratedClassesTest().isEmpty()
+                || compileTestConfiguration.getExceptionChecks() != null;
+    }
+
+    /**
+     * Checks if the passed compile-test configuration enables fail-fast mode.
+     *
+     * @param compileTestConfiguration the compile-test configuration
+     * @return true if compilation should be aborted as soon as its outcome is decided, otherwise false
+     */
+    static boolean isEnabled(CuteApi.CompilerTestBB compileTestConfiguration) {
+        return Boolean.TRUE.equals(compileTestConfiguration.failFast()) && compileTestConfiguration.compilationSucceeded() != null;
+    }
+
+    @Override
+    public void report(Diagnostic<? extends JavaFileObject> diagnostic) {
+
+        delegate.report(diagnostic);
+
+        // compiler might still report diagnostics while terminating
+        if (aborted) {
+            return;
+        }
+
+        DiagnosticsIndex.Entry entry = new DiagnosticsIndex.Entry(diagnostic);
+
+        Iterator<CuteApi.CompilerMessageCheckBB> iterator = pendingMessageChecks.iterator();
+        while (iterator.hasNext()) {
+            if (CompileTest.matches(iterator.next(), entry)) {
+                iterator.remove();
+            }
+        }
+
+        if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+
+            errorReported = true;
+
+            if (Boolean.TRUE.equals(compileTestConfiguration.compilationSucceeded())) {
+                abort();
+            }
+
+        }
+
+        if (Boolean.FALSE.equals(compileTestConfiguration.compilationSucceeded()) && errorReported && pendingMessageChecks.isEmpty() && !hasOtherChecks && allProcessorsApplied()) {
+            abort();
+        }
+
+    }
+
+    private boolean allProcessorsApplied() {
+        for (Processor processor : processors) {
+            if (processor instanceof AnnotationProcessorWrapper && !((AnnotationProcessorWrapper) processor).wasApplied()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void abort() {
+        aborted = true;
+        throw new CompilationAbortedException();
+    }
+
+    /**
+     * Checks if compilation has been aborted.
+     *
+     * @return true if compilation has been aborted, otherwise false
+     */
+    boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Checks if the passed exception has been caused by aborting the compilation.
+     * The compiler wraps exceptions thrown by diagnostic listeners.
+     *
+     * @param throwable the exception to check
+     * @return true if exception has been caused by aborting the compilation, otherwise false
+     */
+    static boolean isCausedByAbort(Throwable throwable) {
+        for (Throwable current = throwable; current != null; current = current.getCause()) {
+            if (current instanceof CompilationAbortedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Thrown to abort the compilation.
+     */
+    static final class CompilationAbortedException extends RuntimeException {
+
+        private CompilationAbortedException() {
+            super("Compilation aborted since outcome of compile-test is decided", null, false, false);
+        }
+
+    }
+
+}
@@ -0,0 +1,210 @@
+package io.toolisticon.cute;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Immutable content of a generated file.
+ * <p>
+ * Content is stored in chunks as written by the {@link CompileTestFileManager.InMemoryOutputStream}, so publishing content doesn't need to copy it.
+ * The chunks are never modified below the size of the content, even if the stream that has created them continues writing.
+ * A contiguous byte array and the decoded char content are created lazily once they are requested the first time.
+ */
+final class InMemoryContent {
+
+    static final InMemoryContent EMPTY = new InMemoryContent(new byte[0][], 0);
+
+    private final byte[][] chunks;
+    private final int size;
+
+    private volatile byte[] bytes;
+    private volatile String charContent;
+
+    /**
+     * Constructor.
+     *
+     * @param chunks the chunks, all chunks except the last one must be filled completely
+     * @param size   the total size of the content
+     */
+    InMemoryContent(byte[][] chunks, int size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    /**
+     * Creates content backed by the passed byte array.
+     *
+     * @param bytes the bytes, will not be copied
+     * @return the content
+     */
+    static InMemoryContent of(byte[] bytes) {
+        InMemoryContent content = new InMemoryContent(new byte[][]{bytes}, bytes.length);
+        content.bytes = bytes;
+        return content;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the content as a byte array.
+     * The array is shared and must not be modified.
+     *
+     * @return the content
+     */
+    byte[] getBytes() {
+
+        byte[] result = bytes;
+        if (result == null) {
+
+            result = new byte[size];
+            int position = 0;
+            for (int i = 0; i < chunks.length && position < size; i++) {
+                int length = Math.min(chunks[i].length, size - position);
+                System.arraycopy(chunks[i], 0, result, position, length);
+                position += length;
+            }
+            bytes = result;
+
+        }
+        return result;
+
+    }
+
+    /**
+     * Gets a read-only view of the content.
+     * Content stored in a single chunk is wrapped without copying.
+     *
+     * @return the read-only buffer
+     */
+    ByteBuffer asByteBuffer() {
+
+        if (bytes == null && chunks.length == 1) {
+            return ByteBuffer.wrap(chunks[0], 0, size).slice().asReadOnlyBuffer();
+        }
+        return ByteBuffer.wrap(getBytes()).asReadOnlyBuffer();
+
+    }
+
+    /**
+     * Gets the content decoded with the default charset.
+     * Content is decoded once.
+     *
+     * @return the char content
+     */
+    CharSequence getCharContent() {
+
+        String result = charContent;
+        if (result == null) {
+            result = new String(getBytes(), Charset.defaultCharset());
+            charContent = result;
+        }
+        return result;
+
+    }
+
+    /**
+     * Opens a stream that reads directly from the chunks.
+     *
+     * @return the input stream
+     */
+    InputStream openInputStream() {
+        return new ChunkInputStream();
+    }
+
+    private final class ChunkInputStream extends InputStream {
+
+        private int chunkIndex;
+        private int positionInChunk;
+        private int position;
+        private int mark;
+
+        @Override
+        public int read() {
+
+            if (position >= size) {
+                return -1;
+            }
+
+            nextChunkIfNeeded();
+            position++;
+            return chunks[chunkIndex][positionInChunk++] & 0xff;
+
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= size) {
+                return -1;
+            }
+
+            int read = 0;
+            while (read < len && position < size) {
+
+                nextChunkIfNeeded();
+                int length = Math.min(Math.min(len - read, chunks[chunkIndex].length - positionInChunk), size - position);
+                System.arraycopy(chunks[chunkIndex], positionInChunk, b, off + read, length);
+                positionInChunk += length;
+                position += length;
+                read += length;
+
+            }
+            return read;
+
+        }
+
+        @Override
+        public int available() {
+            return size - position;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(int readLimit) {
+            mark = position;
+        }
+
+        @Override
+        public synchronized void reset() {
+            chunkIndex = 0;
+            positionInChunk = 0;
+            position = 0;
+            skip(mark);
+        }
+
+        @Override
+        public long skip(long n) {
+
+            long skipped = 0;
+            while (skipped < n && position < size) {
+
+                nextChunkIfNeeded();
+                int length = (int) Math.min(Math.min(n - skipped, chunks[chunkIndex].length - positionInChunk), size - position);
+                positionInChunk += length;
+                position += length;
+                skipped += length;
+
+            }
+            return skipped;
+
+        }
+
+        private void nextChunkIfNeeded() {
+            while (positionInChunk >= chunks[chunkIndex].length) {
+                chunkIndex++;
+                positionInChunk = 0;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package io.toolisticon.cute;
+
+import javax.tools.FileObject;
+import java.nio.ByteBuffer;
+
+/**
+ * FileObject whose content is held in memory.
+ * <p>
+ * Allows matchers to access the content directly, without reading it via an input stream.
+ */
+public interface InMemoryFileObject extends FileObject {
+
+    /**
+     * Gets a read-only view of the content.
+     *
+     * @return the content
+     */
+    ByteBuffer getContentAsByteBuffer();
+
+    /**
+     * Gets the size of the content in bytes.
+     *
+     * @return the size of the content
+     */
+    int getContentLength();
+
+}
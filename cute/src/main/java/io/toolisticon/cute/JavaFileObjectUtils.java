@@ -99,7 +99,9 @@ public class JavaFileObjectUtils {
 
         @Override
         public CharSequence getCharContent(boolean ignoreEncodingErrors) throws IOException {
-            return readFromInputStream(openInputStream());
+            try (InputStream inputStream = openInputStream()) {
+                return readFromInputStream(inputStream);
+            }
         }
     }
 
@@ -129,7 +131,9 @@ public class JavaFileObjectUtils {
 
         @Override
         public CharSequence getCharContent(boolean ignoreEncodingErrors) throws IOException {
-            return readFromInputStream(openInputStream());
+            try (InputStream inputStream = openInputStream()) {
+                return readFromInputStream(inputStream);
+            }
         }
     }
 
@@ -270,7 +274,6 @@ public class JavaFileObjectUtils {
             // Writes bytes from byte array (buffer) into output stream.
             os.write(buffer, 0, line);
         }
-        stream.close();
         os.flush();
         os.close();
 
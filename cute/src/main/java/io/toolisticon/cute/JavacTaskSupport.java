@@ -0,0 +1,72 @@
+package io.toolisticon.cute;
+
+import javax.tools.JavaCompiler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Utility class to access the javac specific api of compilation tasks.
+ * <p>
+ * The com.sun.source api is accessed via reflection, since it is part of the compiler and not of the java api.
+ */
+final class JavacTaskSupport {
+
+    private static final String JAVAC_TASK_CLASS_NAME = "com.sun.source.util.JavacTask";
+
+    /**
+     * Hidden constructor.
+     */
+    private JavacTaskSupport() {
+
+    }
+
+    /**
+     * Gets the analyze method of the passed compilation task.
+     *
+     * @param compilationTask the compilation task
+     * @return the analyze method or null if the compilation task isn't a javac task
+     */
+    static Method getAnalyzeMethod(JavaCompiler.CompilationTask compilationTask) {
+
+        try {
+
+            Class<?> javacTaskClass = Class.forName(JAVAC_TASK_CLASS_NAME, false, compilationTask.getClass().getClassLoader());
+            return javacTaskClass.isInstance(compilationTask) ? javacTaskClass.getMethod("analyze") : null;
+
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+
+    }
+
+    /**
+     * Runs the passed javac task until all source files are parsed, processed, attributed and flow analyzed.
+     * No class files are generated.
+     * Errors are reported to the diagnostic listener of the task, exceptions thrown by processors are passed through like done by {@link JavaCompiler.CompilationTask#call()}.
+     *
+     * @param compilationTask the compilation task
+     * @param analyzeMethod   the analyze method returned by {@link #getAnalyzeMethod(JavaCompiler.CompilationTask)}
+     */
+    static void analyze(JavaCompiler.CompilationTask compilationTask, Method analyzeMethod) {
+
+        try {
+            analyzeMethod.invoke(compilationTask);
+        } catch (InvocationTargetException e) {
+
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            // analyze declares an IOException, which is wrapped like all other checked exceptions
+            throw new IllegalStateException(cause);
+
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+
+    }
+
+}
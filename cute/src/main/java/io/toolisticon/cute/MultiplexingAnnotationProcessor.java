@@ -0,0 +1,395 @@
+package io.toolisticon.cute;
+
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Processor that runs the processors of multiple compile-tests in one single compilation.
+ * <p>
+ * Each compile-test gets its own ProcessingEnvironment. Messages printed via its Messager are tagged with a marker
+ * that allows assigning the resulting diagnostics to the originating compile-test.
+ * Exceptions thrown by processors are captured per compile-test and don't affect other compile-tests.
+ * Compile-tests with captured exceptions must be executed separately, since javac specific apis reject the compile-test specific ProcessingEnvironment.
+ * <p>
+ * Usage of the Filer can't be isolated, since generated files are shared by all compile-tests.
+ * It is tracked to be able to fall back to separate compilations.
+ */
+final class MultiplexingAnnotationProcessor implements Processor {
+
+    private static final String MARKER_PREFIX = "{cute-shared-compilation:";
+    private static final String MARKER_SUFFIX = "}";
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    private volatile boolean filerUsed = false;
+
+    /**
+     * Adds processors of one compile-test.
+     *
+     * @param processors the processors of the compile-test
+     * @return the entry to access the outcome of the compile-test specific processing
+     */
+    Entry addEntry(Set<? extends Processor> processors) {
+        Entry entry = new Entry(entries.size(), processors);
+        entries.add(entry);
+        return entry;
+    }
+
+    List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Checks if any processor has used the Filer.
+     *
+     * @return true if Filer was used, otherwise false
+     */
+    boolean isFilerUsed() {
+        return filerUsed;
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        Set<String> result = new HashSet<>();
+        for (Entry entry : entries) {
+            for (Processor processor : entry.processors) {
+                result.addAll(processor.getSupportedOptions());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        Set<String> result = new HashSet<>();
+        for (Entry entry : entries) {
+            for (Processor processor : entry.processors) {
+                result.addAll(processor.getSupportedAnnotationTypes());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        SourceVersion result = SourceVersion.latestSupported();
+        for (Entry entry : entries) {
+            for (Processor processor : entry.processors) {
+                if (processor.getSupportedSourceVersion().compareTo(result) < 0) {
+                    result = processor.getSupportedSourceVersion();
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void init(ProcessingEnvironment processingEnv) {
+
+        for (Entry entry : entries) {
+            IsolatingProcessingEnvironment isolatingProcessingEnvironment = new IsolatingProcessingEnvironment(processingEnv, entry.marker);
+            for (ProcessorState processorState : entry.processorStates) {
+                if (entry.failure == null) {
+                    try {
+                        processorState.processor.init(isolatingProcessingEnvironment);
+                    } catch (Throwable e) {
+                        entry.failure = e;
+                    }
+                }
+            }
+        }
+
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        for (Entry entry : entries) {
+
+            for (ProcessorState processorState : entry.processorStates) {
+
+                if (entry.failure != null) {
+                    break;
+                }
+
+                // same rules as used by javac: processors are called if they support an annotation of the round or if they have been called before
+                Set<TypeElement> matchingAnnotations = processorState.getMatchingAnnotations(annotations);
+                if (!matchingAnnotations.isEmpty() || processorState.contributed) {
+
+                    processorState.contributed = true;
+
+                    try {
+                        processorState.processor.process(matchingAnnotations, roundEnv);
+                    } catch (Throwable e) {
+                        entry.failure = e;
+                    }
+
+                }
+
+            }
+
+        }
+
+        // annotations are never claimed since they may be processed by processors of other compile-tests
+        return false;
+    }
+
+    @Override
+    public Iterable<? extends Completion> getCompletions(Element element, AnnotationMirror annotation, ExecutableElement member, String userText) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Gets the index of compile-test that printed the passed diagnostic.
+     *
+     * @param diagnostic the diagnostic to check
+     * @return the index of the compile-test or -1 if diagnostic wasn't printed via the Messager of any compile-test
+     */
+    static int getEntryIndex(Diagnostic<?> diagnostic) {
+
+        String message = diagnostic.getMessage(Locale.ENGLISH);
+        if (message == null || !message.startsWith(MARKER_PREFIX)) {
+            return -1;
+        }
+
+        int end = message.indexOf(MARKER_SUFFIX, MARKER_PREFIX.length());
+        if (end < 0) {
+            return -1;
+        }
+
+        try {
+            return Integer.parseInt(message.substring(MARKER_PREFIX.length(), end));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+
+    }
+
+    /**
+     * Removes the marker from the message.
+     *
+     * @param message the message
+     * @return the message without marker
+     */
+    static String stripMarker(String message) {
+        if (message == null || !message.startsWith(MARKER_PREFIX)) {
+            return message;
+        }
+        int end = message.indexOf(MARKER_SUFFIX, MARKER_PREFIX.length());
+        return end < 0 ? message : message.substring(end + MARKER_SUFFIX.length());
+    }
+
+    /**
+     * The compile-test specific part of the processing.
+     */
+    static final class Entry {
+
+        private final int index;
+        private final String marker;
+        private final List<ProcessorState> processorStates = new ArrayList<>();
+        private final Set<Processor> processors;
+
+        private Throwable failure;
+
+        private Entry(int index, Set<? extends Processor> processors) {
+            this.index = index;
+            this.marker = MARKER_PREFIX + index + MARKER_SUFFIX;
+            this.processors = new LinkedHashSet<>(processors);
+            for (Processor processor : processors) {
+                processorStates.add(new ProcessorState(processor));
+            }
+        }
+
+        int getIndex() {
+            return index;
+        }
+
+        /**
+         * Gets the exception or error thrown by any processor of the compile-test.
+         *
+         * @return the failure or null if no exception has been thrown
+         */
+        Throwable getFailure() {
+            return failure;
+        }
+
+    }
+
+    /**
+     * Tracks the state of a processor according to the rules of javac's processor discovery.
+     */
+    private static final class ProcessorState {
+
+        private final Processor processor;
+        private final List<String> supportedAnnotationTypes = new ArrayList<>();
+        private boolean contributed = false;
+
+        private ProcessorState(Processor processor) {
+            this.processor = processor;
+            for (String supportedAnnotationType : processor.getSupportedAnnotationTypes()) {
+                // strip module prefix
+                int moduleSeparator = supportedAnnotationType.indexOf('/');
+                supportedAnnotationTypes.add(moduleSeparator >= 0 ? supportedAnnotationType.substring(moduleSeparator + 1) : supportedAnnotationType);
+            }
+        }
+
+        private Set<TypeElement> getMatchingAnnotations(Set<? extends TypeElement> annotations) {
+
+            Set<TypeElement> result = new LinkedHashSet<>();
+            for (TypeElement annotation : annotations) {
+                String name = annotation.getQualifiedName().toString();
+                for (String supportedAnnotationType : supportedAnnotationTypes) {
+                    if ("*".equals(supportedAnnotationType)
+                            || supportedAnnotationType.equals(name)
+                            || (supportedAnnotationType.endsWith(".*") && name.startsWith(supportedAnnotationType.substring(0, supportedAnnotationType.length() - 1)))) {
+                        result.add(annotation);
+                        break;
+                    }
+                }
+            }
+            return result;
+
+        }
+
+    }
+
+    /**
+     * ProcessingEnvironment which marks all messages and tracks usage of the Filer.
+     */
+    private final class IsolatingProcessingEnvironment implements ProcessingEnvironment {
+
+        private final ProcessingEnvironment processingEnvironment;
+        private final Messager messager;
+        private final Filer filer;
+
+        private IsolatingProcessingEnvironment(ProcessingEnvironment processingEnvironment, String marker) {
+            this.processingEnvironment = processingEnvironment;
+            this.messager = new MarkingMessager(processingEnvironment.getMessager(), marker);
+            this.filer = new TrackingFiler(processingEnvironment.getFiler());
+        }
+
+        @Override
+        public Map<String, String> getOptions() {
+            return processingEnvironment.getOptions();
+        }
+
+        @Override
+        public Messager getMessager() {
+            return messager;
+        }
+
+        @Override
+        public Filer getFiler() {
+            return filer;
+        }
+
+        @Override
+        public Elements getElementUtils() {
+            return processingEnvironment.getElementUtils();
+        }
+
+        @Override
+        public Types getTypeUtils() {
+            return processingEnvironment.getTypeUtils();
+        }
+
+        @Override
+        public SourceVersion getSourceVersion() {
+            return processingEnvironment.getSourceVersion();
+        }
+
+        @Override
+        public Locale getLocale() {
+            return processingEnvironment.getLocale();
+        }
+    }
+
+    private static final class MarkingMessager implements Messager {
+
+        private final Messager messager;
+        private final String marker;
+
+        private MarkingMessager(Messager messager, String marker) {
+            this.messager = messager;
+            this.marker = marker;
+        }
+
+        @Override
+        public void printMessage(Diagnostic.Kind kind, CharSequence msg) {
+            messager.printMessage(kind, marker + msg);
+        }
+
+        @Override
+        public void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e) {
+            messager.printMessage(kind, marker + msg, e);
+        }
+
+        @Override
+        public void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e, AnnotationMirror a) {
+            messager.printMessage(kind, marker + msg, e, a);
+        }
+
+        @Override
+        public void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e, AnnotationMirror a, AnnotationValue v) {
+            messager.printMessage(kind, marker + msg, e, a, v);
+        }
+    }
+
+    private final class TrackingFiler implements Filer {
+
+        private final Filer filer;
+
+        private TrackingFiler(Filer filer) {
+            this.filer = filer;
+        }
+
+        @Override
+        public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements) throws IOException {
+            filerUsed = true;
+            return filer.createSourceFile(name, originatingElements);
+        }
+
+        @Override
+        public JavaFileObject createClassFile(CharSequence name, Element... originatingElements) throws IOException {
+            filerUsed = true;
+            return filer.createClassFile(name, originatingElements);
+        }
+
+        @Override
+        public FileObject createResource(JavaFileManager.Location location, CharSequence pkg, CharSequence relativeName, Element... originatingElements) throws IOException {
+            filerUsed = true;
+            return filer.createResource(location, pkg, relativeName, originatingElements);
+        }
+
+        @Override
+        public FileObject getResource(JavaFileManager.Location location, CharSequence pkg, CharSequence relativeName) throws IOException {
+            return filer.getResource(location, pkg, relativeName);
+        }
+    }
+
+}
@@ -0,0 +1,248 @@
+package io.toolisticon.cute;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Executes multiple unit tests that are using the same source files, compiler options, modules and compilation settings in one single compilation.
+ * <p>
+ * The processors of all unit tests are multiplexed by a {@link MultiplexingAnnotationProcessor}.
+ * Diagnostics are assigned to the unit tests afterwards, so that all checks can be done for each unit test separately.
+ * Unit tests are executed in separate compilations if their outcome might have been influenced by other unit tests of the shared compilation
+ * or if any of their processors failed, since the failure might have been caused by the shared compilation.
+ */
+final class SharedCompilation {
+
+    /**
+     * Hidden constructor.
+     */
+    private SharedCompilation() {
+
+    }
+
+    /**
+     * Gets the key used to group compile-tests that can share one compilation.
+     *
+     * @param compileTestConfiguration the compile-test configuration
+     * @return the key or null if the compile-test must be compiled separately
+     */
+    static GroupKey getGroupKey(CuteApi.CompilerTestBB compileTestConfiguration) {
+
+        if (!isEligible(compileTestConfiguration)) {
+            return null;
+        }
+
+        List<String> sourceFiles = new ArrayList<>();
+        for (JavaFileObject sourceFile : compileTestConfiguration.sourceFiles()) {
+            try {
+                sourceFiles.add(sourceFile.toUri() + "\n" + sourceFile.getCharContent(true));
+            } catch (IOException | RuntimeException e) {
+                // source can't be compared - so just compile it separately
+                return null;
+            }
+        }
+        Collections.sort(sourceFiles);
+
+        // messages are only kept for locales requested by the compile-test that triggered the compilation
+        Set<String> locales = new TreeSet<>();
+        for (Locale locale : DiagnosticRecord.getRequestedLocales(compileTestConfiguration)) {
+            locales.add(locale.toLanguageTag());
+        }
+
+        // the compilation is configured by the first compile-test of a group, so all settings influencing it must be equal
+        List<Object> settings = Arrays.asList(
+                CompileTest.isClassFileGenerationNeeded(compileTestConfiguration),
+                compileTestConfiguration.reuseCompiledSourceFiles(),
+                compileTestConfiguration.cacheCompilationResult(),
+                compileTestConfiguration.maxCompilationTime(),
+                compileTestConfiguration.maxProcessingRounds(),
+                compileTestConfiguration.maxGeneratedFiles(),
+                compileTestConfiguration.maxGeneratedBytes());
+
+        return new GroupKey(sourceFiles, compileTestConfiguration.getNormalizedCompilerOptions(), compileTestConfiguration.modules(), locales, settings);
+
+    }
+
+    /**
+     * Only unit tests that can't influence each other by generating files and that don't expect exceptions are eligible.
+     * Fail-fast unit tests aren't eligible, since their checks would abort the compilation for all unit tests of the group.
+     *
+     * @param compileTestConfiguration the compile-test configuration
+     * @return true if compile-test can share its compilation with other compile-tests
+     */
+    static boolean isEligible(CuteApi.CompilerTestBB compileTestConfiguration) {
+        return compileTestConfiguration.testType() == CuteApi.TestType.UNIT
+                && (compileTestConfiguration.unitTest() instanceof UnitTest || compileTestConfiguration.unitTest() instanceof UnitTestWithoutPassIn)
+                && compileTestConfiguration.processors().isEmpty()
+                && compileTestConfiguration.getExceptionChecks() == null
+                && compileTestConfiguration.javaFileObjectChecks().isEmpty()
+                && compileTestConfiguration.fileObjectChecks().isEmpty()
+                && compileTestConfiguration.getGeneratedClassesTest().isEmpty()
+                && (compileTestConfiguration.resourceFiles() == null || compileTestConfiguration.resourceFiles().isEmpty())
+                && !compileTestConfiguration.getNormalizedCompilerOptions().contains("-Werror")
+                && !FailFastDiagnosticListener.isEnabled(compileTestConfiguration);
+    }
+
+    /**
+     * Executes the passed compile-tests in one compilation.
+     * All passed configurations must have the same {@link GroupKey}.
+     *
+     * @param compileTestConfigurations the compile-test configurations
+     * @return the results in order of the passed configurations
+     */
+    static List<CompileTestBatch.BatchResult> execute(List<CuteApi.CompilerTestBB> compileTestConfigurations) {
+
+        MultiplexingAnnotationProcessor multiplexingAnnotationProcessor = new MultiplexingAnnotationProcessor();
+        List<CompileTest> compileTests = new ArrayList<>();
+
+        try {
+            for (CuteApi.CompilerTestBB compileTestConfiguration : compileTestConfigurations) {
+                CompileTest compileTest = new CompileTest(compileTestConfiguration);
+                compileTests.add(compileTest);
+                multiplexingAnnotationProcessor.addEntry(compileTest.getWrappedAnnotationProcessors());
+            }
+        } catch (RuntimeException e) {
+            // invalid configurations will be reported by separate execution
+            return executeSeparately(compileTestConfigurations);
+        }
+
+        CompilationResult sharedCompilationResult;
+        try {
+            sharedCompilationResult = CompileTest.compile(compileTestConfigurations.get(0), Collections.singleton(multiplexingAnnotationProcessor));
+        } catch (RuntimeException e) {
+            return executeSeparately(compileTestConfigurations);
+        }
+
+        try {
+
+            // assign diagnostics to compile-tests
+            List<List<DiagnosticRecord>> diagnostics = new ArrayList<>();
+            boolean[] reportedError = new boolean[compileTestConfigurations.size()];
+            boolean anyReportedError = false;
+
+            for (int i = 0; i < compileTestConfigurations.size(); i++) {
+                diagnostics.add(new ArrayList<>());
+            }
+
+            for (DiagnosticRecord diagnostic : sharedCompilationResult.getDiagnostics()) {
+
+                int index = MultiplexingAnnotationProcessor.getEntryIndex(diagnostic);
+                if (index < 0 || index >= diagnostics.size()) {
+                    for (List<DiagnosticRecord> compileTestDiagnostics : diagnostics) {
+                        compileTestDiagnostics.add(diagnostic);
+                    }
+                } else {
+                    // hide the marker used to assign diagnostics to compile-tests
+                    diagnostics.get(index).add(diagnostic.withMappedMessages(MultiplexingAnnotationProcessor::stripMarker));
+                    if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                        reportedError[index] = true;
+                        anyReportedError = true;
+                    }
+                }
+
+            }
+
+            List<CompileTestBatch.BatchResult> results = new ArrayList<>();
+            for (int i = 0; i < compileTestConfigurations.size(); i++) {
+
+                CuteApi.CompilerTestBB compileTestConfiguration = compileTestConfigurations.get(i);
+
+                // javac stops processing after round with errors, so outcome of compile-tests without own errors might differ.
+                // Failures might be caused by the isolating ProcessingEnvironment, which javac specific apis like Trees.instance(processingEnv) don't accept.
+                if (multiplexingAnnotationProcessor.isFilerUsed()
+                        || (anyReportedError && !reportedError[i])
+                        || multiplexingAnnotationProcessor.getEntries().get(i).getFailure() != null) {
+                    results.add(CompileTestBatch.executeTest(compileTestConfiguration));
+                    continue;
+                }
+
+                final CompileTest compileTest = compileTests.get(i);
+
+                // compiler timings are shared, processor timings are specific to the compile-test
+                CompilationTimings compilationTimings = new CompilationTimings();
+                compilationTimings.add(sharedCompilationResult.getCompilationTimings());
+                List<String> appliedProcessors = new ArrayList<>();
+                for (AnnotationProcessorWrapper wrappedAnnotationProcessor : compileTest.getWrappedAnnotationProcessors()) {
+                    compilationTimings.addProcessorTimings(wrappedAnnotationProcessor.getTimings());
+                    if (wrappedAnnotationProcessor.wasApplied()) {
+                        appliedProcessors.add(wrappedAnnotationProcessor.getWrappedProcessorClassName());
+                    }
+                }
+
+                final CompilationResult compilationResult = new CompilationResult(
+                        sharedCompilationResult.getCompilationSucceeded(),
+                        diagnostics.get(i),
+                        sharedCompilationResult.getCompileTestFileManager(),
+                        null,
+                        compilationTimings);
+                compilationResult.addAppliedProcessors(appliedProcessors);
+
+                results.add(CompileTestBatch.executeTest(compileTestConfiguration, () -> new CuteApi.DoCustomAssertionsImpl(
+                        compileTest.executeTest(() -> compilationResult),
+                        compileTestConfiguration)));
+
+            }
+
+            return results;
+
+        } finally {
+            sharedCompilationResult.releaseCompilerSession();
+        }
+
+    }
+
+    private static List<CompileTestBatch.BatchResult> executeSeparately(List<CuteApi.CompilerTestBB> compileTestConfigurations) {
+        List<CompileTestBatch.BatchResult> results = new ArrayList<>();
+        for (CuteApi.CompilerTestBB compileTestConfiguration : compileTestConfigurations) {
+            results.add(CompileTestBatch.executeTest(compileTestConfiguration));
+        }
+        return results;
+    }
+
+    /**
+     * Key used to group compile-tests.
+     */
+    static final class GroupKey {
+
+        private final List<String> sourceFiles;
+        private final List<String> compilerOptions;
+        private final Set<String> modules;
+        private final Set<String> locales;
+        private final List<Object> settings;
+
+        GroupKey(List<String> sourceFiles, List<String> compilerOptions, Set<String> modules, Set<String> locales, List<Object> settings) {
+            this.sourceFiles = sourceFiles;
+            this.compilerOptions = compilerOptions;
+            this.modules = new TreeSet<>(modules);
+            this.locales = new TreeSet<>(locales);
+            this.settings = settings;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            GroupKey groupKey = (GroupKey) o;
+            return sourceFiles.equals(groupKey.sourceFiles) && compilerOptions.equals(groupKey.compilerOptions) && modules.equals(groupKey.modules) && locales.equals(groupKey.locales) && settings.equals(groupKey.settings);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sourceFiles, compilerOptions, modules, locales, settings);
+        }
+    }
+
+}
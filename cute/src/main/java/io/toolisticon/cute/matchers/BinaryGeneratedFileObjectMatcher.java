@@ -3,19 +3,33 @@ package io.toolisticon.cute.matchers;
 import io.toolisticon.cute.Constants;
 import io.toolisticon.cute.FailingAssertionException;
 import io.toolisticon.cute.GeneratedFileObjectMatcher;
+import io.toolisticon.cute.InMemoryFileObject;
 
 import javax.tools.FileObject;
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.regex.PatternSyntaxException;
 
 /**
  * Validates if a generated two FileObjects are equal by using binary comparision.
+ * <p>
+ * Contents of {@link InMemoryFileObject}s are compared directly, all other contents are read and compared in large chunks.
+ * In case of a mismatch the offset of the first differing byte and the bytes around it are reported.
  */
 public class BinaryGeneratedFileObjectMatcher implements GeneratedFileObjectMatcher {
 
+    /**
+     * Size of the chunks used to compare streamed contents.
+     */
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Number of bytes shown before and after the first differing byte.
+     */
+    static final int HEX_WINDOW_SIZE = 16;
+
     final FileObject expectedFileObject;
 
     /**
@@ -38,33 +52,151 @@ public class BinaryGeneratedFileObjectMatcher implements GeneratedFileObjectMatc
             return false;
         }
 
-        if (!contentEquals(fileObject.openInputStream(), expectedFileObject.openInputStream())) {
-            throw new FailingAssertionException(Constants.Messages.GFOM_FILEOBJECTS_ARENT_EQUAL_BY_BINARY_COMPARISION.produceMessage());
+        if (fileObject instanceof InMemoryFileObject && expectedFileObject instanceof InMemoryFileObject) {
+            checkInMemoryContents(((InMemoryFileObject) expectedFileObject).getContentAsByteBuffer(), ((InMemoryFileObject) fileObject).getContentAsByteBuffer());
+        } else {
+            try (InputStream expectedInputStream = expectedFileObject.openInputStream();
+                 InputStream actualInputStream = fileObject.openInputStream()) {
+                checkStreamedContents(expectedInputStream, actualInputStream);
+            }
         }
 
         return true;
     }
 
-    static boolean contentEquals(InputStream input1, InputStream input2) throws IOException {
+    static void checkInMemoryContents(ByteBuffer expected, ByteBuffer actual) {
+
+        // sizes are known, so there is no need to look at the content if they differ
+        if (expected.remaining() != actual.remaining()) {
+            throw new FailingAssertionException(Constants.Messages.GFOM_FILEOBJECTS_ARENT_EQUAL_BY_BINARY_COMPARISION_SIZE.produceMessage(expected.remaining(), actual.remaining()));
+        }
+
+        int mismatch = mismatch(expected, actual, expected.remaining());
+        if (mismatch >= 0) {
+            throw createMismatchException(mismatch, expected, actual, mismatch);
+        }
+
+    }
+
+    static void checkStreamedContents(InputStream expectedInputStream, InputStream actualInputStream) throws IOException {
+
+        byte[] expectedChunk = new byte[CHUNK_SIZE];
+        byte[] actualChunk = new byte[CHUNK_SIZE];
+
+        long offset = 0;
+        while (true) {
+
+            int expectedLength = readChunk(expectedInputStream, expectedChunk);
+            int actualLength = readChunk(actualInputStream, actualChunk);
+
+            ByteBuffer expected = ByteBuffer.wrap(expectedChunk, 0, expectedLength);
+            ByteBuffer actual = ByteBuffer.wrap(actualChunk, 0, actualLength);
+
+            int mismatch = mismatch(expected, actual, Math.min(expectedLength, actualLength));
+            if (mismatch < 0 && expectedLength != actualLength) {
+                // one content ends within this chunk
+                mismatch = Math.min(expectedLength, actualLength);
+            }
+
+            if (mismatch >= 0) {
+                throw createMismatchException(offset + mismatch, expected, actual, mismatch);
+            }
+
+            if (expectedLength < CHUNK_SIZE) {
+                // both contents are completely read
+                return;
+            }
+            offset += expectedLength;
+
+        }
+
+    }
+
+    /**
+     * Reads the next chunk. Less bytes than the size of the chunk are only read if the end of the stream is reached.
+     *
+     * @param inputStream the input stream to read from
+     * @param chunk       the chunk to fill
+     * @return the number of bytes read
+     * @throws IOException if reading fails
+     */
+    static int readChunk(InputStream inputStream, byte[] chunk) throws IOException {
 
-        if (!(input1 instanceof BufferedInputStream)) {
-            input1 = new BufferedInputStream(input1);
+        int length = 0;
+        while (length < chunk.length) {
+            int read = inputStream.read(chunk, length, chunk.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
         }
-        if (!(input2 instanceof BufferedInputStream)) {
-            input2 = new BufferedInputStream(input2);
+        return length;
+
+    }
+
+    /**
+     * Gets the index of the first differing byte of both buffers.
+     * Bytes are compared word-wise, starting at the positions of the buffers.
+     *
+     * @param expected the expected bytes
+     * @param actual   the actual bytes
+     * @param length   the number of bytes to compare, both buffers must have at least that number of remaining bytes
+     * @return the index of the first differing byte relative to the positions of the buffers, or -1 if bytes are equal
+     */
+    static int mismatch(ByteBuffer expected, ByteBuffer actual, int length) {
+
+        int expectedPosition = expected.position();
+        int actualPosition = actual.position();
+
+        int i = 0;
+        for (; i <= length - Long.BYTES; i += Long.BYTES) {
+            if (expected.getLong(expectedPosition + i) != actual.getLong(actualPosition + i)) {
+                break;
+            }
         }
 
-        int ch = input1.read();
-        while (-1 != ch) {
-            int ch2 = input2.read();
-            if (ch != ch2) {
-                return false;
+        for (; i < length; i++) {
+            if (expected.get(expectedPosition + i) != actual.get(actualPosition + i)) {
+                return i;
             }
-            ch = input1.read();
         }
 
-        int ch2 = input2.read();
-        return (ch2 == -1);
+        return -1;
+
+    }
+
+    private static FailingAssertionException createMismatchException(long offset, ByteBuffer expected, ByteBuffer actual, int index) {
+        return new FailingAssertionException(Constants.Messages.GFOM_FILEOBJECTS_ARENT_EQUAL_BY_BINARY_COMPARISION_AT_OFFSET.produceMessage(
+                offset,
+                toHexWindow(offset, expected, index),
+                toHexWindow(offset, actual, index)));
+    }
+
+    /**
+     * Renders the bytes around the passed index as hex values. The byte at the index is enclosed in brackets.
+     *
+     * @param offset the offset of the byte at the index within the whole content
+     * @param buffer the buffer
+     * @param index  the index relative to the position of the buffer
+     * @return the hex window
+     */
+    static String toHexWindow(long offset, ByteBuffer buffer, int index) {
+
+        int start = Math.max(0, index - HEX_WINDOW_SIZE);
+        int end = Math.min(buffer.remaining(), index + HEX_WINDOW_SIZE + 1);
+
+        StringBuilder stringBuilder = new StringBuilder(String.format("@%08x:", offset - (index - start)));
+        for (int i = start; i < end; i++) {
+            stringBuilder.append(i == index ? " [" : " ")
+                    .append(String.format("%02x", buffer.get(buffer.position() + i)))
+                    .append(i == index ? "]" : "");
+        }
+        if (index >= buffer.remaining()) {
+            stringBuilder.append(" [EOF]");
+        }
+
+        return stringBuilder.toString();
+
     }
 
     @Override
@@ -81,4 +213,4 @@ public class BinaryGeneratedFileObjectMatcher implements GeneratedFileObjectMatc
     public int hashCode() {
         return expectedFileObject != null ? expectedFileObject.hashCode() : 0;
     }
-}
\ No newline at end of file
+}
@@ -6,36 +6,201 @@ import io.toolisticon.cute.GeneratedFileObjectMatcher;
 
 import javax.tools.FileObject;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 
 /**
  * Validates if the generated file contains all passed Strings.
+ * <p>
+ * All strings are searched in a single pass over the content by using an Aho-Corasick automaton.
+ * The content is read as a stream and is never decoded into a single String.
  */
 class ContainsStringsGeneratedFileObjectMatcher implements GeneratedFileObjectMatcher {
 
+    /**
+     * Size of the char buffer used to read the content.
+     */
+    static final int BUFFER_SIZE = 8192;
 
     String[] stringsToCheck;
 
+    private final Node root;
+
     /**
      * Hidden constructor
      */
     ContainsStringsGeneratedFileObjectMatcher(String... stringsToCheck) {
         this.stringsToCheck = stringsToCheck;
+        this.root = buildAutomaton(stringsToCheck);
     }
 
     @Override
     public boolean check(FileObject fileObject) throws IOException {
 
-        String fileContent = fileObject.getCharContent(true).toString();
+        boolean[] found = new boolean[stringsToCheck.length];
+        int foundCount = 0;
+
+        // empty strings are contained in every content
+        for (int index : root.outputs) {
+            found[index] = true;
+            foundCount++;
+        }
+
+        try (Reader reader = openReader(fileObject)) {
+
+            char[] buffer = new char[BUFFER_SIZE];
+            Node node = root;
+
+            int read;
+            while (foundCount < found.length && (read = reader.read(buffer, 0, buffer.length)) >= 0) {
+                for (int i = 0; i < read && foundCount < found.length; i++) {
 
-        for (String stringToCheck : stringsToCheck) {
+                    node = node.next(buffer[i]);
 
-            if (!fileContent.contains(stringToCheck)) {
-                throw new FailingAssertionException(Constants.Messages.GFOM_COULDNT_FIND_SUBSTRING.produceMessage(stringToCheck, fileObject.getName()));
+                    for (int index : node.outputs) {
+                        if (!found[index]) {
+                            found[index] = true;
+                            foundCount++;
+                        }
+                    }
+
+                }
             }
 
         }
 
+        if (foundCount < found.length) {
+
+            List<String> missingStrings = new ArrayList<>();
+            for (int i = 0; i < found.length; i++) {
+                if (!found[i]) {
+                    missingStrings.add(stringsToCheck[i]);
+                }
+            }
+
+            throw new FailingAssertionException(missingStrings.size() == 1
+                    ? Constants.Messages.GFOM_COULDNT_FIND_SUBSTRING.produceMessage(missingStrings.get(0), fileObject.getName())
+                    : Constants.Messages.GFOM_COULDNT_FIND_SUBSTRINGS.produceMessage(missingStrings, fileObject.getName()));
+        }
+
         return true;
     }
-}
 
+    private static Reader openReader(FileObject fileObject) throws IOException {
+        try {
+            // decoded with the default charset like the char content of generated files
+            return new InputStreamReader(fileObject.openInputStream(), Charset.defaultCharset());
+        } catch (UnsupportedOperationException e) {
+            // FileObjects may provide their content only as chars
+            return new StringReader(fileObject.getCharContent(true).toString());
+        }
+    }
+
+    /**
+     * Builds the Aho-Corasick automaton of the passed strings.
+     *
+     * @param strings the strings to search
+     * @return the root node of the automaton
+     */
+    static Node buildAutomaton(String... strings) {
+
+        Node root = new Node();
+
+        // trie
+        for (int index = 0; index < strings.length; index++) {
+            Node node = root;
+            for (char character : strings[index].toCharArray()) {
+                node = node.children.computeIfAbsent(character, c -> new Node());
+            }
+            node.addOutput(index);
+        }
+
+        // failure links - breadth first, so that failure links of all shorter prefixes are already set
+        Queue<Node> queue = new ArrayDeque<>();
+        for (Node child : root.children.values()) {
+            child.failure = root;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+
+            Node node = queue.remove();
+            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+
+                Node child = entry.getValue();
+                child.failure = node.failure.next(entry.getKey());
+
+                // strings ending at the failure node are suffixes and therefore also found at the child
+                for (int index : child.failure.outputs) {
+                    child.addOutput(index);
+                }
+
+                queue.add(child);
+
+            }
+
+        }
+
+        root.failure = root;
+        return root;
+
+    }
+
+    /**
+     * Node of the automaton.
+     */
+    static final class Node {
+
+        private static final int[] NO_OUTPUTS = new int[0];
+
+        private final Map<Character, Node> children = new HashMap<>();
+        private Node failure;
+
+        /**
+         * The indexes of the strings found when reaching this node.
+         */
+        private int[] outputs = NO_OUTPUTS;
+
+        private void addOutput(int index) {
+            int[] newOutputs = new int[outputs.length + 1];
+            System.arraycopy(outputs, 0, newOutputs, 0, outputs.length);
+            newOutputs[outputs.length] = index;
+            outputs = newOutputs;
+        }
+
+        /**
+         * Gets the node reached by consuming the passed character.
+         *
+         * @param character the character
+         * @return the next node
+         */
+        Node next(char character) {
+
+            Node node = this;
+            while (true) {
+
+                Node child = node.children.get(character);
+                if (child != null) {
+                    return child;
+                }
+                if (node.failure == null || node.failure == node) {
+                    // root
+                    return node;
+                }
+                node = node.failure;
+
+            }
+
+        }
+
+    }
+
+}
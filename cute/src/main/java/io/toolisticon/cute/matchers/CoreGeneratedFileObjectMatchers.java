@@ -4,6 +4,10 @@ import io.toolisticon.cute.Constants;
 import io.toolisticon.cute.GeneratedFileObjectMatcher;
 
 import javax.tools.FileObject;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.regex.PatternSyntaxException;
 
 /**
@@ -35,6 +39,63 @@ public final class CoreGeneratedFileObjectMatchers {
         return new RegexGeneratedFileObjectMatcher(pattern);
     }
 
+    /**
+     * Static function to create a {@link RegexGeneratedFileObjectMatcher} instance with a custom time budget.
+     * Checks taking longer than the passed time fail.
+     *
+     * @param pattern a valid pattern string
+     * @param maxTime the maximum time of a check
+     * @return the instance
+     * @throws PatternSyntaxException   If the expression's syntax is invalid
+     * @throws IllegalArgumentException if passed pattern or time is null
+     */
+    public static GeneratedFileObjectMatcher createRegexMatcher(String pattern, Duration maxTime) {
+
+        if (pattern == null) {
+            throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL.produceMessage("pattern"));
+        }
+        if (maxTime == null) {
+            throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL.produceMessage("maxTime"));
+        }
+
+        return new RegexGeneratedFileObjectMatcher(pattern, Collections.emptyList(), maxTime, RegexGeneratedFileObjectMatcher.DEFAULT_MAX_STEPS);
+    }
+
+    /**
+     * Static function to create a {@link RegexGeneratedFileObjectMatcher} instance that searches the passed fragment patterns in the given order.
+     * Each fragment is searched after the end of the previous fragment.
+     *
+     * @param fragmentPatterns valid pattern strings
+     * @return the instance
+     * @throws PatternSyntaxException   If the expression's syntax is invalid
+     * @throws IllegalArgumentException if passed patterns are null or contain null
+     */
+    public static GeneratedFileObjectMatcher createRegexFragmentsMatcher(String... fragmentPatterns) {
+        return createRegexFragmentsMatcher(RegexGeneratedFileObjectMatcher.DEFAULT_MAX_TIME, fragmentPatterns);
+    }
+
+    /**
+     * Static function to create a {@link RegexGeneratedFileObjectMatcher} instance that searches the passed fragment patterns in the given order.
+     * Each fragment is searched after the end of the previous fragment. Checks taking longer than the passed time fail.
+     *
+     * @param maxTime          the maximum time of a check
+     * @param fragmentPatterns valid pattern strings
+     * @return the instance
+     * @throws PatternSyntaxException   If the expression's syntax is invalid
+     * @throws IllegalArgumentException if passed time or patterns are null or patterns contain null
+     */
+    public static GeneratedFileObjectMatcher createRegexFragmentsMatcher(Duration maxTime, String... fragmentPatterns) {
+
+        if (maxTime == null) {
+            throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL.produceMessage("maxTime"));
+        }
+        if (fragmentPatterns == null || Arrays.asList(fragmentPatterns).contains(null)) {
+            throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL.produceMessage("fragment pattern"));
+        }
+
+        return RegexGeneratedFileObjectMatcher.forFragments(maxTime, fragmentPatterns);
+    }
+
     /**
      * Static function to create a {@link ContainsStringsGeneratedFileObjectMatcher} instance.
      *
@@ -56,6 +117,23 @@ public final class CoreGeneratedFileObjectMatchers {
         return new WellFormedXmlGeneratedFileObjectMatcher();
     }
 
+    /**
+     * Static function to create a {@link XmlSchemaValidatingGeneratedFileObjectMatcher} instance.
+     * Compiled schemas are cached by their location.
+     *
+     * @param schemaLocation the resource location of the xml schema, like "/schemas/persistence.xsd"
+     * @return the instance
+     * @throws IllegalArgumentException if passed location is null or the schema can't be loaded
+     */
+    public static GeneratedFileObjectMatcher createIsValidXmlMatcher(String schemaLocation) {
+
+        if (schemaLocation == null) {
+            throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL.produceMessage("schemaLocation"));
+        }
+
+        return new XmlSchemaValidatingGeneratedFileObjectMatcher(schemaLocation);
+    }
+
     public static <T extends FileObject> GeneratedFileObjectMatcher createIgnoreLineEndingsMatcher(T expectedFileObject) {
 
         if (expectedFileObject == null) {
@@ -65,6 +143,27 @@ public final class CoreGeneratedFileObjectMatchers {
         return new IgnoreLineEndingsGeneratedFileObjectMatcher(expectedFileObject);
     }
 
+    /**
+     * Static function to create a {@link IgnoreLineEndingsGeneratedFileObjectMatcher} instance that decodes both contents with the passed charset.
+     *
+     * @param expectedFileObject the expected file object
+     * @param charset            the charset of both contents
+     * @param <T>                the type of the expected file object
+     * @return the instance
+     * @throws IllegalArgumentException if passed file object or charset is null
+     */
+    public static <T extends FileObject> GeneratedFileObjectMatcher createIgnoreLineEndingsMatcher(T expectedFileObject, Charset charset) {
+
+        if (expectedFileObject == null) {
+            throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL.produceMessage("expected fileobject"));
+        }
+        if (charset == null) {
+            throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL.produceMessage("charset"));
+        }
+
+        return new IgnoreLineEndingsGeneratedFileObjectMatcher(expectedFileObject, charset);
+    }
+
     public static <T extends FileObject> GeneratedFileObjectMatcher createBinaryMatcher(T expectedFileObject) {
 
         if (expectedFileObject == null) {
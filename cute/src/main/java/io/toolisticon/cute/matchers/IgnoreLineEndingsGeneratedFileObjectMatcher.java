@@ -5,70 +5,201 @@ import io.toolisticon.cute.FailingAssertionException;
 import io.toolisticon.cute.GeneratedFileObjectMatcher;
 
 import javax.tools.FileObject;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
 import java.util.Objects;
 import java.util.regex.PatternSyntaxException;
 
 /**
  * Validates if file objects are matching.
- * Does validation line by line and ignores line endings.
+ * Does validation character by character and treats the line endings \r\n, \r and \n as equal.
  * (this is good for text files since windows and linux operation-systems are using different line endings)
+ * A line ending at the end of the last line is ignored.
  */
 public class IgnoreLineEndingsGeneratedFileObjectMatcher implements GeneratedFileObjectMatcher {
 
+    /**
+     * Size of the char buffers used to read the contents.
+     */
+    static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Normalized line ending.
+     */
+    private static final int EOL = '\n';
+
+    /**
+     * End of content.
+     */
+    private static final int EOF = -1;
+
     final FileObject expectedFileObject;
+    final Charset charset;
 
     /**
      * Hidden constructor.
+     * Contents are decoded with the default charset.
      *
      * @param expectedFileObject the expected java file object
      * @throws PatternSyntaxException If the expression's syntax is invalid
      */
     IgnoreLineEndingsGeneratedFileObjectMatcher(FileObject expectedFileObject) {
 
+        this(expectedFileObject, Charset.defaultCharset());
+
+    }
+
+    /**
+     * Hidden constructor.
+     *
+     * @param expectedFileObject the expected java file object
+     * @param charset            the charset used to decode both contents
+     */
+    IgnoreLineEndingsGeneratedFileObjectMatcher(FileObject expectedFileObject, Charset charset) {
+
         this.expectedFileObject = expectedFileObject;
+        this.charset = charset;
 
     }
 
     @Override
     public boolean check(FileObject fileObject) throws IOException {
 
-        if (!contentEquals(fileObject.openInputStream(), expectedFileObject.openInputStream())) {
-            throw new FailingAssertionException(Constants.Messages.GFOM_FILEOBJECTS_ARENT_EQUAL_BY_TEXTUAL_COMPARISION_WITH_IGNORE_LINEENDINGS.produceMessage());
+        try (Reader expectedReader = new InputStreamReader(expectedFileObject.openInputStream(), charset);
+             Reader actualReader = new InputStreamReader(fileObject.openInputStream(), charset)) {
+            checkContentEquals(expectedReader, actualReader);
         }
 
         return true;
     }
 
+    /**
+     * Compares both contents character by character.
+     *
+     * @param expectedReader the reader of the expected content
+     * @param actualReader   the reader of the actual content
+     * @throws IOException               if reading fails
+     * @throws FailingAssertionException with the line and column of the first difference if contents aren't equal
+     */
+    static void checkContentEquals(Reader expectedReader, Reader actualReader) throws IOException {
+
+        NormalizingCharReader expected = new NormalizingCharReader(expectedReader);
+        NormalizingCharReader actual = new NormalizingCharReader(actualReader);
 
-    static boolean contentEquals(InputStream input1, InputStream input2) throws IOException {
+        long line = 1;
+        long column = 1;
 
-        BufferedReader br1 = new BufferedReader(new InputStreamReader(input1));
-        BufferedReader br2 = new BufferedReader(new InputStreamReader(input2));
+        while (true) {
 
-        String br1line;
-        String br2line;
-        do {
-            br1line = br1.readLine();
-            br2line = br2.readLine();
+            int expectedChar = expected.next();
+            int actualChar = actual.next();
 
+            if (expectedChar != actualChar) {
 
-            if (br1line != null && br2line != null && br1line != br2line) {
+                // a line ending at the end of the last line is ignored, like BufferedReader.readLine() does
+                boolean endOfNonEmptyLine = column > 1
+                        && (expectedChar == EOF && actualChar == EOL && actual.next() == EOF
+                        || expectedChar == EOL && actualChar == EOF && expected.next() == EOF);
 
-                if (!br1line.equals(br2line)) {
-                    return false;
+                if (endOfNonEmptyLine) {
+                    return;
                 }
 
-            } else if (br1line != null || br2line != null) {
-                return false;
+                throw new FailingAssertionException(Constants.Messages.GFOM_FILEOBJECTS_ARENT_EQUAL_BY_TEXTUAL_COMPARISION_WITH_IGNORE_LINEENDINGS_AT_POSITION.produceMessage(
+                        line, column, describe(expectedChar), describe(actualChar)));
+
             }
 
-        } while (br1line != null && br2line != null);
+            if (expectedChar == EOF) {
+                return;
+            }
+
+            if (expectedChar == EOL) {
+                line++;
+                column = 1;
+            } else {
+                column++;
+            }
+
+        }
+
+    }
+
+    private static String describe(int character) {
+        switch (character) {
+            case EOF:
+                return "<end of content>";
+            case EOL:
+                return "<end of line>";
+            default:
+                return "'" + (char) character + "'";
+        }
+    }
+
+    /**
+     * Reads characters from a buffer and returns all line endings as \n.
+     */
+    private static final class NormalizingCharReader {
+
+        private final Reader reader;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private int position;
+        private int limit;
+
+        private NormalizingCharReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Gets the next character.
+         *
+         * @return the next character, \n for all line endings or -1 at end of content
+         * @throws IOException if reading fails
+         */
+        private int next() throws IOException {
+
+            int character = read();
+            if (character == '\r') {
+                // \r\n is a single line ending
+                if (peek() == '\n') {
+                    position++;
+                }
+                return EOL;
+            }
+            return character;
+
+        }
+
+        private int read() throws IOException {
+            int character = peek();
+            if (character != EOF) {
+                position++;
+            }
+            return character;
+        }
+
+        private int peek() throws IOException {
+
+            if (position >= limit) {
+
+                int read;
+                do {
+                    read = reader.read(buffer, 0, buffer.length);
+                } while (read == 0);
+
+                if (read < 0) {
+                    return EOF;
+                }
+                position = 0;
+                limit = read;
+
+            }
+            return buffer[position];
+
+        }
 
-        return true;
     }
 
     @Override
@@ -78,12 +209,11 @@ public class IgnoreLineEndingsGeneratedFileObjectMatcher implements GeneratedFil
 
         IgnoreLineEndingsGeneratedFileObjectMatcher that = (IgnoreLineEndingsGeneratedFileObjectMatcher) o;
 
-        return Objects.equals(expectedFileObject, that.expectedFileObject);
+        return Objects.equals(expectedFileObject, that.expectedFileObject) && Objects.equals(charset, that.charset);
     }
 
     @Override
     public int hashCode() {
-        return expectedFileObject != null ? expectedFileObject.hashCode() : 0;
+        return Objects.hash(expectedFileObject, charset);
     }
 }
-
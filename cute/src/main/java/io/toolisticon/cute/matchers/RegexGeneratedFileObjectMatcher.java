@@ -6,16 +6,60 @@ import io.toolisticon.cute.GeneratedFileObjectMatcher;
 
 import javax.tools.FileObject;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 /**
- * Validates a generated file by using a regular expression.
+ * Validates a generated file by using regular expressions.
+ * <p>
+ * Supports two modes: either the whole content must match a single pattern, or a sequence of fragment patterns must be found in the content in the given order.
+ * Searching fragments is usually much faster than matching patterns like .*foo.*bar.* against the whole content, since it avoids excessive backtracking.
+ * <p>
+ * Each check is limited by a time and a step budget, so that a backtracking pattern fails cleanly instead of hanging.
+ * Compiled patterns are cached and shared across all matchers.
  */
 class RegexGeneratedFileObjectMatcher implements GeneratedFileObjectMatcher {
 
+    static final Duration DEFAULT_MAX_TIME = Duration.ofSeconds(10);
+
+    /**
+     * Default maximum number of character accesses done by the regex engine during one check.
+     */
+    static final long DEFAULT_MAX_STEPS = 500_000_000L;
+
+    /**
+     * Maximum number of characters of the content shown in failure messages.
+     */
+    static final int MAX_EXCERPT_LENGTH = 500;
+
+    static final int MAX_CACHED_PATTERNS = 1000;
+
+    private static final int FLAGS = Pattern.MULTILINE | Pattern.UNIX_LINES | Pattern.DOTALL;
+
+    private static final Map<String, Pattern> PATTERN_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * The pattern the whole content must match, null if fragments are searched.
+     */
     final String patternString;
-    private final Pattern pattern;
+
+    /**
+     * The patterns of the fragments that must be found in order, empty if the whole content is matched.
+     */
+    final List<String> fragmentPatternStrings;
+
+    final Duration maxTime;
+    final long maxSteps;
+
+    private final List<Pattern> patterns;
 
     /**
      * Hidden constructor.
@@ -24,22 +68,214 @@ class RegexGeneratedFileObjectMatcher implements GeneratedFileObjectMatcher {
      * @throws PatternSyntaxException If the expression's syntax is invalid
      */
     RegexGeneratedFileObjectMatcher(String patternString) {
+        this(patternString, Collections.emptyList(), DEFAULT_MAX_TIME, DEFAULT_MAX_STEPS);
+    }
+
+    /**
+     * Hidden constructor.
+     *
+     * @param patternString          the pattern the whole content must match, or null if fragments are searched
+     * @param fragmentPatternStrings the patterns of the fragments that must be found in order
+     * @param maxTime                the maximum time of a check
+     * @param maxSteps               the maximum number of character accesses of a check
+     * @throws PatternSyntaxException If the expression's syntax is invalid
+     */
+    RegexGeneratedFileObjectMatcher(String patternString, List<String> fragmentPatternStrings, Duration maxTime, long maxSteps) {
 
         this.patternString = patternString;
-        this.pattern = Pattern.compile(patternString, Pattern.MULTILINE | Pattern.UNIX_LINES | Pattern.DOTALL);
+        this.fragmentPatternStrings = Collections.unmodifiableList(new ArrayList<>(fragmentPatternStrings));
+        this.maxTime = maxTime;
+        this.maxSteps = maxSteps;
+
+        List<Pattern> compiledPatterns = new ArrayList<>();
+        if (patternString != null) {
+            compiledPatterns.add(getPattern(patternString));
+        }
+        for (String fragmentPatternString : fragmentPatternStrings) {
+            compiledPatterns.add(getPattern(fragmentPatternString));
+        }
+        this.patterns = compiledPatterns;
+
+    }
+
+    /**
+     * Creates a matcher that searches the passed fragments in order.
+     *
+     * @param maxTime                the maximum time of a check
+     * @param fragmentPatternStrings the patterns of the fragments
+     * @return the matcher
+     * @throws PatternSyntaxException If the expression's syntax is invalid
+     */
+    static RegexGeneratedFileObjectMatcher forFragments(Duration maxTime, String... fragmentPatternStrings) {
+        return new RegexGeneratedFileObjectMatcher(null, Arrays.asList(fragmentPatternStrings), maxTime, DEFAULT_MAX_STEPS);
+    }
+
+    /**
+     * Gets the compiled pattern from cache or compiles it.
+     *
+     * @param patternString the pattern string
+     * @return the compiled pattern
+     * @throws PatternSyntaxException If the expression's syntax is invalid
+     */
+    static Pattern getPattern(String patternString) {
+
+        Pattern pattern = PATTERN_CACHE.get(patternString);
+        if (pattern == null) {
+
+            // compile outside of the map to keep PatternSyntaxExceptions out of computeIfAbsent
+            pattern = Pattern.compile(patternString, FLAGS);
+            if (PATTERN_CACHE.size() >= MAX_CACHED_PATTERNS) {
+                PATTERN_CACHE.clear();
+            }
+            PATTERN_CACHE.putIfAbsent(patternString, pattern);
+
+        }
+        return pattern;
+
     }
 
     @Override
     public boolean check(FileObject fileObject) throws IOException {
 
         String content = fileObject.getCharContent(true).toString();
+        BudgetedCharSequence budgetedContent = new BudgetedCharSequence(content, new Budget(maxTime, maxSteps));
 
-        if (!pattern.matcher(content).matches()) {
-            throw new FailingAssertionException(Constants.Messages.GFOM_FILEOBJECT_DOESNT_MATCH_PATTERN.produceMessage(content, patternString));
+        try {
+
+            if (patternString != null) {
+                if (!patterns.get(0).matcher(budgetedContent).matches()) {
+                    throw new FailingAssertionException(Constants.Messages.GFOM_FILEOBJECT_DOESNT_MATCH_PATTERN.produceMessage(getExcerpt(content, 0), patternString));
+                }
+            } else {
+                checkFragments(content, budgetedContent);
+            }
+
+        } catch (BudgetExceededException e) {
+            throw new FailingAssertionException(Constants.Messages.GFOM_FILEOBJECT_PATTERN_BUDGET_EXCEEDED.produceMessage(
+                    patternString != null ? patternString : fragmentPatternStrings,
+                    e.steps,
+                    e.elapsedMillis,
+                    getExcerpt(content, 0)));
         }
 
         return true;
     }
 
+    private void checkFragments(String content, CharSequence budgetedContent) {
+
+        int offset = 0;
+        for (int i = 0; i < patterns.size(); i++) {
+
+            Matcher matcher = patterns.get(i).matcher(budgetedContent);
+            if (!matcher.find(offset)) {
+                throw new FailingAssertionException(Constants.Messages.GFOM_FILEOBJECT_DOESNT_CONTAIN_PATTERN_FRAGMENT.produceMessage(
+                        i + 1,
+                        patterns.size(),
+                        fragmentPatternStrings.get(i),
+                        offset,
+                        getExcerpt(content, offset)));
+            }
+            offset = matcher.end();
+
+        }
+
+    }
+
+    /**
+     * Gets an excerpt of the content starting at the passed offset.
+     *
+     * @param content the content
+     * @param offset  the offset of the excerpt
+     * @return the excerpt, truncated to {@link #MAX_EXCERPT_LENGTH} characters
+     */
+    static String getExcerpt(String content, int offset) {
+
+        int end = offset + MAX_EXCERPT_LENGTH;
+        if (end >= content.length()) {
+            return content.substring(offset);
+        }
+        return content.substring(offset, end) + "...[" + (content.length() - end) + " more characters]";
+
+    }
+
+    /**
+     * Time and step budget of a single check.
+     */
+    private static final class Budget {
+
+        /**
+         * The clock is checked only every n steps, since reading it is much more expensive than a character access.
+         */
+        private static final int TIME_CHECK_INTERVAL = 4096;
+
+        private final long startNanos = System.nanoTime();
+        private final long maxNanos;
+        private final long maxSteps;
+        private long steps;
+
+        private Budget(Duration maxTime, long maxSteps) {
+            this.maxNanos = maxTime.toNanos();
+            this.maxSteps = maxSteps;
+        }
+
+        private void step() {
+
+            steps++;
+            if (steps > maxSteps || steps % TIME_CHECK_INTERVAL == 0 && System.nanoTime() - startNanos > maxNanos) {
+                throw new BudgetExceededException(steps, Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+            }
+
+        }
+
+    }
+
+    private static final class BudgetExceededException extends RuntimeException {
+
+        private final long steps;
+        private final long elapsedMillis;
+
+        private BudgetExceededException(long steps, long elapsedMillis) {
+            super(null, null, false, false);
+            this.steps = steps;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+    }
+
+    /**
+     * Char sequence that consumes a step of the budget on each character access done by the regex engine.
+     */
+    private static final class BudgetedCharSequence implements CharSequence {
+
+        private final CharSequence delegate;
+        private final Budget budget;
+
+        private BudgetedCharSequence(CharSequence delegate, Budget budget) {
+            this.delegate = delegate;
+            this.budget = budget;
+        }
+
+        @Override
+        public int length() {
+            return delegate.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            budget.step();
+            return delegate.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new BudgetedCharSequence(delegate.subSequence(start, end), budget);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+
+    }
 
 }
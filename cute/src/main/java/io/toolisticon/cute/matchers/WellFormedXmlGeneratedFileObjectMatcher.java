@@ -6,15 +6,25 @@ import io.toolisticon.cute.FailingAssertionException;
 import io.toolisticon.cute.GeneratedFileObjectMatcher;
 
 import javax.tools.FileObject;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Matcher to check if file contains well-formed xml.
+ * <p>
+ * The file is checked by streaming it through a StAX parser, no document is built.
  */
 class WellFormedXmlGeneratedFileObjectMatcher implements GeneratedFileObjectMatcher {
 
+    /**
+     * The factory is configured once and shared - creating readers of a configured factory is thread-safe.
+     */
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
     /**
      * Hidden constructor
      */
@@ -22,24 +32,37 @@ class WellFormedXmlGeneratedFileObjectMatcher implements GeneratedFileObjectMatc
 
     }
 
+    private static XMLInputFactory createXmlInputFactory() {
+
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.IS_VALIDATING, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        // speed up processing by preventing downloading of dtds
+        factory.setXMLResolver((publicID, systemID, baseURI, namespace) -> new ByteArrayInputStream(new byte[0]));
+
+        return factory;
+
+    }
+
     @Override
     public boolean check(FileObject fileObject) throws IOException {
 
-        try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-
-            // speed up processing by preventing downloading of dtds
-            factory.setValidating(false);
-            factory.setNamespaceAware(false);
-            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-dtd-grammar", false);
-            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        try (InputStream inputStream = fileObject.openInputStream()) {
 
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            builder.parse(fileObject.openInputStream());
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+            try {
+                while (reader.hasNext()) {
+                    reader.next();
+                }
+            } finally {
+                reader.close();
+            }
 
             return true;
-        } catch (Exception e) {
-            throw new FailingAssertionException(Constants.Messages.GFOM_FILEOBJECT_IS_NOT_WELL_FORMED.produceMessage(fileObject.getName()));
+        } catch (XMLStreamException e) {
+            throw new FailingAssertionException(Constants.Messages.GFOM_FILEOBJECT_IS_NOT_WELL_FORMED_WITH_CAUSE.produceMessage(fileObject.getName(), e.getMessage()));
         }
 
 
@@ -0,0 +1,88 @@
+package io.toolisticon.cute.matchers;
+
+import io.toolisticon.cute.Constants;
+import io.toolisticon.cute.FailingAssertionException;
+import io.toolisticon.cute.GeneratedFileObjectMatcher;
+import org.xml.sax.SAXException;
+
+import javax.tools.FileObject;
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Matcher to check if file contains xml that is valid according to a xml schema.
+ * <p>
+ * Compiled schemas are cached by their resource location and shared across all matchers, since compiling a schema is expensive.
+ * The file is validated while it is streamed, no document is built.
+ */
+class XmlSchemaValidatingGeneratedFileObjectMatcher implements GeneratedFileObjectMatcher {
+
+    private static final Map<String, Schema> SCHEMA_CACHE = new ConcurrentHashMap<>();
+
+    final String schemaLocation;
+
+    private final Schema schema;
+
+    /**
+     * Hidden constructor
+     *
+     * @param schemaLocation the resource location of the xml schema
+     * @throws IllegalArgumentException if the schema can't be loaded
+     */
+    XmlSchemaValidatingGeneratedFileObjectMatcher(String schemaLocation) {
+        this.schemaLocation = schemaLocation;
+        this.schema = getSchema(schemaLocation);
+    }
+
+    /**
+     * Gets the compiled schema from cache or compiles it.
+     *
+     * @param schemaLocation the resource location of the xml schema
+     * @return the compiled schema - schemas are immutable and thread-safe
+     * @throws IllegalArgumentException if the schema can't be loaded
+     */
+    static Schema getSchema(String schemaLocation) {
+        return SCHEMA_CACHE.computeIfAbsent(schemaLocation, XmlSchemaValidatingGeneratedFileObjectMatcher::compileSchema);
+    }
+
+    private static Schema compileSchema(String schemaLocation) {
+
+        URL url = XmlSchemaValidatingGeneratedFileObjectMatcher.class.getResource(schemaLocation);
+        if (url == null) {
+            throw new IllegalArgumentException(Constants.Messages.IAE_CANNOT_LOAD_XML_SCHEMA.produceMessage(schemaLocation, "resource doesn't exist"));
+        }
+
+        try {
+            // SchemaFactory isn't thread-safe, but it's only needed once per schema
+            return SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(url);
+        } catch (SAXException e) {
+            throw new IllegalArgumentException(Constants.Messages.IAE_CANNOT_LOAD_XML_SCHEMA.produceMessage(schemaLocation, e.getMessage()), e);
+        }
+
+    }
+
+    @Override
+    public boolean check(FileObject fileObject) throws IOException {
+
+        try (InputStream inputStream = fileObject.openInputStream()) {
+
+            // validators aren't thread-safe, but cheap to create
+            Validator validator = schema.newValidator();
+            validator.validate(new StreamSource(inputStream, fileObject.toUri().toString()));
+
+            return true;
+        } catch (SAXException e) {
+            throw new FailingAssertionException(Constants.Messages.GFOM_FILEOBJECT_DOESNT_MATCH_XML_SCHEMA.produceMessage(fileObject.getName(), schemaLocation, e.getMessage()));
+        }
+
+    }
+
+}
@@ -19,7 +19,6 @@ import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
-import javax.tools.Diagnostic;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -183,10 +182,12 @@ public class AnnotationProcessorWrapperTest {
         Set<? extends TypeElement> set = new HashSet<>();
         RoundEnvironment roundEnvironment = Mockito.mock(RoundEnvironment.class);
 
+        MatcherAssert.assertThat(unit.wasApplied(), Matchers.is(false));
 
         unit.process(set, roundEnvironment);
 
-        Mockito.verify(messager).printMessage(Diagnostic.Kind.NOTE, unit.getProcessorWasAppliedMessage());
+        MatcherAssert.assertThat(unit.wasApplied(), Matchers.is(true));
+        Mockito.verifyZeroInteractions(messager);
         Mockito.verify(processorSpy).process(set, roundEnvironment);
 
     }
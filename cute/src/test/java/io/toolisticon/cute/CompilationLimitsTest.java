@@ -0,0 +1,124 @@
+package io.toolisticon.cute;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Unit test for {@link CompilationLimits}.
+ */
+public class CompilationLimitsTest {
+
+    /**
+     * Processor that generates a new source file in each round - processing would never end.
+     */
+    @SupportedAnnotationTypes("*")
+    public static class RunawayProcessor extends AbstractProcessor {
+
+        private int counter = 0;
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+            if (!roundEnv.processingOver()) {
+                String className = "Runaway" + (counter++);
+                try (Writer writer = processingEnv.getFiler().createSourceFile("io.toolisticon.cute." + className).openWriter()) {
+                    writer.write("package io.toolisticon.cute;\npublic class " + className + " {}");
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return false;
+
+        }
+
+    }
+
+    private static CuteApi.BlackBoxTestFinalGivenInterface given() {
+        return Cute.blackBoxTest().given().processor(RunawayProcessor.class)
+                .andSourceFiles("/compiletests/generatedclasstest/TestClass.java");
+    }
+
+    private static String getFailureMessage(CuteApi.BlackBoxTestFinalGivenInterface given) {
+
+        try {
+            given.whenCompiled().thenExpectThat().compilationSucceeds().executeTest();
+        } catch (AssertionError e) {
+            return e.getMessage();
+        }
+
+        throw new IllegalStateException("AssertionError should have been triggered");
+
+    }
+
+    @Test
+    public void test_maxProcessingRounds() {
+
+        String message = getFailureMessage(given().andLimitProcessingRoundsTo(5));
+
+        MatcherAssert.assertThat(message, Matchers.containsString(Constants.Messages.TOKEN_LIMIT_PROCESSING_ROUNDS.produceMessage(5)));
+        MatcherAssert.assertThat(message, Matchers.containsString("Round 1 : 1 files"));
+        MatcherAssert.assertThat(message, Matchers.containsString("/io/toolisticon/cute/Runaway4.java"));
+        MatcherAssert.assertThat(message, Matchers.not(Matchers.containsString("Runaway5")));
+
+    }
+
+    @Test
+    public void test_maxGeneratedFiles() {
+
+        String message = getFailureMessage(given().andLimitGeneratedFilesTo(3));
+
+        MatcherAssert.assertThat(message, Matchers.containsString(Constants.Messages.TOKEN_LIMIT_GENERATED_FILES.produceMessage(3)));
+        MatcherAssert.assertThat(message, Matchers.containsString("Round 4 : 1 files"));
+
+    }
+
+    @Test
+    public void test_maxGeneratedBytes() {
+
+        String message = getFailureMessage(given().andLimitGeneratedBytesTo(100L));
+
+        MatcherAssert.assertThat(message, Matchers.containsString(Constants.Messages.TOKEN_LIMIT_GENERATED_BYTES.produceMessage(100L)));
+
+    }
+
+    @Test
+    public void test_maxCompilationTime() {
+
+        String message = getFailureMessage(given().andLimitCompilationTimeTo(Duration.ofNanos(1L)));
+
+        MatcherAssert.assertThat(message, Matchers.containsString(Constants.Messages.TOKEN_LIMIT_COMPILATION_TIME.produceMessage(0L)));
+        MatcherAssert.assertThat(message, Matchers.containsString("Round 1"));
+
+    }
+
+    @Test
+    public void test_compilationWithinLimits() {
+
+        Cute.blackBoxTest().given().processor(io.toolisticon.cute.common.SimpleTestProcessor1.class)
+                .andSourceFiles("/compiletests/generatedclasstest/TestClass.java")
+                .andLimitCompilationTimeTo(Duration.ofMinutes(5))
+                .andLimitProcessingRoundsTo(3)
+                .andLimitGeneratedFilesTo(10)
+                .andLimitGeneratedBytesTo(100000L)
+                .whenCompiled().thenExpectThat().compilationSucceeds()
+                .executeTest();
+
+    }
+
+}
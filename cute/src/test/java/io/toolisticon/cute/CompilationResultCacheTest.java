@@ -0,0 +1,185 @@
+package io.toolisticon.cute;
+
+import io.toolisticon.cute.common.SimpleTestProcessor1;
+import io.toolisticon.cute.common.SimpleTestProcessor1Interface;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Unit test for {@link CompilationResultCache}.
+ */
+public class CompilationResultCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Before
+    public void init() {
+        System.setProperty(CompilationResultCache.CACHE_DIRECTORY_PROPERTY, temporaryFolder.getRoot().getAbsolutePath());
+    }
+
+    @After
+    public void cleanup() {
+        System.clearProperty(CompilationResultCache.CACHE_DIRECTORY_PROPERTY);
+    }
+
+    private CuteApi.BlackBoxTestInterface createTest() {
+        return Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles("/compiletests/generatedclasstest/TestClass.java")
+                .andCacheCompilationResult()
+                .whenCompiled();
+    }
+
+    @Test
+    public void test_cacheCompilationResult_shouldRestoreCachedCompilationResult() {
+
+        for (int i = 0; i < 2; i++) {
+
+            createTest()
+                    .thenExpectThat().compilationSucceeds()
+                    .andThat().generatedSourceFile("io.toolisticon.cute.testhelper.compiletest.TestClassGeneratedClass").exists()
+                    .andThat().generatedClassesTestedSuccessfullyBy(cuteClassLoader -> {
+                        SimpleTestProcessor1Interface instance = (SimpleTestProcessor1Interface) cuteClassLoader.getClass("io.toolisticon.cute.testhelper.compiletest.TestClassGeneratedClass").getConstructor().newInstance();
+                        MatcherAssert.assertThat(instance.getOutput(), Matchers.is("WORKS!!!"));
+                    })
+                    .executeTest();
+
+            MatcherAssert.assertThat(temporaryFolder.getRoot().listFiles(), Matchers.arrayWithSize(1));
+
+        }
+
+    }
+
+    @Test
+    public void test_load_shouldRestoreGeneratedFilesAndDiagnostics() {
+
+        CuteApi.CompilerTestBB compileTestConfiguration = createTest().thenExpectThat().compilationSucceeds().createCompileTestConfiguration();
+        String key = CompilationResultCache.createKey(compileTestConfiguration);
+        CompileTest compileTest = new CompileTest(compileTestConfiguration);
+
+        MatcherAssert.assertThat(CompilationResultCache.load(compileTestConfiguration, key), Matchers.nullValue());
+
+        CompilationResult compilationResult = compileTest.executeTest();
+
+        CompilationResult cachedCompilationResult = CompilationResultCache.load(compileTestConfiguration, key);
+        try {
+
+            MatcherAssert.assertThat(cachedCompilationResult, Matchers.notNullValue());
+            MatcherAssert.assertThat(cachedCompilationResult.getCompilationSucceeded(), Matchers.is(true));
+            MatcherAssert.assertThat(cachedCompilationResult.getCompileTestFileManager().getGeneratedClasses().keySet(), Matchers.is(compilationResult.getCompileTestFileManager().getGeneratedClasses().keySet()));
+            MatcherAssert.assertThat(cachedCompilationResult.getCompileTestFileManager().existsExpectedJavaFileObject(StandardLocation.SOURCE_OUTPUT, "io.toolisticon.cute.testhelper.compiletest.TestClassGeneratedClass", JavaFileObject.Kind.SOURCE), Matchers.is(true));
+            MatcherAssert.assertThat(cachedCompilationResult.getDiagnostics(), Matchers.hasSize(compilationResult.getDiagnostics().size()));
+            MatcherAssert.assertThat(cachedCompilationResult.getAppliedProcessors(), Matchers.is(compilationResult.getAppliedProcessors()));
+            MatcherAssert.assertThat(cachedCompilationResult.getAppliedProcessors(), Matchers.contains(SimpleTestProcessor1.class.getName()));
+
+            for (int i = 0; i < compilationResult.getDiagnostics().size(); i++) {
+                Diagnostic<? extends JavaFileObject> expected = compilationResult.getDiagnostics().get(i);
+                Diagnostic<? extends JavaFileObject> actual = cachedCompilationResult.getDiagnostics().get(i);
+                MatcherAssert.assertThat(actual.getKind(), Matchers.is(expected.getKind()));
+                MatcherAssert.assertThat(actual.getMessage(null), Matchers.is(expected.getMessage(null)));
+                MatcherAssert.assertThat(actual.getLineNumber(), Matchers.is(expected.getLineNumber()));
+            }
+
+        } finally {
+            cachedCompilationResult.releaseCompilerSession();
+        }
+
+    }
+
+    @Test
+    public void test_load_shouldIgnoreCorruptCacheFiles() throws Exception {
+
+        CuteApi.CompilerTestBB compileTestConfiguration = createTest().thenExpectThat().compilationSucceeds().createCompileTestConfiguration();
+        String key = CompilationResultCache.createKey(compileTestConfiguration);
+
+        MatcherAssert.assertThat(new File(temporaryFolder.getRoot(), key + ".bin").createNewFile(), Matchers.is(true));
+
+        MatcherAssert.assertThat(CompilationResultCache.load(compileTestConfiguration, key), Matchers.nullValue());
+
+    }
+
+    @Test
+    public void test_createKey() {
+
+        CuteApi.CompilerTestBB first = createTest().createCompileTestConfiguration();
+        CuteApi.CompilerTestBB second = createTest().createCompileTestConfiguration();
+        CuteApi.CompilerTestBB withOptions = Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles("/compiletests/generatedclasstest/TestClass.java")
+                .andUseCompilerOptions("-parameters")
+                .createCompileTestConfiguration();
+
+        MatcherAssert.assertThat(CompilationResultCache.createKey(first), Matchers.notNullValue());
+        MatcherAssert.assertThat(CompilationResultCache.createKey(first), Matchers.is(CompilationResultCache.createKey(second)));
+        MatcherAssert.assertThat(CompilationResultCache.createKey(first), Matchers.not(CompilationResultCache.createKey(withOptions)));
+
+    }
+
+    @Test
+    public void test_computeClassPathFingerprint_shouldDetectChangedClassPathEntries() throws IOException {
+
+        File directory = temporaryFolder.newFolder();
+        File classFile = new File(new File(directory, "a"), "A.class");
+        MatcherAssert.assertThat(classFile.getParentFile().mkdirs(), Matchers.is(true));
+        Files.write(classFile.toPath(), new byte[]{1, 2, 3});
+        File jar = temporaryFolder.newFile("library.jar");
+        Files.write(jar.toPath(), new byte[]{1, 2, 3});
+
+        String classPath = directory.getAbsolutePath() + File.pathSeparator + jar.getAbsolutePath();
+        byte[] fingerprint = CompilationResultCache.computeClassPathFingerprint(classPath);
+
+        MatcherAssert.assertThat(CompilationResultCache.computeClassPathFingerprint(classPath), Matchers.is(fingerprint));
+
+        // changed size of file in directory
+        Files.write(classFile.toPath(), new byte[]{1, 2, 3, 4});
+        byte[] changedDirectoryFingerprint = CompilationResultCache.computeClassPathFingerprint(classPath);
+        MatcherAssert.assertThat(changedDirectoryFingerprint, Matchers.not(fingerprint));
+
+        // changed last modification time of jar
+        MatcherAssert.assertThat(jar.setLastModified(jar.lastModified() + 10000L), Matchers.is(true));
+        MatcherAssert.assertThat(CompilationResultCache.computeClassPathFingerprint(classPath), Matchers.not(changedDirectoryFingerprint));
+
+    }
+
+    @Test
+    public void test_evict_shouldRemoveLeastRecentlyUsedResults() throws IOException {
+
+        File cacheDirectory = temporaryFolder.newFolder();
+        long lastModified = System.currentTimeMillis() - 100000L;
+        for (String name : new String[]{"old.bin", "recent.bin", "latest.bin"}) {
+            File cacheFile = new File(cacheDirectory, name);
+            Files.write(cacheFile.toPath(), new byte[100]);
+            MatcherAssert.assertThat(cacheFile.setLastModified(lastModified), Matchers.is(true));
+            lastModified += 10000L;
+        }
+        File otherFile = new File(cacheDirectory, "other.tmp");
+        Files.write(otherFile.toPath(), new byte[100]);
+
+        CompilationResultCache.evict(cacheDirectory.toPath(), 250L);
+
+        MatcherAssert.assertThat(cacheDirectory.list(), Matchers.arrayContainingInAnyOrder("recent.bin", "latest.bin", "other.tmp"));
+
+    }
+
+    @Test
+    public void test_isApplicable() {
+
+        MatcherAssert.assertThat(CompilationResultCache.isApplicable(createTest().createCompileTestConfiguration()), Matchers.is(true));
+        MatcherAssert.assertThat(CompilationResultCache.isApplicable(Cute.blackBoxTest().given().noProcessors().andSourceFiles("/TestClass.java").createCompileTestConfiguration()), Matchers.is(false));
+        MatcherAssert.assertThat(CompilationResultCache.isApplicable(Cute.unitTest().when(processingEnvironment -> {
+        }).createCompileTestConfiguration()), Matchers.is(false));
+
+    }
+
+}
@@ -0,0 +1,107 @@
+package io.toolisticon.cute;
+
+import io.toolisticon.cute.common.SimpleTestProcessor1;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Unit test for {@link CompilationTimings}.
+ */
+public class CompilationTimingsTest {
+
+    @Test
+    public void test_compilationOutcome_shouldProvideTimings() {
+
+        Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles("/compiletests/generatedclasstest/TestClass.java")
+                .whenCompiled()
+                .thenExpectThat().compilationSucceeds()
+                .executeTest()
+                .executeCustomAssertions(e -> {
+
+                    CompilationTimings compilationTimings = e.getCompilationTimings();
+
+                    MatcherAssert.assertThat(compilationTimings.getCompilationDuration().isZero(), Matchers.is(false));
+                    MatcherAssert.assertThat(compilationTimings.getFileManagerSetupDuration().isZero(), Matchers.is(false));
+                    MatcherAssert.assertThat(compilationTimings.getCompilerPhaseDurations().keySet(), Matchers.hasItems("PARSE", "ENTER", "ANALYZE", "ANNOTATION_PROCESSING"));
+                    MatcherAssert.assertThat(compilationTimings.getAssertionDuration(), Matchers.notNullValue());
+
+                    MatcherAssert.assertThat(compilationTimings.getProcessorTimings(), Matchers.hasSize(1));
+                    CompilationTimings.ProcessorTimings processorTimings = compilationTimings.getProcessorTimings().get(0);
+                    MatcherAssert.assertThat(processorTimings.getProcessorClassName(), Matchers.is(SimpleTestProcessor1.class.getName()));
+                    MatcherAssert.assertThat(processorTimings.getRoundDurations().size(), Matchers.greaterThanOrEqualTo(2));
+
+                });
+
+    }
+
+    @Test
+    public void test_failingAssertion_shouldReportAssertionTimeInDebugOutput() {
+
+        try {
+
+            Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                    .andSourceFiles("/compiletests/generatedclasstest/TestClass.java")
+                    .whenCompiled()
+                    .thenExpectThat().compilationFails()
+                    .executeTest();
+
+        } catch (AssertionError e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("Assertions : "));
+            return;
+        }
+
+        throw new AssertionError("Expected AssertionError to be thrown");
+
+    }
+
+    @Test
+    public void test_add() {
+
+        CompilationTimings first = new CompilationTimings();
+        first.addFileManagerSetupNanos(1L);
+        first.addCompilationNanos(10L);
+        first.addCompilerPhaseNanos("PARSE", 2L);
+        first.addProcessorTimings(new CompilationTimings.ProcessorTimings("A", Duration.ofNanos(1L), Collections.singletonList(Duration.ofNanos(3L))));
+
+        CompilationTimings second = new CompilationTimings();
+        second.addFileManagerSetupNanos(2L);
+        second.addCompilationNanos(20L);
+        second.addCompilerPhaseNanos("PARSE", 3L);
+        second.addCompilerPhaseNanos("GENERATE", 4L);
+        second.addProcessorTimings(new CompilationTimings.ProcessorTimings("B", Duration.ZERO, Arrays.asList(Duration.ofNanos(1L), Duration.ofNanos(2L))));
+
+        first.add(second);
+
+        MatcherAssert.assertThat(first.getFileManagerSetupDuration(), Matchers.is(Duration.ofNanos(3L)));
+        MatcherAssert.assertThat(first.getCompilationDuration(), Matchers.is(Duration.ofNanos(30L)));
+        MatcherAssert.assertThat(first.getCompilerPhaseDurations().get("PARSE"), Matchers.is(Duration.ofNanos(5L)));
+        MatcherAssert.assertThat(first.getCompilerPhaseDurations().get("GENERATE"), Matchers.is(Duration.ofNanos(4L)));
+        MatcherAssert.assertThat(first.getProcessorTimings(), Matchers.hasSize(2));
+        MatcherAssert.assertThat(first.getProcessorTimings().get(1).getTotalDuration(), Matchers.is(Duration.ofNanos(3L)));
+        MatcherAssert.assertThat(first.getAssertionDuration(), Matchers.nullValue());
+
+    }
+
+    @Test
+    public void test_toString() {
+
+        CompilationTimings compilationTimings = new CompilationTimings();
+        compilationTimings.addCompilerPhaseNanos("PARSE", 2000000L);
+        compilationTimings.addProcessorTimings(new CompilationTimings.ProcessorTimings("a.Processor", Duration.ZERO, Collections.singletonList(Duration.ofMillis(3L))));
+        compilationTimings.setAssertionNanos(1000000L);
+
+        String result = compilationTimings.toString();
+        MatcherAssert.assertThat(result, Matchers.containsString("PARSE : "));
+        MatcherAssert.assertThat(result, Matchers.containsString("Processor a.Processor : "));
+        MatcherAssert.assertThat(result, Matchers.containsString("round 1 : "));
+        MatcherAssert.assertThat(result, Matchers.containsString("Assertions : "));
+
+    }
+
+}
@@ -0,0 +1,235 @@
+package io.toolisticon.cute;
+
+import com.sun.source.util.Trees;
+import io.toolisticon.cute.common.SimpleTestProcessor1;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit test for {@link CompileTestBatch}.
+ */
+public class CompileTestBatchTest {
+
+    @Test
+    public void test_execute_shouldMapResultsToConfigurations() {
+
+        CuteApi.CompilerTestBB succeeding = Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles("/compiletests/generatedclasstest/TestClass.java")
+                .whenCompiled().thenExpectThat().compilationSucceeds()
+                .createCompileTestConfiguration();
+
+        CuteApi.CompilerTestBB failing = Cute.blackBoxTest().given().noProcessors()
+                .andSourceFiles("/compiletests/TestClass.java")
+                .whenCompiled().thenExpectThat().compilationFails()
+                .createCompileTestConfiguration();
+
+        CuteApi.CompilerTestBB unitTest = Cute.unitTest()
+                .when(processingEnvironment -> {
+                    // nothing to do
+                })
+                .createCompileTestConfiguration();
+
+        List<CompileTestBatch.BatchResult> results = CompileTestBatch.execute(Arrays.asList(succeeding, failing, unitTest), 2);
+
+        MatcherAssert.assertThat(results, Matchers.hasSize(3));
+
+        MatcherAssert.assertThat(results.get(0).getCompileTestConfiguration(), Matchers.sameInstance(succeeding));
+        MatcherAssert.assertThat(results.get(0).isSuccessful(), Matchers.is(true));
+        results.get(0).rethrowFailure();
+        results.get(0).executeCustomAssertions(e -> MatcherAssert.assertThat(e.getFileManager().getGeneratedSourceFile("io.toolisticon.cute.testhelper.compiletest.TestClassGeneratedClass").isPresent(), Matchers.is(true)));
+
+        MatcherAssert.assertThat(results.get(1).getCompileTestConfiguration(), Matchers.sameInstance(failing));
+        MatcherAssert.assertThat(results.get(1).isSuccessful(), Matchers.is(false));
+        MatcherAssert.assertThat(results.get(1).getFailure(), Matchers.instanceOf(AssertionError.class));
+        MatcherAssert.assertThat(results.get(1).getFailure().getMessage(), Matchers.containsString(Constants.Messages.MESSAGE_COMPILATION_SHOULD_HAVE_FAILED_BUT_SUCCEEDED.produceMessage()));
+
+        MatcherAssert.assertThat(results.get(2).isSuccessful(), Matchers.is(true));
+
+    }
+
+    @Test(expected = AssertionError.class)
+    public void test_executeCustomAssertions_shouldRethrowFailure() {
+
+        CuteApi.CompilerTestBB failing = Cute.blackBoxTest().given().noProcessors()
+                .andSourceFiles("/compiletests/TestClass.java")
+                .whenCompiled().thenExpectThat().compilationFails()
+                .createCompileTestConfiguration();
+
+        CompileTestBatch.execute(Collections.singletonList(failing)).get(0).executeCustomAssertions(e -> {
+        });
+
+    }
+
+    @Test
+    public void test_execute_withEmptyConfigurations() {
+
+        MatcherAssert.assertThat(CompileTestBatch.execute(Collections.emptyList()), Matchers.empty());
+        MatcherAssert.assertThat(CompileTestBatch.execute(null), Matchers.empty());
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_execute_withInvalidParallelism() {
+
+        CompileTestBatch.execute(Collections.singletonList(Cute.unitTest().when(processingEnvironment -> {
+        }).createCompileTestConfiguration()), 0);
+
+    }
+
+
+    @Test
+    public void test_executeWithSharedCompilations_shouldIsolateUnitTests() {
+
+        CuteApi.CompilerTestBB printingNote = Cute.unitTest()
+                .when(processingEnvironment -> processingEnvironment.getMessager().printMessage(Diagnostic.Kind.NOTE, "FIRST"))
+                .thenExpectThat().compilationSucceeds()
+                .andThat().compilerMessage().ofKindNote().equals("FIRST")
+                .createCompileTestConfiguration();
+
+        CuteApi.CompilerTestBB printingWarning = Cute.unitTest()
+                .when(processingEnvironment -> processingEnvironment.getMessager().printMessage(Diagnostic.Kind.WARNING, "SECOND"))
+                .thenExpectThat().compilationSucceeds()
+                .andThat().compilerMessage().ofKindWarning().equals("SECOND")
+                .createCompileTestConfiguration();
+
+        CuteApi.CompilerTestBB failing = Cute.unitTest()
+                .when(processingEnvironment -> {
+                    throw new AssertionError("THIRD");
+                })
+                .createCompileTestConfiguration();
+
+        CuteApi.CompilerTestBB blackBoxTest = Cute.blackBoxTest().given().noProcessors()
+                .andSourceFiles("/compiletests/TestClass.java")
+                .whenCompiled().thenExpectThat().compilationSucceeds()
+                .createCompileTestConfiguration();
+
+        List<CompileTestBatch.BatchResult> results = CompileTestBatch.executeWithSharedCompilations(Arrays.asList(printingNote, printingWarning, failing, blackBoxTest));
+
+        MatcherAssert.assertThat(results, Matchers.hasSize(4));
+
+        MatcherAssert.assertThat(results.get(0).isSuccessful(), Matchers.is(true));
+        results.get(0).executeCustomAssertions(e -> MatcherAssert.assertThat(e.getCompilerMessages().stream().map(CuteApi.CompilerMessage::getMessage).collect(Collectors.toList()), Matchers.not(Matchers.hasItem(Matchers.containsString("SECOND")))));
+
+        MatcherAssert.assertThat(results.get(1).isSuccessful(), Matchers.is(true));
+        results.get(1).executeCustomAssertions(e -> MatcherAssert.assertThat(e.getCompilerMessages().stream().map(CuteApi.CompilerMessage::getMessage).collect(Collectors.toList()), Matchers.not(Matchers.hasItem(Matchers.containsString("FIRST")))));
+
+        MatcherAssert.assertThat(results.get(2).isSuccessful(), Matchers.is(false));
+        MatcherAssert.assertThat(results.get(2).getFailure(), Matchers.instanceOf(AssertionError.class));
+        MatcherAssert.assertThat(results.get(2).getFailure().getMessage(), Matchers.containsString("THIRD"));
+
+        MatcherAssert.assertThat(results.get(3).isSuccessful(), Matchers.is(true));
+
+    }
+
+    @Test
+    public void test_executeWithSharedCompilations_shouldFallBackToSeparateCompilationsForErrors() {
+
+        CuteApi.CompilerTestBB printingError = Cute.unitTest()
+                .when(processingEnvironment -> processingEnvironment.getMessager().printMessage(Diagnostic.Kind.ERROR, "ERROR"))
+                .thenExpectThat().compilationFails()
+                .andThat().compilerMessage().ofKindError().equals("ERROR")
+                .createCompileTestConfiguration();
+
+        CuteApi.CompilerTestBB succeeding = Cute.unitTest()
+                .when(processingEnvironment -> processingEnvironment.getMessager().printMessage(Diagnostic.Kind.NOTE, "NOTE"))
+                .thenExpectThat().compilationSucceeds()
+                .createCompileTestConfiguration();
+
+        List<CompileTestBatch.BatchResult> results = CompileTestBatch.executeWithSharedCompilations(Arrays.asList(printingError, succeeding), 1);
+
+        results.forEach(CompileTestBatch.BatchResult::rethrowFailure);
+
+    }
+
+    @Test
+    public void test_executeWithSharedCompilations_shouldFallBackToSeparateCompilationsIfFilerIsUsed() {
+
+        CuteApi.CompilerTestBB generatingResource = Cute.unitTest()
+                .when(processingEnvironment -> {
+                    try {
+                        processingEnvironment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", "test.txt").openWriter().close();
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .thenExpectThat().compilationSucceeds()
+                .createCompileTestConfiguration();
+
+        List<CompileTestBatch.BatchResult> results = CompileTestBatch.executeWithSharedCompilations(Arrays.asList(generatingResource, generatingResource));
+
+        results.forEach(CompileTestBatch.BatchResult::rethrowFailure);
+
+    }
+
+    @Test
+    public void test_executeWithSharedCompilations_shouldFallBackToSeparateCompilationsForJavacSpecificApis() {
+
+        CuteApi.CompilerTestBB usingTrees = Cute.unitTest()
+                .when(processingEnvironment -> MatcherAssert.assertThat(Trees.instance(processingEnvironment), Matchers.notNullValue()))
+                .thenExpectThat().compilationSucceeds()
+                .createCompileTestConfiguration();
+
+        List<CompileTestBatch.BatchResult> results = CompileTestBatch.executeWithSharedCompilations(Arrays.asList(usingTrees, usingTrees));
+
+        results.forEach(CompileTestBatch.BatchResult::rethrowFailure);
+
+    }
+
+    @Test
+    public void test_executeWithSharedCompilations_shouldReportMandatoryWarningNotesToAllCompileTests() {
+
+        String source = "package io.toolisticon.cute;\n"
+                + "@TestAnnotation\n"
+                + "public class DeprecatedApiUsage {\n"
+                + "    java.util.Date date = new java.util.Date(2020, 1, 1);\n"
+                + "}";
+
+        CuteApi.CompilerTestBB withoutMessageChecks = Cute.unitTest().given().useSourceFile("io.toolisticon.cute.DeprecatedApiUsage", source)
+                .when().unitTestWithoutPassIn(processingEnvironment -> {
+                })
+                .thenExpectThat().compilationSucceeds()
+                .createCompileTestConfiguration();
+
+        CuteApi.CompilerTestBB checkingNotes = Cute.unitTest().given().useSourceFile("io.toolisticon.cute.DeprecatedApiUsage", source)
+                .when().unitTestWithoutPassIn(processingEnvironment -> {
+                })
+                .thenExpectThat().compilationSucceeds()
+                .andThat().compilerMessage().ofKindNote().contains("deprecated API")
+                .createCompileTestConfiguration();
+
+        MatcherAssert.assertThat(SharedCompilation.getGroupKey(withoutMessageChecks), Matchers.not(SharedCompilation.getGroupKey(checkingNotes)));
+
+        List<CompileTestBatch.BatchResult> results = CompileTestBatch.executeWithSharedCompilations(Arrays.asList(withoutMessageChecks, checkingNotes, checkingNotes));
+
+        results.forEach(CompileTestBatch.BatchResult::rethrowFailure);
+
+    }
+
+    @Test
+    public void test_sharedCompilation_groupKey() {
+
+        CuteApi.CompilerTestBB unitTest1 = Cute.unitTest().when(processingEnvironment -> {
+        }).createCompileTestConfiguration();
+        CuteApi.CompilerTestBB unitTest2 = Cute.unitTest().given().useCompilerOptions("-parameters").when().unitTestWithoutPassIn(processingEnvironment -> {
+        }).createCompileTestConfiguration();
+        CuteApi.CompilerTestBB blackBoxTest = Cute.blackBoxTest().given().noProcessors()
+                .andSourceFiles("/compiletests/TestClass.java")
+                .createCompileTestConfiguration();
+
+        MatcherAssert.assertThat(SharedCompilation.getGroupKey(unitTest1), Matchers.is(SharedCompilation.getGroupKey(Cute.unitTest().when(processingEnvironment -> {
+        }).createCompileTestConfiguration())));
+        MatcherAssert.assertThat(SharedCompilation.getGroupKey(unitTest1), Matchers.not(SharedCompilation.getGroupKey(unitTest2)));
+        MatcherAssert.assertThat(SharedCompilation.getGroupKey(blackBoxTest), Matchers.nullValue());
+
+    }
+
+}
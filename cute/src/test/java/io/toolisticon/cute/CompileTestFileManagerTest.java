@@ -9,11 +9,17 @@ import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardJavaFileManager;
 import javax.tools.StandardLocation;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.stream.IntStream;
 
 /**
  * Unit test for {@link CompileTestFileManager}.
@@ -52,6 +58,68 @@ public class CompileTestFileManagerTest {
 
     }
 
+    @Test
+    public void test_InMemoryOutputStream_shouldPublishContentSpanningMultipleChunks() throws IOException {
+
+        CompileTestFileManager.AbstractInMemoryOutputFileObject unit = new CompileTestFileManager.InMemoryOutputFileObject(StandardLocation.CLASS_OUTPUT, "io.toolisticon.cute", "abc");
+
+        byte[] expected = new byte[100000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (byte) i;
+        }
+
+        try (OutputStream outputStream = unit.openOutputStream()) {
+            outputStream.write(expected[0]);
+            for (int i = 1; i < expected.length; i += 777) {
+                outputStream.write(expected, i, Math.min(777, expected.length - i));
+            }
+        }
+
+        MatcherAssert.assertThat(unit.getContentLength(), Matchers.is(expected.length));
+        MatcherAssert.assertThat(Arrays.equals(unit.getContent(), expected), Matchers.is(true));
+
+        ByteBuffer byteBuffer = unit.getContentAsByteBuffer();
+        MatcherAssert.assertThat(byteBuffer.isReadOnly(), Matchers.is(true));
+        MatcherAssert.assertThat(byteBuffer.remaining(), Matchers.is(expected.length));
+
+        ByteArrayOutputStream readContent = new ByteArrayOutputStream();
+        try (InputStream inputStream = unit.openInputStream()) {
+            byte[] buffer = new byte[1000];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                readContent.write(buffer, 0, read);
+            }
+        }
+        MatcherAssert.assertThat(Arrays.equals(readContent.toByteArray(), expected), Matchers.is(true));
+
+    }
+
+    @Test
+    public void test_InMemoryOutputStream_contentShouldBeImmutableAfterPublishing() throws IOException {
+
+        CompileTestFileManager.AbstractInMemoryOutputFileObject unit = new CompileTestFileManager.InMemoryOutputFileObject(StandardLocation.CLASS_OUTPUT, "io.toolisticon.cute", "abc");
+
+        try (Writer writer = unit.openWriter()) {
+
+            writer.write("ABC");
+            writer.flush();
+
+            CharSequence publishedContent = unit.getCharContent(true);
+            ByteBuffer publishedBuffer = unit.getContentAsByteBuffer();
+
+            writer.write("DEF");
+            writer.flush();
+
+            MatcherAssert.assertThat(publishedContent.toString(), Matchers.is("ABC"));
+            MatcherAssert.assertThat(publishedBuffer.remaining(), Matchers.is(3));
+
+        }
+
+        MatcherAssert.assertThat(unit.getCharContent(true).toString(), Matchers.is("ABCDEF"));
+        MatcherAssert.assertThat(unit.getCharContent(true), Matchers.sameInstance(unit.getCharContent(false)));
+
+    }
+
     // ---------------------------------------------
     // -- test InMemoryOutputJavaFileObject
     // ---------------------------------------------
@@ -119,6 +187,50 @@ public class CompileTestFileManagerTest {
 
     }
 
+    @Test
+    public void test_FileObjectCache_indexedLookups() {
+
+        CompileTestFileManager.FileObjectCache<CompileTestFileManager.InMemoryOutputJavaFileObject> unit = new CompileTestFileManager.FileObjectCache<>();
+
+        CompileTestFileManager.InMemoryOutputJavaFileObject source = new CompileTestFileManager.InMemoryOutputJavaFileObject(StandardLocation.SOURCE_OUTPUT, "io.toolisticon.Test", JavaFileObject.Kind.SOURCE);
+        CompileTestFileManager.InMemoryOutputJavaFileObject clazz = new CompileTestFileManager.InMemoryOutputJavaFileObject(StandardLocation.CLASS_OUTPUT, "io.toolisticon.Test", JavaFileObject.Kind.CLASS);
+        CompileTestFileManager.InMemoryOutputJavaFileObject otherPackage = new CompileTestFileManager.InMemoryOutputJavaFileObject(StandardLocation.CLASS_OUTPUT, "io.Test", JavaFileObject.Kind.CLASS);
+
+        unit.addFileObject(StandardLocation.SOURCE_OUTPUT, CompileTestFileManager.pathForJavaFileObject("io.toolisticon.Test", JavaFileObject.Kind.SOURCE), source);
+        unit.addFileObject(StandardLocation.CLASS_OUTPUT, CompileTestFileManager.pathForJavaFileObject("io.toolisticon.Test", JavaFileObject.Kind.CLASS), clazz);
+        unit.addFileObject(StandardLocation.CLASS_OUTPUT, CompileTestFileManager.pathForJavaFileObject("io.Test", JavaFileObject.Kind.CLASS), otherPackage);
+
+        MatcherAssert.assertThat(unit.getFileObject(StandardLocation.SOURCE_OUTPUT, "io/toolisticon/Test.java"), Matchers.is(source));
+        MatcherAssert.assertThat(unit.getFileObject(StandardLocation.CLASS_OUTPUT, "io/toolisticon/Test.class"), Matchers.is(clazz));
+        MatcherAssert.assertThat(unit.getFileObject(StandardLocation.CLASS_OUTPUT, "io/toolisticon/Test.java"), Matchers.nullValue());
+        MatcherAssert.assertThat(unit.contains(StandardLocation.SOURCE_OUTPUT, "io/toolisticon/Test.class"), Matchers.is(false));
+        MatcherAssert.assertThat(unit.getFileObject(clazz.toUri()), Matchers.is(clazz));
+
+        MatcherAssert.assertThat(unit.getFileObjects(StandardLocation.CLASS_OUTPUT, "io.toolisticon"), Matchers.contains(clazz));
+        MatcherAssert.assertThat(unit.getFileObjects(StandardLocation.CLASS_OUTPUT, "io"), Matchers.contains(otherPackage));
+        MatcherAssert.assertThat(unit.getFileObjects(StandardLocation.CLASS_OUTPUT, "com"), Matchers.empty());
+        MatcherAssert.assertThat(unit.getFileObjects(JavaFileObject.Kind.CLASS), Matchers.containsInAnyOrder(clazz, otherPackage));
+        MatcherAssert.assertThat(unit.getFileObjects(JavaFileObject.Kind.SOURCE), Matchers.contains(source));
+        MatcherAssert.assertThat(unit.getEntries(), Matchers.hasSize(3));
+
+    }
+
+    @Test
+    public void test_FileObjectCache_concurrentAdds() {
+
+        CompileTestFileManager.FileObjectCache<CompileTestFileManager.InMemoryOutputFileObject> unit = new CompileTestFileManager.FileObjectCache<>();
+
+        IntStream.range(0, 1000).parallel().forEach(i -> {
+            CompileTestFileManager.InMemoryOutputFileObject fileObject = new CompileTestFileManager.InMemoryOutputFileObject(StandardLocation.CLASS_OUTPUT, "p" + (i % 10), "file" + i + ".txt");
+            unit.addFileObject(StandardLocation.CLASS_OUTPUT, CompileTestFileManager.pathForFileObject("p" + (i % 10), "file" + i + ".txt"), fileObject);
+        });
+
+        MatcherAssert.assertThat(unit.getEntries(), Matchers.hasSize(1000));
+        MatcherAssert.assertThat(unit.getFileObjects(StandardLocation.CLASS_OUTPUT, "p3"), Matchers.hasSize(100));
+        MatcherAssert.assertThat(unit.getFileObject(StandardLocation.CLASS_OUTPUT, "p3/file13.txt"), Matchers.notNullValue());
+
+    }
+
     // ---------------------------------------------
     // -- test CompileTestFileManager
     // ---------------------------------------------
@@ -0,0 +1,101 @@
+package io.toolisticon.cute;
+
+import io.toolisticon.cute.common.SimpleTestProcessor1;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit test for {@link CompileTestFuture}.
+ */
+public class CompileTestFutureTest {
+
+    private static CuteApi.CompilerTestExpectAndThatInterface succeeding() {
+        return Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles("/compiletests/generatedclasstest/TestClass.java")
+                .whenCompiled().thenExpectThat().compilationSucceeds();
+    }
+
+    private static CuteApi.CompilerTestExpectAndThatInterface failing() {
+        return Cute.blackBoxTest().given().noProcessors()
+                .andSourceFiles("/compiletests/TestClass.java")
+                .whenCompiled().thenExpectThat().compilationFails();
+    }
+
+    @Test
+    public void test_executeTestAsync_shouldProvideCustomAssertions() {
+
+        succeeding().executeTestAsync().join()
+                .executeCustomAssertions(e -> MatcherAssert.assertThat(e.getFileManager().getGeneratedSourceFile("io.toolisticon.cute.testhelper.compiletest.TestClassGeneratedClass").isPresent(), Matchers.is(true)));
+
+    }
+
+    @Test
+    public void test_executeTestAsync_shouldPassThroughAssertionErrorWhenJoined() {
+
+        CompletableFuture<CuteApi.DoCustomAssertions> future = failing().executeTestAsync();
+
+        boolean assertionErrorWasTriggered = false;
+        try {
+            future.join();
+        } catch (AssertionError e) {
+            assertionErrorWasTriggered = true;
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString(Constants.Messages.MESSAGE_COMPILATION_SHOULD_HAVE_FAILED_BUT_SUCCEEDED.produceMessage()));
+        }
+
+        MatcherAssert.assertThat("AssertionError should have been triggered", assertionErrorWasTriggered);
+        MatcherAssert.assertThat(future.isCompletedExceptionally(), Matchers.is(true));
+
+    }
+
+    @Test
+    public void test_executeTestAsync_getShouldKeepItsContract() throws InterruptedException {
+
+        try {
+            failing().executeTestAsync().get();
+        } catch (ExecutionException e) {
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(AssertionError.class));
+            return;
+        }
+
+        throw new IllegalStateException("ExecutionException should have been triggered");
+
+    }
+
+    @Test
+    public void test_executeTestAsync_shouldUsePassedExecutor() {
+
+        AtomicInteger executions = new AtomicInteger();
+        Executor executor = runnable -> {
+            executions.incrementAndGet();
+            new Thread(runnable).start();
+        };
+
+        List<CompletableFuture<CuteApi.DoCustomAssertions>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(succeeding().executeTestAsync(executor));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        MatcherAssert.assertThat(executions.get(), Matchers.is(4));
+
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void test_executeTestAsync_shouldFailIfExecutorRejectsTest() {
+
+        succeeding().executeTestAsync(runnable -> {
+            throw new RejectedExecutionException();
+        }).join();
+
+    }
+
+}
@@ -0,0 +1,230 @@
+package io.toolisticon.cute;
+
+import io.toolisticon.cute.common.SimpleTestProcessor1;
+import io.toolisticon.cute.extension.api.AssertionSpi;
+import io.toolisticon.cute.extension.api.ExtensionRegistry;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unit test for {@link CompileTest}.
+ */
+public class CompileTestTest {
+
+    private static final String GENERATED_CLASS_NAME = "io.toolisticon.cute.testhelper.compiletest.TestClassGeneratedClass";
+
+    private CuteApi.BlackBoxTestFinalGivenInterface given() {
+        return Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles("/compiletests/generatedclasstest/TestClass.java");
+    }
+
+    @Test
+    public void test_isClassFileGenerationNeeded() {
+
+        MatcherAssert.assertThat(CompileTest.isClassFileGenerationNeeded(given().whenCompiled().thenExpectThat().compilationSucceeds().createCompileTestConfiguration()), Matchers.is(false));
+        MatcherAssert.assertThat(CompileTest.isClassFileGenerationNeeded(given().whenCompiled().thenExpectThat().compilationSucceeds().andThat().generatedSourceFile(GENERATED_CLASS_NAME).exists().createCompileTestConfiguration()), Matchers.is(false));
+
+        MatcherAssert.assertThat(CompileTest.isClassFileGenerationNeeded(given().whenCompiled().thenExpectThat().compilationSucceeds().andThat().generatedClassesTestedSuccessfullyBy(cuteClassLoader -> {
+        }).createCompileTestConfiguration()), Matchers.is(true));
+        MatcherAssert.assertThat(CompileTest.isClassFileGenerationNeeded(given().whenCompiled().thenExpectThat().compilationSucceeds().andThat().generatedClass(GENERATED_CLASS_NAME).exists().createCompileTestConfiguration()), Matchers.is(true));
+        MatcherAssert.assertThat(CompileTest.isClassFileGenerationNeeded(given().andUseCompilerOptions("-Werror").whenCompiled().thenExpectThat().compilationSucceeds().createCompileTestConfiguration()), Matchers.is(true));
+
+        // deferred mandatory warning notes are only reported when class files are generated
+        MatcherAssert.assertThat(CompileTest.isClassFileGenerationNeeded(given().whenCompiled().thenExpectThat().compilationSucceeds().andThat().compilerMessage().ofKindNote().contains("deprecated").createCompileTestConfiguration()), Matchers.is(true));
+        MatcherAssert.assertThat(CompileTest.isClassFileGenerationNeeded(given().whenCompiled().thenExpectThat().compilationSucceeds().andThat().compilerMessage().ofKindWarning().contains("deprecated").createCompileTestConfiguration()), Matchers.is(true));
+        MatcherAssert.assertThat(CompileTest.isClassFileGenerationNeeded(given().whenCompiled().thenExpectThat().compilationSucceeds().andThat().compilerMessage().ofKindMandatoryWarning().contains("deprecated").createCompileTestConfiguration()), Matchers.is(true));
+        MatcherAssert.assertThat(CompileTest.isClassFileGenerationNeeded(given().whenCompiled().thenExpectThat().compilationFails().andThat().compilerMessage().ofKindError().contains("error").createCompileTestConfiguration()), Matchers.is(false));
+
+    }
+
+    @Test
+    public void test_appliedProcessorsShouldBeTrackedWithoutCompilerMessages() {
+
+        CompilationResult compilationResult = new CompileTest(given().whenCompiled().thenExpectThat().compilationSucceeds().createCompileTestConfiguration()).executeTest();
+
+        MatcherAssert.assertThat(compilationResult.getAppliedProcessors(), Matchers.contains(SimpleTestProcessor1.class.getName()));
+        MatcherAssert.assertThat(compilationResult.getDiagnosticsIndex().getEntries(Diagnostic.Kind.NOTE), Matchers.empty());
+
+    }
+
+    @Test
+    public void test_analyzeOnly_shouldNotGenerateClassFilesIfNotNeeded() {
+
+        CompilationResult compilationResult = new CompileTest(given().whenCompiled().thenExpectThat().compilationSucceeds().createCompileTestConfiguration()).executeTest();
+
+        MatcherAssert.assertThat(compilationResult.getCompilationSucceeded(), Matchers.is(true));
+        MatcherAssert.assertThat(compilationResult.getCompileTestFileManagerWithoutClassFileGeneration().getGeneratedJavaFileObjects(JavaFileObject.Kind.SOURCE), Matchers.hasSize(1));
+        MatcherAssert.assertThat(compilationResult.getCompileTestFileManagerWithoutClassFileGeneration().getGeneratedJavaFileObjects(JavaFileObject.Kind.CLASS), Matchers.empty());
+
+        // class files are generated on demand - accessing the file manager generates them
+        MatcherAssert.assertThat(compilationResult.getCompileTestFileManager().getGeneratedClasses().keySet(), Matchers.containsInAnyOrder("io.toolisticon.cute.testhelper.compiletest.TestClass", GENERATED_CLASS_NAME));
+
+    }
+
+    @Test
+    public void test_mandatoryWarningNotesShouldBeReportedWithoutClassChecks() {
+
+        Cute.blackBoxTest().given().noProcessors()
+                .andSourceFiles(JavaFileObjectUtils.readFromString("io.toolisticon.cute.DeprecatedUsage", "package io.toolisticon.cute;\npublic class DeprecatedUsage {\n    Object date = new java.util.Date(2020, 1, 1);\n    java.util.List list = new java.util.ArrayList();\n    { list.add(date); }\n}"))
+                .whenCompiled()
+                .thenExpectThat().compilationSucceeds()
+                .andThat().compilerMessage().ofKindNote().contains("deprecated API")
+                .andThat().compilerMessage().ofKindNote().contains("unchecked or unsafe operations")
+                .andThat().compilerMessage().ofKindNote().contains("Recompile with -Xlint")
+                .executeTest();
+
+    }
+
+    @Test
+    public void test_analyzeOnly_shouldProvideClassesViaCompilationOutcome() {
+
+        given().whenCompiled().thenExpectThat().compilationSucceeds()
+                .executeTest()
+                .executeCustomAssertions(e -> MatcherAssert.assertThat(e.getClassLoader().getClass(GENERATED_CLASS_NAME).getConstructor().newInstance(), Matchers.notNullValue()));
+
+    }
+
+    @Test
+    public void test_analyzeOnly_shouldDetectErrorsOfSourceFiles() {
+
+        Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles(JavaFileObjectUtils.readFromString("io.toolisticon.cute.InvalidClass", "package io.toolisticon.cute;\n@io.toolisticon.cute.common.SimpleTestAnnotation1\npublic class InvalidClass {\n    String field = 1;\n}"))
+                .whenCompiled()
+                .thenExpectThat().compilationFails()
+                .andThat().compilerMessage().ofKindError().atLine(4).contains("incompatible types")
+                .executeTest();
+
+    }
+
+    @Test
+    public void test_close_shouldBeOptionalForImplementationsOfDoCustomAssertions() {
+
+        List<CuteApi.CustomAssertion> executedCustomAssertions = new ArrayList<>();
+
+        try (CuteApi.DoCustomAssertions doCustomAssertions = executedCustomAssertions::add) {
+            doCustomAssertions.executeCustomAssertions(e -> {
+            });
+        }
+
+        MatcherAssert.assertThat(executedCustomAssertions, Matchers.hasSize(1));
+
+    }
+
+    @Test
+    public void test_close_shouldPreventFurtherAccessToFileManagerAndClassLoader() {
+
+        CuteApi.DoCustomAssertions doCustomAssertions;
+        try (CuteApi.DoCustomAssertions result = given().whenCompiled().thenExpectThat().compilationSucceeds().executeTest()) {
+
+            doCustomAssertions = result;
+            result.executeCustomAssertions(e -> {
+
+                MatcherAssert.assertThat(e.getFileManager(), Matchers.notNullValue());
+                e.close();
+
+                // snapshots remain accessible
+                MatcherAssert.assertThat(e.compilationWasSuccessful(), Matchers.is(true));
+                MatcherAssert.assertThat(e.getCompilerMessages(), Matchers.notNullValue());
+
+                try {
+                    e.getClassLoader();
+                    throw new IllegalStateException("IllegalStateException should have been triggered");
+                } catch (IllegalStateException exception) {
+                    MatcherAssert.assertThat(exception.getMessage(), Matchers.is(Constants.Messages.ISE_COMPILATION_OUTCOME_CLOSED.produceMessage()));
+                }
+
+            });
+
+        }
+
+        try {
+            doCustomAssertions.executeCustomAssertions(e -> {
+            });
+        } catch (IllegalStateException e) {
+            return;
+        }
+        throw new IllegalStateException("IllegalStateException should have been triggered");
+
+    }
+
+    @Test
+    public void test_close_shouldReleaseCompilerSessionOnlyOnce() {
+
+        CompilationResult compilationResult = CompileTest.compile(given().whenCompiled().thenExpectThat().compilationSucceeds().createCompileTestConfiguration(), Collections.emptySet());
+        int idleSessions = CompilerSessionPool.getInstance().getIdleSessionCount();
+
+        compilationResult.close();
+        compilationResult.close();
+
+        MatcherAssert.assertThat(compilationResult.isClosed(), Matchers.is(true));
+        MatcherAssert.assertThat(compilationResult.getCompilerSession(), Matchers.nullValue());
+        MatcherAssert.assertThat(CompilerSessionPool.getInstance().getIdleSessionCount(), Matchers.lessThanOrEqualTo(idleSessions + 1));
+
+    }
+
+    @Test
+    public void test_extensionRegistry_shouldCacheResolvedImplementation() {
+
+        MatcherAssert.assertThat(ExtensionRegistry.locateAssertionSpi(), Matchers.notNullValue());
+        MatcherAssert.assertThat(ExtensionRegistry.locateAssertionSpi(), Matchers.sameInstance(ExtensionRegistry.locateAssertionSpi()));
+
+    }
+
+    @Test
+    public void test_extensionRegistry_shouldUseOverriddenAssertionSpi() {
+
+        final List<String> failures = new ArrayList<>();
+        AssertionSpi assertionSpi = new AssertionSpi() {
+
+            @Override
+            public void fail(String message) {
+                failures.add(message);
+                throw new IllegalStateException(message);
+            }
+
+            @Override
+            public void fail(String message, Throwable cause) {
+                fail(message);
+            }
+
+            @Override
+            public Set<Class<? extends Throwable>> getSupportedAssertionTypes() {
+                return Collections.singleton(IllegalStateException.class);
+            }
+
+        };
+
+        ExtensionRegistry.override(AssertionSpi.class, assertionSpi);
+        try {
+
+            MatcherAssert.assertThat(ExtensionRegistry.locateAssertionSpi(), Matchers.sameInstance(assertionSpi));
+
+            try {
+                Cute.blackBoxTest().given().noProcessors()
+                        .andSourceFiles("/compiletests/TestClass.java")
+                        .whenCompiled().thenExpectThat().compilationFails()
+                        .executeTest();
+            } catch (IllegalStateException e) {
+                // expected
+            }
+
+            MatcherAssert.assertThat(failures, Matchers.hasSize(1));
+            MatcherAssert.assertThat(failures.get(0), Matchers.containsString(Constants.Messages.MESSAGE_COMPILATION_SHOULD_HAVE_FAILED_BUT_SUCCEEDED.produceMessage()));
+
+        } finally {
+            ExtensionRegistry.override(AssertionSpi.class, null);
+        }
+
+        MatcherAssert.assertThat(ExtensionRegistry.locateAssertionSpi(), Matchers.not(Matchers.sameInstance(assertionSpi)));
+
+    }
+
+}
@@ -0,0 +1,243 @@
+package io.toolisticon.cute;
+
+import io.toolisticon.cute.common.SimpleTestAnnotation1;
+import io.toolisticon.cute.common.SimpleTestProcessor1;
+import io.toolisticon.cute.common.SimpleTestProcessor1Interface;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unit test for {@link CompiledSourceFilesCache}.
+ */
+public class CompiledSourceFilesCacheTest {
+
+    @Before
+    public void init() {
+        CompiledSourceFilesCache.clear();
+    }
+
+    @Test
+    public void test_reuseCompiledSourceFiles_shouldCompileGeneratedSourceFilesAgainstCachedClasses() {
+
+        for (int i = 0; i < 2; i++) {
+
+            Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                    .andSourceFiles("/compiletests/generatedclasstest/TestClass.java")
+                    .andReuseCompiledSourceFiles()
+                    .whenCompiled()
+                    .thenExpectThat().compilationSucceeds()
+                    .andThat().generatedClass("io.toolisticon.cute.testhelper.compiletest.TestClass").exists()
+                    .andThat().generatedClass("io.toolisticon.cute.testhelper.compiletest.TestClassGeneratedClass").exists()
+                    .andThat().generatedClassesTestedSuccessfullyBy(cuteClassLoader -> {
+                        SimpleTestProcessor1Interface instance = (SimpleTestProcessor1Interface) cuteClassLoader.getClass("io.toolisticon.cute.testhelper.compiletest.TestClassGeneratedClass").getConstructor().newInstance();
+                        MatcherAssert.assertThat(instance.getOutput(), Matchers.is("WORKS!!!"));
+                    })
+                    .executeTest();
+
+            MatcherAssert.assertThat(CompiledSourceFilesCache.size(), Matchers.is(1));
+
+        }
+
+    }
+
+    /**
+     * Generates a source file with a raw type usage for classes annotated with {@link SimpleTestAnnotation1}.
+     */
+    public static class RawTypeGeneratingProcessor extends AbstractProcessor {
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+            for (Element element : roundEnv.getElementsAnnotatedWith(SimpleTestAnnotation1.class)) {
+
+                TypeElement typeElement = (TypeElement) element;
+                String packageName = processingEnv.getElementUtils().getPackageOf(typeElement).getQualifiedName().toString();
+                String simpleName = typeElement.getSimpleName() + "GeneratedClass";
+
+                try (Writer writer = processingEnv.getFiler().createSourceFile(typeElement.getQualifiedName() + "GeneratedClass", element).openWriter()) {
+                    writer.write("package " + packageName + ";\n"
+                            + "public class " + simpleName + " {\n"
+                            + "    java.util.List rawList;\n"
+                            + "}");
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+
+            }
+
+            return false;
+        }
+
+        @Override
+        public Set<String> getSupportedAnnotationTypes() {
+            return Collections.singleton(SimpleTestAnnotation1.class.getCanonicalName());
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+    }
+
+    @Test
+    public void test_reuseCompiledSourceFiles_shouldReportSameDiagnosticsAsRegularCompilation() {
+
+        JavaFileObject sourceFile = JavaFileObjectUtils.readFromString("io.toolisticon.cute.testhelper.compiletest.WarningTestClass",
+                "package io.toolisticon.cute.testhelper.compiletest;\n"
+                        + "@io.toolisticon.cute.common.SimpleTestAnnotation1(\"WORKS!!!\")\n"
+                        + "public class WarningTestClass {\n"
+                        + "    java.util.List rawList = new java.util.ArrayList();\n"
+                        + "    { rawList.add(\"unchecked\"); }\n"
+                        + "}");
+
+        List<String> expectedDiagnostics = getDiagnostics(Cute.blackBoxTest().given().processor(RawTypeGeneratingProcessor.class)
+                .andSourceFiles(sourceFile)
+                .andUseCompilerOptions("-Xlint:rawtypes")
+                .whenCompiled().thenExpectThat().compilationSucceeds()
+                .andThat().compilerMessage().ofKindNote().contains("unchecked or unsafe operations")
+                .createCompileTestConfiguration());
+
+        MatcherAssert.assertThat(expectedDiagnostics, Matchers.hasItem(Matchers.startsWith("WARNING:WarningTestClassGeneratedClass.java")));
+        MatcherAssert.assertThat(expectedDiagnostics, Matchers.hasItem(Matchers.startsWith("NOTE")));
+
+        for (int i = 0; i < 2; i++) {
+
+            List<String> diagnostics = getDiagnostics(Cute.blackBoxTest().given().processor(RawTypeGeneratingProcessor.class)
+                    .andSourceFiles(sourceFile)
+                    .andUseCompilerOptions("-Xlint:rawtypes")
+                    .andReuseCompiledSourceFiles()
+                    .whenCompiled().thenExpectThat().compilationSucceeds()
+                    .andThat().compilerMessage().ofKindNote().contains("unchecked or unsafe operations")
+                    .createCompileTestConfiguration());
+
+            MatcherAssert.assertThat(diagnostics, Matchers.is(expectedDiagnostics));
+            MatcherAssert.assertThat(CompiledSourceFilesCache.size(), Matchers.is(1));
+
+        }
+
+    }
+
+    private static List<String> getDiagnostics(CuteApi.CompilerTestBB compileTestConfiguration) {
+
+        CompilationResult compilationResult = CompileTest.compile(compileTestConfiguration, Collections.singleton(new RawTypeGeneratingProcessor()));
+        try {
+
+            MatcherAssert.assertThat(compilationResult.getCompilationSucceeded(), Matchers.is(true));
+
+            List<String> diagnostics = new ArrayList<>();
+            for (DiagnosticRecord diagnostic : compilationResult.getDiagnostics()) {
+                String source = diagnostic.getSource() != null ? diagnostic.getSource().getName().substring(diagnostic.getSource().getName().lastIndexOf('/') + 1) : "";
+                diagnostics.add(diagnostic.getKind() + ":" + source + ":" + diagnostic.getLineNumber() + ":" + diagnostic.getCode());
+            }
+            return diagnostics;
+
+        } finally {
+            compilationResult.releaseCompilerSession();
+        }
+
+    }
+
+    @Test
+    public void test_mergeDiagnostics_shouldDropDiagnosticsReportedByProcessingRun() {
+
+        DiagnosticRecord optionsWarning = createDiagnostic(Diagnostic.Kind.WARNING, Diagnostic.NOPOS, "compiler.warn.option.obsolete.source");
+        DiagnosticRecord processorWarning = createDiagnostic(Diagnostic.Kind.WARNING, Diagnostic.NOPOS, "compiler.warn.proc.messager");
+        DiagnosticRecord sourceFileWarning = createDiagnostic(Diagnostic.Kind.WARNING, 42L, "compiler.warn.raw.class.use");
+        DiagnosticRecord sourceFileNote = createDiagnostic(Diagnostic.Kind.NOTE, Diagnostic.NOPOS, "compiler.note.unchecked.filename");
+        DiagnosticRecord generatedSourceFileWarning = createDiagnostic(Diagnostic.Kind.WARNING, 43L, "compiler.warn.raw.class.use");
+
+        MatcherAssert.assertThat(CompiledSourceFilesCache.mergeDiagnostics(
+                        Arrays.asList(optionsWarning, processorWarning),
+                        Arrays.asList(optionsWarning, sourceFileWarning, sourceFileNote),
+                        Arrays.asList(optionsWarning, generatedSourceFileWarning)),
+                Matchers.contains(optionsWarning, processorWarning, sourceFileWarning, generatedSourceFileWarning, sourceFileNote));
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DiagnosticRecord createDiagnostic(Diagnostic.Kind kind, long position, String code) {
+
+        Diagnostic<JavaFileObject> diagnostic = Mockito.mock(Diagnostic.class);
+        Mockito.when(diagnostic.getKind()).thenReturn(kind);
+        Mockito.when(diagnostic.getPosition()).thenReturn(position);
+        Mockito.when(diagnostic.getCode()).thenReturn(code);
+        Mockito.when(diagnostic.getMessage(Mockito.any())).thenReturn(code);
+        return DiagnosticRecord.of(diagnostic);
+
+    }
+
+    @Test
+    public void test_compile_shouldReturnNullForSourceFilesThatCantBeCompiledWithoutProcessors() {
+
+        CuteApi.CompilerTestBB compileTestConfiguration = Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles("/BrokenTestClass.java")
+                .andReuseCompiledSourceFiles()
+                .createCompileTestConfiguration();
+
+        MatcherAssert.assertThat(CompiledSourceFilesCache.compile(compileTestConfiguration, Collections.singleton(new SimpleTestProcessor1())), Matchers.nullValue());
+        MatcherAssert.assertThat(CompiledSourceFilesCache.size(), Matchers.is(1));
+
+    }
+
+    @Test
+    public void test_isApplicable() {
+
+        CuteApi.CompilerTestBB reusing = Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles("/compiletests/generatedclasstest/TestClass.java")
+                .andReuseCompiledSourceFiles()
+                .createCompileTestConfiguration();
+        CuteApi.CompilerTestBB notReusing = Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles("/compiletests/generatedclasstest/TestClass.java")
+                .createCompileTestConfiguration();
+        CuteApi.CompilerTestBB procOnly = Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles("/compiletests/generatedclasstest/TestClass.java")
+                .andUseCompilerOptions("-proc:only")
+                .andReuseCompiledSourceFiles()
+                .createCompileTestConfiguration();
+
+        MatcherAssert.assertThat(CompiledSourceFilesCache.isApplicable(reusing, Collections.singleton(new SimpleTestProcessor1())), Matchers.is(true));
+        MatcherAssert.assertThat(CompiledSourceFilesCache.isApplicable(reusing, Collections.emptySet()), Matchers.is(false));
+        MatcherAssert.assertThat(CompiledSourceFilesCache.isApplicable(notReusing, Collections.singleton(new SimpleTestProcessor1())), Matchers.is(false));
+        MatcherAssert.assertThat(CompiledSourceFilesCache.isApplicable(procOnly, Collections.singleton(new SimpleTestProcessor1())), Matchers.is(false));
+
+    }
+
+    @Test
+    public void test_createKey_shouldDependOnCompilerOptions() {
+
+        CuteApi.CompilerTestBB first = Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles("/compiletests/generatedclasstest/TestClass.java")
+                .createCompileTestConfiguration();
+        CuteApi.CompilerTestBB second = Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles("/compiletests/generatedclasstest/TestClass.java")
+                .createCompileTestConfiguration();
+        CuteApi.CompilerTestBB withOptions = Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles("/compiletests/generatedclasstest/TestClass.java")
+                .andUseCompilerOptions("-parameters")
+                .createCompileTestConfiguration();
+
+        MatcherAssert.assertThat(CompiledSourceFilesCache.createKey(first), Matchers.is(CompiledSourceFilesCache.createKey(second)));
+        MatcherAssert.assertThat(CompiledSourceFilesCache.createKey(first), Matchers.not(CompiledSourceFilesCache.createKey(withOptions)));
+
+    }
+
+}
@@ -0,0 +1,95 @@
+package io.toolisticon.cute;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Unit test for {@link CompilerSessionPool}.
+ */
+public class CompilerSessionPoolTest {
+
+    @Test
+    public void test_sessionKey_equality() {
+
+        CompilerSessionPool.SessionKey key1 = new CompilerSessionPool.SessionKey("cp", Arrays.asList("a", "b"), Arrays.asList("-Xlint", "-parameters"));
+        CompilerSessionPool.SessionKey key2 = new CompilerSessionPool.SessionKey("cp", Arrays.asList("b", "a"), Arrays.asList("-Xlint", "-parameters"));
+
+        MatcherAssert.assertThat(key1, Matchers.is(key2));
+        MatcherAssert.assertThat(key1.hashCode(), Matchers.is(key2.hashCode()));
+
+        MatcherAssert.assertThat(key1, Matchers.not(new CompilerSessionPool.SessionKey("cp2", Arrays.asList("a", "b"), Arrays.asList("-Xlint", "-parameters"))));
+        MatcherAssert.assertThat(key1, Matchers.not(new CompilerSessionPool.SessionKey("cp", Collections.singletonList("a"), Arrays.asList("-Xlint", "-parameters"))));
+        MatcherAssert.assertThat(key1, Matchers.not(new CompilerSessionPool.SessionKey("cp", Arrays.asList("a", "b"), Arrays.asList("-parameters", "-Xlint"))));
+        MatcherAssert.assertThat(new CompilerSessionPool.SessionKey("cp", null, null), Matchers.is(new CompilerSessionPool.SessionKey("cp", Collections.emptySet(), Collections.emptyList())));
+
+    }
+
+    @Test
+    public void test_borrow_shouldReuseReleasedSessionWithSameKey() {
+
+        CompilerSessionPool unit = CompilerSessionPool.getInstance();
+        CompilerSessionPool.SessionKey key = new CompilerSessionPool.SessionKey("test_borrow_shouldReuseReleasedSessionWithSameKey", null, null);
+
+        CompilerSessionPool.CompilerSession session1 = unit.borrow(key, new DiagnosticCollector<>());
+        CompilerSessionPool.CompilerSession session2 = unit.borrow(key, new DiagnosticCollector<>());
+
+        MatcherAssert.assertThat(session1, Matchers.not(Matchers.sameInstance(session2)));
+
+        unit.release(session1);
+
+        MatcherAssert.assertThat(unit.borrow(key, new DiagnosticCollector<>()), Matchers.sameInstance(session1));
+
+        unit.discard(session1);
+        unit.discard(session2);
+
+    }
+
+    @Test
+    public void test_borrow_shouldNotShareSessionsWithDifferentKeys() {
+
+        CompilerSessionPool unit = CompilerSessionPool.getInstance();
+
+        CompilerSessionPool.CompilerSession session1 = unit.borrow(new CompilerSessionPool.SessionKey("test_borrow_shouldNotShareSessionsWithDifferentKeys", null, null), new DiagnosticCollector<>());
+        unit.release(session1);
+
+        CompilerSessionPool.CompilerSession session2 = unit.borrow(new CompilerSessionPool.SessionKey("test_borrow_shouldNotShareSessionsWithDifferentKeys", null, Collections.singletonList("-parameters")), new DiagnosticCollector<>());
+
+        MatcherAssert.assertThat(session2, Matchers.not(Matchers.sameInstance(session1)));
+
+        unit.discard(session2);
+
+    }
+
+    @Test
+    public void test_routingDiagnosticListener_shouldOnlyForwardToCurrentBorrower() {
+
+        CompilerSessionPool.RoutingDiagnosticListener unit = new CompilerSessionPool.RoutingDiagnosticListener();
+        DiagnosticCollector<JavaFileObject> collector1 = new DiagnosticCollector<>();
+        DiagnosticCollector<JavaFileObject> collector2 = new DiagnosticCollector<>();
+
+        @SuppressWarnings("unchecked")
+        Diagnostic<JavaFileObject> diagnostic = Mockito.mock(Diagnostic.class);
+
+        unit.setDelegate(collector1);
+        unit.report(diagnostic);
+
+        unit.setDelegate(collector2);
+        unit.report(diagnostic);
+
+        unit.setDelegate(null);
+        unit.report(diagnostic);
+
+        MatcherAssert.assertThat(collector1.getDiagnostics(), Matchers.hasSize(1));
+        MatcherAssert.assertThat(collector2.getDiagnostics(), Matchers.hasSize(1));
+
+    }
+
+}
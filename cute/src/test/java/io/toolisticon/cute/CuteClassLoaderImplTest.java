@@ -0,0 +1,109 @@
+package io.toolisticon.cute;
+
+import io.toolisticon.cute.common.SimpleTestProcessor1;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.URL;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unit test for {@link CuteClassLoaderImpl}.
+ */
+public class CuteClassLoaderImplTest {
+
+    @Test
+    public void test_convertJavaFileObjectNameToBinaryClassName() {
+
+        JavaFileObject javaFileObject = Mockito.mock(JavaFileObject.class);
+        Mockito.when(javaFileObject.getName()).thenReturn("/io/toolisticon/cute/Test$Inner.class");
+
+        MatcherAssert.assertThat(CuteClassLoaderImpl.convertJavaFileObjectNameToBinaryClassName(javaFileObject), Matchers.is("io.toolisticon.cute.Test$Inner"));
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_convertJavaFileObjectNameToBinaryClassName_invalidName() {
+
+        JavaFileObject javaFileObject = Mockito.mock(JavaFileObject.class);
+        Mockito.when(javaFileObject.getName()).thenReturn("/io/toolisticon/cute/Test.java");
+
+        CuteClassLoaderImpl.convertJavaFileObjectNameToBinaryClassName(javaFileObject);
+
+    }
+
+    @Test
+    public void test_classLoaderShouldBeSharedByAllChecks() {
+
+        AtomicReference<Class<?>> loadedClass = new AtomicReference<>();
+
+        Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles("/compiletests/generatedclasstest/TestClass.java")
+                .whenCompiled()
+                .thenExpectThat().compilationSucceeds()
+                .andThat().generatedClassesTestedSuccessfullyBy(cuteClassLoader -> loadedClass.set(cuteClassLoader.getClass("io.toolisticon.cute.testhelper.compiletest.TestClassGeneratedClass")))
+                .andThat().generatedClassesTestedSuccessfullyBy(cuteClassLoader -> MatcherAssert.assertThat(cuteClassLoader.getClass("io.toolisticon.cute.testhelper.compiletest.TestClassGeneratedClass"), Matchers.sameInstance(loadedClass.get())))
+                .andThat().generatedClass("io.toolisticon.cute.testhelper.compiletest.TestClassGeneratedClass").testedSuccessfullyBy((clazz, cuteClassLoader) -> MatcherAssert.assertThat(clazz, Matchers.sameInstance(loadedClass.get())))
+                .executeTest()
+                .executeCustomAssertions(e -> MatcherAssert.assertThat(e.getClassLoader().getClass("io.toolisticon.cute.testhelper.compiletest.TestClassGeneratedClass"), Matchers.sameInstance(loadedClass.get())));
+
+    }
+
+    @Test
+    public void test_getResource_shouldFindGeneratedResources() {
+
+        Cute.unitTest()
+                .when(processingEnvironment -> {
+                    try {
+                        FileObject fileObject = processingEnvironment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "io.toolisticon.cute", "test.txt");
+                        try (Writer writer = fileObject.openWriter()) {
+                            writer.write("RESOURCE");
+                        }
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .thenExpectThat().compilationSucceeds()
+                .executeTest()
+                .executeCustomAssertions(e -> {
+
+                    CuteClassLoader cuteClassLoader = e.getClassLoader();
+
+                    URL url = cuteClassLoader.getResource("io/toolisticon/cute/test.txt");
+                    MatcherAssert.assertThat(url, Matchers.notNullValue());
+                    MatcherAssert.assertThat(cuteClassLoader.getResource("io/toolisticon/cute/unknown.txt"), Matchers.nullValue());
+
+                    try {
+                        MatcherAssert.assertThat(readFully(url), Matchers.is("RESOURCE"));
+                        MatcherAssert.assertThat(Collections.list(cuteClassLoader.getResources("io/toolisticon/cute/test.txt")), Matchers.hasSize(1));
+                    } catch (IOException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+
+                });
+
+    }
+
+    private static String readFully(URL url) throws IOException {
+        try (InputStream inputStream = url.openStream()) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+            return new String(outputStream.toByteArray());
+        }
+    }
+
+}
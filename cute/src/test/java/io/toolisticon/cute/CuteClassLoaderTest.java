@@ -0,0 +1,27 @@
+package io.toolisticon.cute;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Unit test for {@link CuteClassLoader}.
+ */
+public class CuteClassLoaderTest {
+
+    @Test
+    public void test_defaultMethods_shouldFindNoResourcesForImplementationsThatAreNoClassLoaders() throws IOException {
+
+        CuteClassLoader unit = binaryClassName -> {
+            throw new ClassNotFoundException(binaryClassName);
+        };
+
+        MatcherAssert.assertThat(unit.getResource("META-INF/MANIFEST.MF"), Matchers.nullValue());
+        MatcherAssert.assertThat(Collections.list(unit.getResources("META-INF/MANIFEST.MF")), Matchers.empty());
+
+    }
+
+}
@@ -0,0 +1,160 @@
+package io.toolisticon.cute;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Locale;
+
+/**
+ * Unit test for {@link DiagnosticRecord}.
+ */
+public class DiagnosticRecordTest {
+
+    @SuppressWarnings("unchecked")
+    private static Diagnostic<JavaFileObject> createDiagnostic(JavaFileObject source) {
+
+        Diagnostic<JavaFileObject> diagnostic = Mockito.mock(Diagnostic.class);
+        Mockito.when(diagnostic.getKind()).thenReturn(Diagnostic.Kind.ERROR);
+        Mockito.when(diagnostic.getSource()).thenReturn(source);
+        Mockito.when(diagnostic.getLineNumber()).thenReturn(3L);
+        Mockito.when(diagnostic.getColumnNumber()).thenReturn(7L);
+        Mockito.when(diagnostic.getPosition()).thenReturn(42L);
+        Mockito.when(diagnostic.getCode()).thenReturn("compiler.err.some.error");
+        Mockito.when(diagnostic.getMessage(Mockito.any())).thenReturn("DEFAULT");
+        Mockito.when(diagnostic.getMessage(Locale.ENGLISH)).thenReturn("ENGLISH");
+        Mockito.when(diagnostic.getMessage(Locale.GERMAN)).thenReturn("GERMAN");
+        return diagnostic;
+
+    }
+
+    @Test
+    public void test_of_shouldSnapshotRequestedLocales() {
+
+        Diagnostic<JavaFileObject> diagnostic = createDiagnostic(null);
+
+        DiagnosticRecord unit = DiagnosticRecord.of(diagnostic, Collections.singleton(Locale.GERMAN));
+        Mockito.reset(diagnostic);
+
+        MatcherAssert.assertThat(unit.getKind(), Matchers.is(Diagnostic.Kind.ERROR));
+        MatcherAssert.assertThat(unit.getCode(), Matchers.is("compiler.err.some.error"));
+        MatcherAssert.assertThat(unit.getLineNumber(), Matchers.is(3L));
+        MatcherAssert.assertThat(unit.getColumnNumber(), Matchers.is(7L));
+        MatcherAssert.assertThat(unit.getPosition(), Matchers.is(42L));
+        MatcherAssert.assertThat(unit.getMessage(null), Matchers.is("DEFAULT"));
+        MatcherAssert.assertThat(unit.getMessage(Locale.ENGLISH), Matchers.is("ENGLISH"));
+        MatcherAssert.assertThat(unit.getMessage(Locale.GERMAN), Matchers.is("GERMAN"));
+
+        Mockito.verifyZeroInteractions(diagnostic);
+
+    }
+
+    @Test
+    public void test_getMessage_shouldUseDefaultMessageForDefaultLocale() {
+
+        Locale defaultLocale = Locale.getDefault();
+        try {
+
+            Locale.setDefault(Locale.ITALIAN);
+            DiagnosticRecord unit = DiagnosticRecord.of(createDiagnostic(null));
+
+            MatcherAssert.assertThat(unit.getMessage(Locale.ITALIAN), Matchers.is("DEFAULT"));
+
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+
+    }
+
+    @Test
+    public void test_getMessage_shouldFailForLocalesNotStoredInSnapshot() {
+
+        DiagnosticRecord unit = DiagnosticRecord.of(createDiagnostic(null), Collections.singleton(Locale.GERMAN));
+
+        try {
+            unit.getMessage(Locale.FRENCH);
+        } catch (IllegalArgumentException e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.is(Constants.Messages.IAE_COMPILER_MESSAGE_NOT_AVAILABLE_FOR_LOCALE.produceMessage(Locale.FRENCH)));
+            return;
+        }
+
+        throw new AssertionError("IllegalArgumentException should have been triggered");
+
+    }
+
+    @Test
+    public void test_of_shouldReuseRecord() {
+
+        DiagnosticRecord diagnosticRecord = DiagnosticRecord.of(createDiagnostic(null), Collections.singleton(Locale.GERMAN));
+
+        MatcherAssert.assertThat(DiagnosticRecord.of(diagnosticRecord, Collections.singleton(Locale.GERMAN)), Matchers.sameInstance(diagnosticRecord));
+
+        // missing locales can't be added to a snapshot
+        MatcherAssert.assertThat(DiagnosticRecord.of(diagnosticRecord, Collections.singleton(Locale.FRENCH)), Matchers.sameInstance(diagnosticRecord));
+
+    }
+
+    @Test
+    public void test_of_shouldKeepSourcesProvidedByCute() {
+
+        JavaFileObject source = JavaFileObjectUtils.readFromString("io.toolisticon.cute.Test", "package io.toolisticon.cute; class Test {}");
+
+        MatcherAssert.assertThat(DiagnosticRecord.of(createDiagnostic(source)).getSource(), Matchers.sameInstance(source));
+
+    }
+
+    @Test
+    public void test_of_shouldDetachOtherSources() {
+
+        JavaFileObject source = Mockito.mock(JavaFileObject.class);
+        Mockito.when(source.toUri()).thenReturn(URI.create("file:///Test.class"));
+        Mockito.when(source.getName()).thenReturn("/Test.class");
+
+        JavaFileObject detachedSource = DiagnosticRecord.of(createDiagnostic(source)).getSource();
+
+        MatcherAssert.assertThat(detachedSource, Matchers.instanceOf(DiagnosticRecord.DetachedSourceFileObject.class));
+        MatcherAssert.assertThat(detachedSource.toUri(), Matchers.is(URI.create("file:///Test.class")));
+        MatcherAssert.assertThat(detachedSource.getName(), Matchers.is("/Test.class"));
+
+    }
+
+    @Test
+    public void test_withMappedMessages() {
+
+        DiagnosticRecord unit = DiagnosticRecord.of(createDiagnostic(null)).withMappedMessages(String::toLowerCase);
+
+        MatcherAssert.assertThat(unit.getMessage(null), Matchers.is("default"));
+        MatcherAssert.assertThat(unit.getMessage(Locale.ENGLISH), Matchers.is("english"));
+        MatcherAssert.assertThat(unit.getLineNumber(), Matchers.is(3L));
+
+    }
+
+    @Test
+    public void test_compilationResult_shouldOnlyKeepSnapshots() {
+
+        CuteApi.CompilerTestBB compileTestConfiguration = Cute.blackBoxTest().given().noProcessors()
+                .andSourceFiles(JavaFileObjectUtils.readFromString("io.toolisticon.cute.InvalidClass", "package io.toolisticon.cute; public class InvalidClass { String field = 1; }"))
+                .whenCompiled().thenExpectThat().compilationFails()
+                .andThat().compilerMessage().ofKindError().withLocale(Locale.GERMAN).contains("")
+                .createCompileTestConfiguration();
+
+        CompilationResult compilationResult = CompileTest.compile(compileTestConfiguration, Collections.emptySet());
+        try {
+
+            MatcherAssert.assertThat(compilationResult.getDiagnostics(), Matchers.not(Matchers.empty()));
+            for (DiagnosticRecord diagnosticRecord : compilationResult.getDiagnostics()) {
+                MatcherAssert.assertThat(diagnosticRecord.getMessages().keySet(), Matchers.containsInAnyOrder(null, Locale.ENGLISH, Locale.GERMAN));
+            }
+
+        } finally {
+            compilationResult.releaseCompilerSession();
+        }
+
+    }
+
+}
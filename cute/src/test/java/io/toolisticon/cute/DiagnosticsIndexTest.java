@@ -0,0 +1,95 @@
+package io.toolisticon.cute;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+
+/**
+ * Unit test for {@link DiagnosticsIndex}.
+ */
+public class DiagnosticsIndexTest {
+
+    @SuppressWarnings("unchecked")
+    private static Diagnostic<JavaFileObject> createDiagnostic(Diagnostic.Kind kind, String sourceName, long line, String message) {
+
+        JavaFileObject source = null;
+        if (sourceName != null) {
+            source = Mockito.mock(JavaFileObject.class);
+            Mockito.when(source.getName()).thenReturn(sourceName);
+        }
+
+        Diagnostic<JavaFileObject> diagnostic = Mockito.mock(Diagnostic.class);
+        Mockito.when(diagnostic.getKind()).thenReturn(kind);
+        Mockito.when(diagnostic.getSource()).thenReturn(source);
+        Mockito.when(diagnostic.getLineNumber()).thenReturn(line);
+        Mockito.when(diagnostic.getMessage(Mockito.any())).thenReturn(message);
+        return diagnostic;
+
+    }
+
+    @Test
+    public void test_getEntries_byKindSourceAndLine() {
+
+        Diagnostic<JavaFileObject> error1 = createDiagnostic(Diagnostic.Kind.ERROR, "/A.java", 1L, "ERROR 1");
+        Diagnostic<JavaFileObject> error2 = createDiagnostic(Diagnostic.Kind.ERROR, "/B.java", 1L, "ERROR 2");
+        Diagnostic<JavaFileObject> error3 = createDiagnostic(Diagnostic.Kind.ERROR, "/A.java", 5L, "ERROR 3");
+        Diagnostic<JavaFileObject> note = createDiagnostic(Diagnostic.Kind.NOTE, null, -1L, "NOTE");
+
+        DiagnosticsIndex unit = new DiagnosticsIndex(Arrays.asList(error1, error2, error3, note));
+
+        MatcherAssert.assertThat(unit.getEntries(), Matchers.hasSize(4));
+        MatcherAssert.assertThat(unit.getEntries(Diagnostic.Kind.ERROR), Matchers.hasSize(3));
+        MatcherAssert.assertThat(unit.getEntries(Diagnostic.Kind.ERROR, "/A.java", null), Matchers.hasSize(2));
+        MatcherAssert.assertThat(unit.getEntries(Diagnostic.Kind.ERROR, null, 1L), Matchers.hasSize(2));
+        MatcherAssert.assertThat(unit.getEntries(Diagnostic.Kind.ERROR, "/A.java", 5L).get(0).getDiagnostic(), Matchers.sameInstance(error3));
+        MatcherAssert.assertThat(unit.getEntries(Diagnostic.Kind.ERROR, "/C.java", null), Matchers.empty());
+        MatcherAssert.assertThat(unit.getEntries(Diagnostic.Kind.WARNING), Matchers.empty());
+
+        MatcherAssert.assertThat(unit.getEntries(Diagnostic.Kind.NOTE).get(0).getSourceName(), Matchers.nullValue());
+        MatcherAssert.assertThat(unit.getEntries(Diagnostic.Kind.NOTE, "/A.java", null), Matchers.empty());
+
+    }
+
+    @Test
+    public void test_getMessages_shouldUseMessagesOfDiagnosticRecords() {
+
+        Diagnostic<JavaFileObject> error = createDiagnostic(Diagnostic.Kind.ERROR, null, 1L, "ERROR");
+        Mockito.when(error.getMessage(Locale.GERMAN)).thenReturn("FEHLER");
+
+        DiagnosticsIndex unit = new DiagnosticsIndex(Collections.singletonList(DiagnosticRecord.of(error, Collections.singleton(Locale.GERMAN))));
+        Mockito.reset(error);
+
+        MatcherAssert.assertThat(unit.getMessages(Diagnostic.Kind.ERROR, null), Matchers.contains("ERROR"));
+        MatcherAssert.assertThat(unit.getMessages(Diagnostic.Kind.ERROR, Locale.ENGLISH), Matchers.contains("ERROR"));
+        MatcherAssert.assertThat(unit.getMessages(Diagnostic.Kind.ERROR, Locale.GERMAN), Matchers.contains("FEHLER"));
+        MatcherAssert.assertThat(unit.getMessages(Diagnostic.Kind.NOTE, null), Matchers.empty());
+
+        Mockito.verifyZeroInteractions(error);
+
+    }
+
+    @Test
+    public void test_getCompilerMessages_shouldBeCreatedOnce() {
+
+        Diagnostic<JavaFileObject> error = createDiagnostic(Diagnostic.Kind.ERROR, null, 3L, "ERROR");
+
+        DiagnosticsIndex unit = new DiagnosticsIndex(Collections.singletonList(error));
+
+        MatcherAssert.assertThat(unit.getCompilerMessages(), Matchers.sameInstance(unit.getCompilerMessages()));
+
+        CuteApi.CompilerMessage compilerMessage = unit.getCompilerMessages().get(0);
+        MatcherAssert.assertThat(compilerMessage.getKind(), Matchers.is(Diagnostic.Kind.ERROR));
+        MatcherAssert.assertThat(compilerMessage.getSource(), Matchers.nullValue());
+        MatcherAssert.assertThat(compilerMessage.getLineNumber(), Matchers.is(3L));
+        MatcherAssert.assertThat(compilerMessage.getMessage(), Matchers.is("ERROR"));
+
+    }
+
+}
@@ -0,0 +1,170 @@
+package io.toolisticon.cute;
+
+import io.toolisticon.cute.common.SimpleTestProcessor1;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.util.Set;
+
+/**
+ * Unit test for {@link FailFastDiagnosticListener}.
+ */
+public class FailFastDiagnosticListenerTest {
+
+    private static final JavaFileObject INVALID_SOURCE = JavaFileObjectUtils.readFromString("io.toolisticon.cute.InvalidClass",
+            "package io.toolisticon.cute;\n"
+                    + "@io.toolisticon.cute.common.SimpleTestAnnotation1\n"
+                    + "public class InvalidClass {\n"
+                    + "    String field1 = 1;\n"
+                    + "    String field2 = 2;\n"
+                    + "}");
+
+    @SupportedAnnotationTypes("*")
+    public static class ErrorPrintingProcessor extends AbstractProcessor {
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+            if (!roundEnv.processingOver()) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "FIRST ERROR");
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "SECOND ERROR");
+            }
+            return false;
+        }
+
+    }
+
+    private static CompilationResult compile(CuteApi.CompilerTestBB compileTestConfiguration) {
+        return CompileTest.compile(compileTestConfiguration, new CompileTest(compileTestConfiguration).getWrappedAnnotationProcessors());
+    }
+
+    @Test
+    public void test_shouldAbortAtFirstErrorIfCompilationIsExpectedToSucceed() {
+
+        CompilationResult compilationResult = compile(Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles(INVALID_SOURCE)
+                .andFailFast()
+                .whenCompiled().thenExpectThat().compilationSucceeds()
+                .createCompileTestConfiguration());
+
+        try {
+            MatcherAssert.assertThat(compilationResult.isCompilationAborted(), Matchers.is(true));
+            MatcherAssert.assertThat(compilationResult.getCompilationSucceeded(), Matchers.is(false));
+            MatcherAssert.assertThat(compilationResult.getDiagnosticsIndex().getEntries(Diagnostic.Kind.ERROR), Matchers.hasSize(1));
+        } finally {
+            compilationResult.releaseCompilerSession();
+        }
+
+    }
+
+    @Test
+    public void test_shouldReportAllErrorsWithoutFailFast() {
+
+        CompilationResult compilationResult = compile(Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles(INVALID_SOURCE)
+                .whenCompiled().thenExpectThat().compilationSucceeds()
+                .createCompileTestConfiguration());
+
+        try {
+            MatcherAssert.assertThat(compilationResult.isCompilationAborted(), Matchers.is(false));
+            MatcherAssert.assertThat(compilationResult.getDiagnosticsIndex().getEntries(Diagnostic.Kind.ERROR), Matchers.hasSize(2));
+        } finally {
+            compilationResult.releaseCompilerSession();
+        }
+
+    }
+
+    @Test
+    public void test_shouldFailWithErrorsOfAbortedCompilation() {
+
+        boolean assertionErrorWasTriggered = false;
+        try {
+
+            Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                    .andSourceFiles(INVALID_SOURCE)
+                    .andFailFast()
+                    .whenCompiled().thenExpectThat().compilationSucceeds()
+                    .executeTest();
+
+        } catch (AssertionError e) {
+            assertionErrorWasTriggered = true;
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("incompatible types"));
+        }
+
+        MatcherAssert.assertThat("AssertionError should have been triggered", assertionErrorWasTriggered);
+
+    }
+
+    @Test
+    public void test_shouldAbortIfAllExpectedMessagesHaveBeenFound() {
+
+        CuteApi.CompilerTestBB compileTestConfiguration = Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles(INVALID_SOURCE)
+                .andFailFast()
+                .whenCompiled().thenExpectThat().compilationFails()
+                .andThat().compilerMessage().ofKindError().atLine(4).contains("incompatible types")
+                .createCompileTestConfiguration();
+
+        CompilationResult compilationResult = compile(compileTestConfiguration);
+        try {
+            MatcherAssert.assertThat(compilationResult.isCompilationAborted(), Matchers.is(true));
+            MatcherAssert.assertThat(compilationResult.getDiagnosticsIndex().getEntries(Diagnostic.Kind.ERROR), Matchers.hasSize(1));
+        } finally {
+            compilationResult.releaseCompilerSession();
+        }
+
+        new CompileTest(compileTestConfiguration).executeTest();
+
+    }
+
+    @Test
+    public void test_shouldNotAbortIfOtherChecksAreConfigured() {
+
+        CompilationResult compilationResult = compile(Cute.blackBoxTest().given().processor(SimpleTestProcessor1.class)
+                .andSourceFiles(INVALID_SOURCE)
+                .andFailFast()
+                .whenCompiled().thenExpectThat().compilationFails()
+                .andThat().compilerMessage().ofKindError().atLine(4).contains("incompatible types")
+                .andThat().generatedSourceFile("io.toolisticon.cute.InvalidClassGeneratedClass").exists()
+                .createCompileTestConfiguration());
+
+        try {
+            MatcherAssert.assertThat(compilationResult.isCompilationAborted(), Matchers.is(false));
+            MatcherAssert.assertThat(compilationResult.getDiagnosticsIndex().getEntries(Diagnostic.Kind.ERROR), Matchers.hasSize(2));
+        } finally {
+            compilationResult.releaseCompilerSession();
+        }
+
+    }
+
+    @Test
+    public void test_shouldAbortAtErrorPrintedByProcessor() {
+
+        CompilationResult compilationResult = compile(Cute.blackBoxTest().given().processor(ErrorPrintingProcessor.class)
+                .andSourceFiles("/compiletests/generatedclasstest/TestClass.java")
+                .andFailFast()
+                .whenCompiled().thenExpectThat().compilationSucceeds()
+                .createCompileTestConfiguration());
+
+        try {
+            MatcherAssert.assertThat(compilationResult.isCompilationAborted(), Matchers.is(true));
+            MatcherAssert.assertThat(compilationResult.getDiagnosticsIndex().getMessages(Diagnostic.Kind.ERROR, null), Matchers.contains("FIRST ERROR"));
+        } finally {
+            compilationResult.releaseCompilerSession();
+        }
+
+    }
+
+}
@@ -1,18 +1,82 @@
 package io.toolisticon.cute.matchers;
 
+import io.toolisticon.cute.Constants;
 import io.toolisticon.cute.FailingAssertionException;
+import io.toolisticon.cute.InMemoryFileObject;
 import io.toolisticon.cute.JavaFileObjectUtils;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.Test;
 
 import javax.tools.FileObject;
+import javax.tools.SimpleJavaFileObject;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Unit test for {@link BinaryGeneratedFileObjectMatcher}.
  */
 public class BinaryGeneratedFileObjectMatcherTest {
 
+    private static class InMemoryTestFileObject extends SimpleJavaFileObject implements InMemoryFileObject {
+
+        private final byte[] content;
+        private boolean streamOpened = false;
+
+        InMemoryTestFileObject(byte[] content) {
+            super(URI.create("mem://test"), Kind.OTHER);
+            this.content = content;
+        }
+
+        @Override
+        public ByteBuffer getContentAsByteBuffer() {
+            return ByteBuffer.wrap(content).asReadOnlyBuffer();
+        }
+
+        @Override
+        public int getContentLength() {
+            return content.length;
+        }
+
+        @Override
+        public InputStream openInputStream() {
+            streamOpened = true;
+            return new ByteArrayInputStream(content);
+        }
+    }
+
+    private static byte[] createContent(int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+
+    private static FileObject createStreamedFileObject(byte[] content) {
+        return new SimpleJavaFileObject(URI.create("mem://streamed"), SimpleJavaFileObject.Kind.OTHER) {
+            @Override
+            public InputStream openInputStream() {
+                return new ByteArrayInputStream(content);
+            }
+        };
+    }
+
+    private static String getFailureMessage(FileObject expected, FileObject actual) throws IOException {
+
+        try {
+            new BinaryGeneratedFileObjectMatcher(expected).check(actual);
+        } catch (FailingAssertionException e) {
+            return e.getMessage();
+        }
+
+        throw new IllegalStateException("FailingAssertionException should have been triggered");
+
+    }
 
     @Test
     public void check_matchingFiles() throws IOException {
@@ -38,5 +102,100 @@ public class BinaryGeneratedFileObjectMatcherTest {
 
     }
 
+    @Test
+    public void check_nonMatchingFiles_shouldReportOffsetAndHexWindow() throws IOException {
+
+        String message = getFailureMessage(JavaFileObjectUtils.readFromString("ABCDEF"), JavaFileObjectUtils.readFromString("ABCXEF"));
+
+        MatcherAssert.assertThat(message, Matchers.containsString("first difference at offset 3"));
+        MatcherAssert.assertThat(message, Matchers.containsString("expected: @00000000: 41 42 43 [44] 45 46"));
+        MatcherAssert.assertThat(message, Matchers.containsString("actual  : @00000000: 41 42 43 [58] 45 46"));
+
+    }
+
+    @Test
+    public void check_streamedContentWithDifferentLength_shouldReportEndOfContent() throws IOException {
+
+        String message = getFailureMessage(JavaFileObjectUtils.readFromString("ABC"), JavaFileObjectUtils.readFromString("ABCD"));
+
+        MatcherAssert.assertThat(message, Matchers.containsString("first difference at offset 3"));
+        MatcherAssert.assertThat(message, Matchers.containsString("expected: @00000000: 41 42 43 [EOF]"));
+        MatcherAssert.assertThat(message, Matchers.containsString("actual  : @00000000: 41 42 43 [44]"));
+
+    }
+
+    @Test
+    public void check_streamedContentSpanningMultipleChunks() throws IOException {
+
+        int size = BinaryGeneratedFileObjectMatcher.CHUNK_SIZE * 2 + 100;
+        byte[] expected = createContent(size);
+        byte[] actual = Arrays.copyOf(expected, size);
+
+        BinaryGeneratedFileObjectMatcher unit = new BinaryGeneratedFileObjectMatcher(new InMemoryTestFileObject(expected));
+        MatcherAssert.assertThat("Must match", unit.check(createStreamedFileObject(actual)));
+
+        int mismatchOffset = BinaryGeneratedFileObjectMatcher.CHUNK_SIZE + 42;
+        actual[mismatchOffset] = (byte) 0xff;
+        String message = getFailureMessage(new InMemoryTestFileObject(expected), createStreamedFileObject(actual));
+
+        MatcherAssert.assertThat(message, Matchers.containsString("first difference at offset " + mismatchOffset));
+        MatcherAssert.assertThat(message, Matchers.containsString("[2a]"));
+        MatcherAssert.assertThat(message, Matchers.containsString("[ff]"));
+
+    }
+
+    @Test
+    public void check_inMemoryContents_shouldBeComparedWithoutStreams() throws IOException {
+
+        InMemoryTestFileObject expected = new InMemoryTestFileObject(createContent(1000));
+        InMemoryTestFileObject actual = new InMemoryTestFileObject(createContent(1000));
+
+        MatcherAssert.assertThat("Must match", new BinaryGeneratedFileObjectMatcher(expected).check(actual));
+        MatcherAssert.assertThat(expected.streamOpened, Matchers.is(false));
+        MatcherAssert.assertThat(actual.streamOpened, Matchers.is(false));
+
+    }
+
+    @Test
+    public void check_inMemoryContents_nonMatching() throws IOException {
+
+        byte[] content = createContent(1000);
+        content[500] = (byte) 0xff;
+
+        String message = getFailureMessage(new InMemoryTestFileObject(createContent(1000)), new InMemoryTestFileObject(content));
+
+        MatcherAssert.assertThat(message, Matchers.containsString("first difference at offset 500"));
+        MatcherAssert.assertThat(message, Matchers.containsString("expected: @000001e4: e4 e5 e6 e7 e8 e9 ea eb ec ed ee ef f0 f1 f2 f3 [f4] f5"));
+        MatcherAssert.assertThat(message, Matchers.containsString("actual  : @000001e4: e4 e5 e6 e7 e8 e9 ea eb ec ed ee ef f0 f1 f2 f3 [ff] f5"));
+
+    }
+
+    @Test
+    public void check_inMemoryContentsWithDifferentLength_shouldShortCircuit() throws IOException {
+
+        InMemoryTestFileObject expected = new InMemoryTestFileObject(createContent(1000));
+        InMemoryTestFileObject actual = new InMemoryTestFileObject(createContent(999));
+
+        MatcherAssert.assertThat(getFailureMessage(expected, actual), Matchers.is(Constants.Messages.GFOM_FILEOBJECTS_ARENT_EQUAL_BY_BINARY_COMPARISION_SIZE.produceMessage(1000, 999)));
+        MatcherAssert.assertThat(expected.streamOpened, Matchers.is(false));
+        MatcherAssert.assertThat(actual.streamOpened, Matchers.is(false));
+
+    }
+
+    @Test
+    public void mismatch_shouldFindDifferenceInWordAndTail() {
+
+        byte[] content = createContent(21);
+
+        for (int i = 0; i < content.length; i++) {
+            byte[] changedContent = Arrays.copyOf(content, content.length);
+            changedContent[i] = (byte) 0xff;
+            MatcherAssert.assertThat(BinaryGeneratedFileObjectMatcher.mismatch(ByteBuffer.wrap(content), ByteBuffer.wrap(changedContent), content.length), Matchers.is(i));
+        }
+
+        MatcherAssert.assertThat(BinaryGeneratedFileObjectMatcher.mismatch(ByteBuffer.wrap(content), ByteBuffer.wrap(createContent(21)), content.length), Matchers.is(-1));
+
+    }
+
 
-}
\ No newline at end of file
+}
@@ -1,10 +1,20 @@
 package io.toolisticon.cute.matchers;
 
+import io.toolisticon.cute.Constants;
 import io.toolisticon.cute.FailingAssertionException;
 import io.toolisticon.cute.JavaFileObjectUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.Test;
 
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
 import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Unit test for {@link ContainsStringsGeneratedFileObjectMatcher}.
@@ -25,6 +35,82 @@ public class ContainsStringsGeneratedFileObjectMatcherTest {
 
     }
 
+    private static String getFailureMessage(FileObject fileObject, String... stringsToCheck) throws IOException {
+
+        try {
+            new ContainsStringsGeneratedFileObjectMatcher(stringsToCheck).check(fileObject);
+        } catch (FailingAssertionException e) {
+            return e.getMessage();
+        }
+
+        throw new IllegalStateException("FailingAssertionException should have been triggered");
+
+    }
+
+    @Test
+    public void testForContainingStrings_overlappingStrings() throws IOException {
+
+        FileObject fileObject = JavaFileObjectUtils.readFromString("xushersx");
+
+        MatcherAssert.assertThat("Must match", new ContainsStringsGeneratedFileObjectMatcher("he", "she", "hers", "us", "s", "").check(fileObject));
+        MatcherAssert.assertThat("Must match", new ContainsStringsGeneratedFileObjectMatcher("xushersx", "she", "she").check(fileObject));
+        MatcherAssert.assertThat("Must match", new ContainsStringsGeneratedFileObjectMatcher().check(fileObject));
+
+    }
+
+    @Test
+    public void testForContainingStrings_shouldReportAllMissingStrings() throws IOException {
+
+        FileObject fileObject = JavaFileObjectUtils.readFromString("<html>\n<head>\n</head>\n<body>\n</body>\n</html>");
+        String message = getFailureMessage(fileObject, "head", "whoop", "body", "didoo", "hers");
+
+        MatcherAssert.assertThat(message, Matchers.is(Constants.Messages.GFOM_COULDNT_FIND_SUBSTRINGS.produceMessage(Arrays.asList("whoop", "didoo", "hers"), fileObject.getName())));
+
+    }
+
+    @Test
+    public void testForContainingStrings_singleMissingString() throws IOException {
+
+        FileObject fileObject = JavaFileObjectUtils.readFromString("abc");
+        String message = getFailureMessage(fileObject, "abc", "abcd");
+
+        MatcherAssert.assertThat(message, Matchers.is(Constants.Messages.GFOM_COULDNT_FIND_SUBSTRING.produceMessage("abcd", fileObject.getName())));
+
+    }
+
+    @Test
+    public void testForContainingStrings_stringsSpanningBuffers() throws IOException {
+
+        StringBuilder content = new StringBuilder();
+        List<String> stringsToCheck = new ArrayList<>();
+        for (int i = 0; content.length() < ContainsStringsGeneratedFileObjectMatcher.BUFFER_SIZE * 3; i++) {
+            content.append("fragment").append(i).append(";\n");
+            if (i % 97 == 0) {
+                stringsToCheck.add("fragment" + i + ";");
+            }
+        }
+
+        MatcherAssert.assertThat("Must match", new ContainsStringsGeneratedFileObjectMatcher(stringsToCheck.toArray(new String[0])).check(JavaFileObjectUtils.readFromString(content.toString())));
+
+        stringsToCheck.add("fragment;");
+        MatcherAssert.assertThat(getFailureMessage(JavaFileObjectUtils.readFromString(content.toString()), stringsToCheck.toArray(new String[0])), Matchers.containsString("fragment;"));
+
+    }
+
+    @Test
+    public void testForContainingStrings_fileObjectWithoutInputStream() throws IOException {
+
+        FileObject fileObject = new SimpleJavaFileObject(URI.create("string:///Test.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return "public class Test {}";
+            }
+        };
+
+        MatcherAssert.assertThat("Must match", new ContainsStringsGeneratedFileObjectMatcher("class Test", "{}").check(fileObject));
+
+    }
+
     /*-
     @Test
     public void checkUsageOnFileObject() {
@@ -7,6 +7,8 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import javax.tools.FileObject;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 
 public class CoreGeneratedFileObjectMatchersTest {
@@ -36,6 +38,34 @@ public class CoreGeneratedFileObjectMatchersTest {
 
     }
 
+    @Test
+    public void createRegexMatcher_withMaxTime() {
+
+        GeneratedFileObjectMatcher unit = CoreGeneratedFileObjectMatchers.createRegexMatcher("ABC", Duration.ofSeconds(1));
+        MatcherAssert.assertThat(unit, Matchers.isA(RegexGeneratedFileObjectMatcher.class));
+        MatcherAssert.assertThat(((RegexGeneratedFileObjectMatcher) unit).patternString, Matchers.is("ABC"));
+        MatcherAssert.assertThat(((RegexGeneratedFileObjectMatcher) unit).maxTime, Matchers.is(Duration.ofSeconds(1)));
+
+    }
+
+    @Test
+    public void createRegexFragmentsMatcher() {
+
+        GeneratedFileObjectMatcher unit = CoreGeneratedFileObjectMatchers.createRegexFragmentsMatcher("ABC", "DEF");
+        MatcherAssert.assertThat(unit, Matchers.isA(RegexGeneratedFileObjectMatcher.class));
+        MatcherAssert.assertThat(((RegexGeneratedFileObjectMatcher) unit).patternString, Matchers.nullValue());
+        MatcherAssert.assertThat(((RegexGeneratedFileObjectMatcher) unit).fragmentPatternStrings, Matchers.contains("ABC", "DEF"));
+        MatcherAssert.assertThat(((RegexGeneratedFileObjectMatcher) unit).maxTime, Matchers.is(RegexGeneratedFileObjectMatcher.DEFAULT_MAX_TIME));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void createRegexFragmentsMatcher_nullValuedPattern() {
+
+        CoreGeneratedFileObjectMatchers.createRegexFragmentsMatcher("ABC", null);
+
+    }
+
     @Test
     public void createIsWellFormedXmlMatcher() {
 
@@ -61,6 +91,24 @@ public class CoreGeneratedFileObjectMatchersTest {
 
     }
 
+    @Test
+    public void createIgnoreLineEndingsMatcher_withCharset() {
+
+        FileObject fo = Mockito.mock(FileObject.class);
+        GeneratedFileObjectMatcher unit = CoreGeneratedFileObjectMatchers.createIgnoreLineEndingsMatcher(fo, StandardCharsets.ISO_8859_1);
+        MatcherAssert.assertThat(unit, Matchers.isA(IgnoreLineEndingsGeneratedFileObjectMatcher.class));
+        MatcherAssert.assertThat(((IgnoreLineEndingsGeneratedFileObjectMatcher) unit).expectedFileObject, Matchers.is(fo));
+        MatcherAssert.assertThat(((IgnoreLineEndingsGeneratedFileObjectMatcher) unit).charset, Matchers.is(StandardCharsets.ISO_8859_1));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void createIgnoreLineEndingsMatcher_nullValuedCharset() {
+
+        CoreGeneratedFileObjectMatchers.createIgnoreLineEndingsMatcher(Mockito.mock(FileObject.class), null);
+
+    }
+
     @Test
     public void createBinaryMatcher() {
 
@@ -3,13 +3,51 @@ package io.toolisticon.cute.matchers;
 import io.toolisticon.cute.FailingAssertionException;
 import io.toolisticon.cute.JavaFileObjectUtils;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.Test;
 
 import javax.tools.FileObject;
+import javax.tools.SimpleJavaFileObject;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 public class IgnoreLineEndingsGeneratedFileObjectMatcherTest {
 
+    private static FileObject createFileObject(String content, Charset charset) {
+        return new SimpleJavaFileObject(URI.create("mem://test"), SimpleJavaFileObject.Kind.OTHER) {
+            @Override
+            public InputStream openInputStream() {
+                return new ByteArrayInputStream(content.getBytes(charset));
+            }
+        };
+    }
+
+    private static boolean matches(String expected, String actual) throws IOException {
+
+        try {
+            return new IgnoreLineEndingsGeneratedFileObjectMatcher(JavaFileObjectUtils.readFromString(expected)).check(JavaFileObjectUtils.readFromString(actual));
+        } catch (FailingAssertionException e) {
+            return false;
+        }
+
+    }
+
+    private static String getFailureMessage(String expected, String actual) throws IOException {
+
+        try {
+            new IgnoreLineEndingsGeneratedFileObjectMatcher(JavaFileObjectUtils.readFromString(expected)).check(JavaFileObjectUtils.readFromString(actual));
+        } catch (FailingAssertionException e) {
+            return e.getMessage();
+        }
+
+        throw new IllegalStateException("FailingAssertionException should have been triggered");
+
+    }
+
     @Test
     public void check_matchingFiles() throws IOException {
 
@@ -34,4 +72,61 @@ public class IgnoreLineEndingsGeneratedFileObjectMatcherTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void check_lineEndings() throws IOException {
+
+        MatcherAssert.assertThat(matches("A\rB\r\nC\nD", "A\nB\rC\r\nD"), Matchers.is(true));
+        MatcherAssert.assertThat(matches("A\r\rB", "A\n\nB"), Matchers.is(true));
+        MatcherAssert.assertThat(matches("A\r\nB", "A\n\nB"), Matchers.is(false));
+        MatcherAssert.assertThat(matches("A\r\n\nB", "A\n\nB"), Matchers.is(true));
+
+    }
+
+    @Test
+    public void check_lineEndingAtEndOfContent() throws IOException {
+
+        // behaves like comparing the lines returned by BufferedReader.readLine()
+        MatcherAssert.assertThat(matches("ABC", "ABC\r\n"), Matchers.is(true));
+        MatcherAssert.assertThat(matches("ABC\n", "ABC"), Matchers.is(true));
+        MatcherAssert.assertThat(matches("ABC\n\n", "ABC"), Matchers.is(false));
+        MatcherAssert.assertThat(matches("ABC\n\n", "ABC\n"), Matchers.is(false));
+        MatcherAssert.assertThat(matches("", "\n"), Matchers.is(false));
+        MatcherAssert.assertThat(matches("", ""), Matchers.is(true));
+
+    }
+
+    @Test
+    public void check_shouldReportLineAndColumnOfFirstDifference() throws IOException {
+
+        MatcherAssert.assertThat(getFailureMessage("ABC\r\nDEF\r\nGHI", "ABC\nDEF\nGXI"), Matchers.containsString("first difference at line 3, column 2 - expected 'H', but got 'X'"));
+        MatcherAssert.assertThat(getFailureMessage("ABC\nDEF", "ABC\nDE"), Matchers.containsString("first difference at line 2, column 3 - expected 'F', but got <end of content>"));
+        MatcherAssert.assertThat(getFailureMessage("ABC\nDEF", "ABCD\nEF"), Matchers.containsString("first difference at line 1, column 4 - expected <end of line>, but got 'D'"));
+
+    }
+
+    @Test
+    public void check_largeContentSpanningMultipleBuffers() throws IOException {
+
+        StringBuilder expected = new StringBuilder();
+        StringBuilder actual = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            expected.append("line ").append(i).append("\r\n");
+            actual.append("line ").append(i == 9999 ? "X" : String.valueOf(i)).append("\n");
+        }
+
+        MatcherAssert.assertThat(getFailureMessage(expected.toString(), actual.toString()), Matchers.containsString("first difference at line 10000, column 6 - expected '9', but got 'X'"));
+
+    }
+
+    @Test
+    public void check_withCharset() throws IOException {
+
+        String content = "Grüße\r\n€";
+        FileObject expected = createFileObject(content, StandardCharsets.UTF_16LE);
+        FileObject actual = createFileObject(content.replace("\r\n", "\n"), StandardCharsets.UTF_16LE);
+
+        MatcherAssert.assertThat("Must match", new IgnoreLineEndingsGeneratedFileObjectMatcher(expected, StandardCharsets.UTF_16LE).check(actual));
+
+    }
+
+}
@@ -1,10 +1,15 @@
 package io.toolisticon.cute.matchers;
 
 import io.toolisticon.cute.FailingAssertionException;
+import io.toolisticon.cute.GeneratedFileObjectMatcher;
 import io.toolisticon.cute.JavaFileObjectUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
 
 
 /**
@@ -12,6 +17,22 @@ import java.io.IOException;
  */
 public class RegexGeneratedFileObjectMatcherTest {
 
+    private static String repeat(String string, int times) {
+        return String.join("", Collections.nCopies(times, string));
+    }
+
+    private static String getFailureMessage(GeneratedFileObjectMatcher matcher, String content) throws IOException {
+
+        try {
+            matcher.check(JavaFileObjectUtils.readFromString(content));
+        } catch (FailingAssertionException e) {
+            return e.getMessage();
+        }
+
+        throw new IllegalStateException("FailingAssertionException should have been triggered");
+
+    }
+
     @Test
     public void testForRegexMatcher_valid() throws IOException {
 
@@ -26,5 +47,71 @@ public class RegexGeneratedFileObjectMatcherTest {
 
     }
 
+    @Test
+    public void testForRegexMatcher_invalid_shouldTruncateContentInMessage() throws IOException {
+
+        String content = repeat("x", RegexGeneratedFileObjectMatcher.MAX_EXCERPT_LENGTH + 100);
+
+        String message = getFailureMessage(CoreGeneratedFileObjectMatchers.createRegexMatcher(".*abc.*"), content);
+
+        MatcherAssert.assertThat(message, Matchers.containsString(repeat("x", RegexGeneratedFileObjectMatcher.MAX_EXCERPT_LENGTH) + "...[100 more characters]"));
+        MatcherAssert.assertThat(message, Matchers.not(Matchers.containsString(content)));
+
+    }
+
+    @Test
+    public void testForRegexFragmentsMatcher_valid() throws IOException {
+
+        MatcherAssert.assertThat("Must match", CoreGeneratedFileObjectMatchers.createRegexFragmentsMatcher("class \\w+", "void\\s+foo\\(", "bar").check(JavaFileObjectUtils.readFromString("public class Abc {\n  void foo() {\n    bar();\n  }\n}")));
+
+    }
+
+    @Test
+    public void testForRegexFragmentsMatcher_fragmentsMustBeFoundInOrder() throws IOException {
+
+        String message = getFailureMessage(CoreGeneratedFileObjectMatchers.createRegexFragmentsMatcher("foo", "bar", "baz"), "baz foo bar");
+
+        MatcherAssert.assertThat(message, Matchers.containsString("Couldn't find fragment 3 of 3 matching pattern 'baz' after offset 11"));
+
+    }
+
+    @Test
+    public void testForRegexFragmentsMatcher_shouldShowExcerptAfterLastFoundFragment() throws IOException {
+
+        String message = getFailureMessage(CoreGeneratedFileObjectMatchers.createRegexFragmentsMatcher("foo", "baz"), "start foo bar");
+
+        MatcherAssert.assertThat(message, Matchers.containsString("Couldn't find fragment 2 of 2 matching pattern 'baz' after offset 9 in file ' bar'"));
+
+    }
+
+    @Test
+    public void testForRegexMatcher_stepBudgetExceeded() throws IOException {
+
+        RegexGeneratedFileObjectMatcher unit = new RegexGeneratedFileObjectMatcher("(.*a){12}b", Collections.emptyList(), Duration.ofMinutes(1), 10000L);
+
+        String message = getFailureMessage(unit, repeat("a", 40));
+
+        MatcherAssert.assertThat(message, Matchers.containsString("Matching pattern '(.*a){12}b' has been aborted after 10001 steps"));
+
+    }
+
+    @Test
+    public void testForRegexMatcher_timeBudgetExceeded() throws IOException {
+
+        long start = System.nanoTime();
+        String message = getFailureMessage(CoreGeneratedFileObjectMatchers.createRegexMatcher("(.*a){12}b", Duration.ofMillis(50)), repeat("a", 40));
+
+        MatcherAssert.assertThat(message, Matchers.containsString("has been aborted"));
+        MatcherAssert.assertThat(Duration.ofNanos(System.nanoTime() - start).getSeconds(), Matchers.lessThan(5L));
+
+    }
+
+    @Test
+    public void getPattern_shouldCacheCompiledPatterns() {
+
+        MatcherAssert.assertThat(RegexGeneratedFileObjectMatcher.getPattern("cached.*pattern"), Matchers.sameInstance(RegexGeneratedFileObjectMatcher.getPattern("cached.*pattern")));
+
+    }
+
 
 }
@@ -2,6 +2,8 @@ package io.toolisticon.cute.matchers;
 
 import io.toolisticon.cute.FailingAssertionException;
 import io.toolisticon.cute.JavaFileObjectUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.Test;
 
 import java.io.IOException;
@@ -25,5 +27,33 @@ public class WellFormedXmlGerneratedFileObjectMatcherTest {
 
     }
 
+    @Test
+    public void testForWellFormedXml_invalidXml_shouldReportCause() throws IOException {
+
+        try {
+            CoreGeneratedFileObjectMatchers.createIsWellFormedXmlMatcher().check(JavaFileObjectUtils.readFromString("<html>\n<head>\n</html>"));
+        } catch (FailingAssertionException e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("is no well formed xml file: "));
+            return;
+        }
+
+        throw new AssertionError("FailingAssertionException should have been triggered");
+
+    }
+
+    @Test(expected = FailingAssertionException.class)
+    public void testForWellFormedXml_multipleRootElements() throws IOException {
+
+        CoreGeneratedFileObjectMatchers.createIsWellFormedXmlMatcher().check(JavaFileObjectUtils.readFromString("<a/><b/>"));
+
+    }
+
+    @Test
+    public void testForWellFormedXml_externalDtdShouldNotBeLoaded() throws IOException {
+
+        CoreGeneratedFileObjectMatchers.createIsWellFormedXmlMatcher().check(JavaFileObjectUtils.readFromString("<?xml version=\"1.0\"?>\n<!DOCTYPE html SYSTEM \"http://localhost:1/doesnt/exist.dtd\">\n<html></html>"));
+
+    }
+
 
 }
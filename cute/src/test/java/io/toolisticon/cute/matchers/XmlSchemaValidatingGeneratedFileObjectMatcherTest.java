@@ -0,0 +1,67 @@
+package io.toolisticon.cute.matchers;
+
+import io.toolisticon.cute.FailingAssertionException;
+import io.toolisticon.cute.JavaFileObjectUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.io.IOException;
+
+/**
+ * Unit test for {@link XmlSchemaValidatingGeneratedFileObjectMatcher}.
+ */
+public class XmlSchemaValidatingGeneratedFileObjectMatcherTest {
+
+    private static final String SCHEMA_LOCATION = "/xmlschema/services.xsd";
+
+    @Test
+    public void testForValidXml_validXml() throws IOException {
+
+        MatcherAssert.assertThat("Must match", CoreGeneratedFileObjectMatchers.createIsValidXmlMatcher(SCHEMA_LOCATION).check(JavaFileObjectUtils.readFromString("<services>\n<service name=\"abc\" priority=\"1\"/>\n<service name=\"def\"/>\n</services>")));
+
+    }
+
+    @Test
+    public void testForValidXml_invalidXml() throws IOException {
+
+        try {
+            CoreGeneratedFileObjectMatchers.createIsValidXmlMatcher(SCHEMA_LOCATION).check(JavaFileObjectUtils.readFromString("<services>\n<service priority=\"high\"/>\n</services>"));
+        } catch (FailingAssertionException e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("isn't valid according to xml schema " + SCHEMA_LOCATION));
+            return;
+        }
+
+        throw new AssertionError("FailingAssertionException should have been triggered");
+
+    }
+
+    @Test(expected = FailingAssertionException.class)
+    public void testForValidXml_notWellFormedXml() throws IOException {
+
+        CoreGeneratedFileObjectMatchers.createIsValidXmlMatcher(SCHEMA_LOCATION).check(JavaFileObjectUtils.readFromString("<services>\n<service name=\"abc\">\n</services>"));
+
+    }
+
+    @Test
+    public void getSchema_shouldCacheCompiledSchema() {
+
+        MatcherAssert.assertThat(XmlSchemaValidatingGeneratedFileObjectMatcher.getSchema(SCHEMA_LOCATION), Matchers.sameInstance(XmlSchemaValidatingGeneratedFileObjectMatcher.getSchema(SCHEMA_LOCATION)));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void createIsValidXmlMatcher_nonExistingSchema() {
+
+        CoreGeneratedFileObjectMatchers.createIsValidXmlMatcher("/xmlschema/doesntExist.xsd");
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void createIsValidXmlMatcher_nullValued() {
+
+        CoreGeneratedFileObjectMatchers.createIsValidXmlMatcher(null);
+
+    }
+
+}
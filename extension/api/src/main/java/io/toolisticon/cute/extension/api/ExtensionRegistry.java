@@ -0,0 +1,218 @@
+package io.toolisticon.cute.extension.api;
+
+import io.toolisticon.spiap.api.OutOfService;
+import io.toolisticon.spiap.api.Service;
+import io.toolisticon.spiap.api.Services;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Central registry of the extensions used by cute.
+ * <p>
+ * Each spi is resolved once per class loader - the context class loader of the current thread is used.
+ * The implementation with the lowest priority wins, implementations marked as out of service are ignored.
+ * Priorities are read from the {@link Service} annotation and the spiap property files, like the generated service locators do.
+ * <p>
+ * Implementations can be overridden programmatically, for example in tests. Overrides apply to all class loaders.
+ */
+public final class ExtensionRegistry {
+
+    /**
+     * Placeholder for spis without implementation, since ConcurrentHashMap doesn't support null values.
+     */
+    private static final Object NO_IMPLEMENTATION = new Object();
+
+    private static final Map<Class<?>, Object> OVERRIDES = new ConcurrentHashMap<>();
+
+    private static final Map<ClassLoader, Map<Class<?>, Object>> RESOLVED_IMPLEMENTATIONS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Hidden constructor.
+     */
+    private ExtensionRegistry() {
+
+    }
+
+    /**
+     * Gets the implementation of the passed spi.
+     *
+     * @param spi the spi
+     * @param <T> the type of the spi
+     * @return the overridden implementation or the implementation with the lowest priority, null if no implementation is available
+     */
+    public static <T> T locate(Class<T> spi) {
+
+        Object override = OVERRIDES.get(spi);
+        if (override != null) {
+            return spi.cast(override);
+        }
+
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = ExtensionRegistry.class.getClassLoader();
+        }
+
+        Map<Class<?>, Object> resolvedImplementations;
+        synchronized (RESOLVED_IMPLEMENTATIONS) {
+            resolvedImplementations = RESOLVED_IMPLEMENTATIONS.computeIfAbsent(classLoader, k -> new ConcurrentHashMap<>());
+        }
+
+        final ClassLoader classLoaderToUse = classLoader;
+        Object implementation = resolvedImplementations.computeIfAbsent(spi, k -> resolve(spi, classLoaderToUse));
+        return implementation != NO_IMPLEMENTATION ? spi.cast(implementation) : null;
+
+    }
+
+    /**
+     * Gets the implementation of the {@link AssertionSpi}.
+     *
+     * @return the implementation or null if no implementation is available
+     */
+    public static AssertionSpi locateAssertionSpi() {
+        return locate(AssertionSpi.class);
+    }
+
+    /**
+     * Gets the implementation of the {@link ModuleSupportSpi}.
+     *
+     * @return the implementation or null if no implementation is available
+     */
+    public static ModuleSupportSpi locateModuleSupportSpi() {
+        return locate(ModuleSupportSpi.class);
+    }
+
+    /**
+     * Overrides the implementation of a spi.
+     *
+     * @param spi            the spi
+     * @param implementation the implementation to use or null to remove the override
+     * @param <T>            the type of the spi
+     */
+    public static <T> void override(Class<T> spi, T implementation) {
+        if (implementation != null) {
+            OVERRIDES.put(spi, implementation);
+        } else {
+            OVERRIDES.remove(spi);
+        }
+    }
+
+    /**
+     * Removes all overrides and all resolved implementations. Implementations will be resolved again on next access.
+     */
+    public static void reset() {
+        OVERRIDES.clear();
+        RESOLVED_IMPLEMENTATIONS.clear();
+    }
+
+    private static <T> Object resolve(Class<T> spi, ClassLoader classLoader) {
+
+        List<T> implementations = new ArrayList<>();
+        final Map<T, Integer> priorities = new HashMap<>();
+
+        Iterator<T> iterator = ServiceLoader.load(spi, classLoader).iterator();
+        while (iterator.hasNext()) {
+            try {
+
+                T implementation = iterator.next();
+
+                Properties properties = getProperties(spi, implementation);
+                if (!isOutOfService(implementation, properties)) {
+                    implementations.add(implementation);
+                    priorities.put(implementation, getPriority(spi, implementation, properties));
+                }
+
+            } catch (Error e) {
+                // broken implementations are ignored, like the generated service locators do
+                e.printStackTrace(System.err);
+            }
+        }
+
+        // sort is stable, so order of ServiceLoader is kept for same priorities
+        implementations.sort(Comparator.comparing(priorities::get));
+
+        return implementations.isEmpty() ? NO_IMPLEMENTATION : implementations.get(0);
+
+    }
+
+    private static Service getServiceAnnotation(Class<?> spi, Object implementation) {
+
+        try {
+
+            Service serviceAnnotation = implementation.getClass().getAnnotation(Service.class);
+            if (serviceAnnotation == null) {
+                Services servicesAnnotation = implementation.getClass().getAnnotation(Services.class);
+                if (servicesAnnotation != null) {
+                    for (Service service : servicesAnnotation.value()) {
+                        if (spi.equals(service.value())) {
+                            return service;
+                        }
+                    }
+                }
+            }
+            return serviceAnnotation;
+
+        } catch (NoClassDefFoundError e) {
+            return null;
+        }
+
+    }
+
+    private static Properties getProperties(Class<?> spi, Object implementation) {
+
+        String propertyFileName = "/META-INF/spiap/" + spi.getCanonicalName() + "/" + implementation.getClass().getCanonicalName() + ".properties";
+        try (InputStream inputStream = implementation.getClass().getResourceAsStream(propertyFileName)) {
+
+            if (inputStream != null) {
+                Properties properties = new Properties();
+                properties.load(inputStream);
+                return properties;
+            }
+
+        } catch (Exception e) {
+            // ignore broken property files
+        }
+        return null;
+
+    }
+
+    private static boolean isOutOfService(Object implementation, Properties properties) {
+
+        if (properties != null && properties.getProperty("outOfService") != null) {
+            return Boolean.parseBoolean(properties.getProperty("outOfService"));
+        }
+
+        try {
+            return implementation.getClass().getAnnotation(OutOfService.class) != null;
+        } catch (NoClassDefFoundError e) {
+            return false;
+        }
+
+    }
+
+    private static int getPriority(Class<?> spi, Object implementation, Properties properties) {
+
+        if (properties != null && properties.getProperty("priority") != null) {
+            try {
+                return Integer.parseInt(properties.getProperty("priority"));
+            } catch (NumberFormatException e) {
+                // fall back to annotation
+            }
+        }
+
+        Service serviceAnnotation = getServiceAnnotation(spi, implementation);
+        return serviceAnnotation != null ? serviceAnnotation.priority() : 0;
+
+    }
+
+}
@@ -0,0 +1,138 @@
+package io.toolisticon.cute.extension.modulesupport;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Index of the modules available on the class path.
+ * <p>
+ * Scanning all jars of the class path is expensive, so the index is created once and reused as long as
+ * the class path and the last modification times and sizes of its entries don't change.
+ * Jars are scanned in parallel. Directories are treated as exploded modules if they contain a module-info.class file.
+ */
+final class ModulePathIndex {
+
+    private static volatile ModulePathIndex cachedIndex;
+
+    private final List<String> fingerprint;
+    private final List<Entry> entries;
+    private final Map<String, File> moduleNameToFileMap;
+
+    private ModulePathIndex(List<String> fingerprint, List<Entry> entries) {
+
+        this.fingerprint = fingerprint;
+        this.entries = Collections.unmodifiableList(entries);
+
+        // first occurrence wins, like on the module path
+        Map<String, File> map = new HashMap<>();
+        for (Entry entry : entries) {
+            if (entry.getModuleName() != null && !ModuleSupportService.NO_MODULE.equals(entry.getModuleName())) {
+                map.putIfAbsent(entry.getModuleName(), entry.getFile());
+            }
+        }
+        this.moduleNameToFileMap = Collections.unmodifiableMap(map);
+
+    }
+
+    /**
+     * Gets the index for the current class path.
+     * The index is rebuilt if the class path or any of its entries has been changed since the last call.
+     *
+     * @return the index
+     */
+    static ModulePathIndex get() {
+        return get(ModuleSupportService.getModuleCandidatesFromClasspath());
+    }
+
+    /**
+     * Gets the index for the passed jars and directories.
+     * The index is rebuilt if the files or any of their last modification times or sizes have been changed since the last call.
+     *
+     * @param files the jars and directories in order of the class path
+     * @return the index
+     */
+    static ModulePathIndex get(List<File> files) {
+
+        List<String> fingerprint = getFingerprint(files);
+
+        ModulePathIndex index = cachedIndex;
+        if (index == null || !index.fingerprint.equals(fingerprint)) {
+
+            // concurrent builds are harmless - they produce the same index
+            List<Entry> entries = files.parallelStream()
+                    .map(file -> new Entry(file, ModuleSupportService.getModuleForFile(file)))
+                    .collect(Collectors.toList());
+
+            index = new ModulePathIndex(fingerprint, entries);
+            cachedIndex = index;
+
+        }
+        return index;
+
+    }
+
+    private static List<String> getFingerprint(List<File> files) {
+
+        List<String> fingerprint = new ArrayList<>(files.size());
+        for (File file : files) {
+            // the module-info.class file determines the module of a directory, its content isn't relevant
+            File relevantFile = file.isDirectory() ? new File(file, ModuleSupportService.MODULE_INFO_CLASS) : file;
+            fingerprint.add(file.getAbsolutePath() + "|" + relevantFile.lastModified() + "|" + relevantFile.length());
+        }
+        return fingerprint;
+
+    }
+
+    /**
+     * Gets all scanned class path entries.
+     *
+     * @return the entries in order of the class path
+     */
+    List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Gets the jar file or exploded module directory of a module.
+     *
+     * @param moduleName the name of the module
+     * @return the file or null if module can't be found on class path
+     */
+    File getFile(String moduleName) {
+        return moduleNameToFileMap.get(moduleName);
+    }
+
+    /**
+     * A scanned class path entry.
+     */
+    static final class Entry {
+
+        private final File file;
+        private final String moduleName;
+
+        private Entry(File file, String moduleName) {
+            this.file = file;
+            this.moduleName = moduleName;
+        }
+
+        File getFile() {
+            return file;
+        }
+
+        /**
+         * Gets the name of the module.
+         *
+         * @return the module name or null if entry isn't a module
+         */
+        String getModuleName() {
+            return moduleName;
+        }
+
+    }
+
+}
@@ -7,6 +7,8 @@ import javax.tools.JavaCompiler;
 import javax.tools.StandardJavaFileManager;
 import javax.tools.StandardLocation;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
 import java.lang.module.ModuleDescriptor;
 import java.lang.module.ModuleFinder;
 import java.lang.module.ModuleReference;
@@ -23,6 +25,13 @@ import java.util.zip.ZipEntry;
 @Service(ModuleSupportSpi.class)
 public class ModuleSupportService implements ModuleSupportSpi {
 
+    static final String MODULE_INFO_CLASS = "module-info.class";
+
+    /**
+     * Module name used if module can't be determined because of technical errors
+     */
+    static final String NO_MODULE = "<NO_MODULE>";
+
     @Override
     public void applyModulePath(StandardJavaFileManager stdJavaFileManager, JavaCompiler.CompilationTask compilationTask, Set<String> modules) {
 
@@ -56,15 +65,25 @@ public class ModuleSupportService implements ModuleSupportSpi {
 
     @Override
     public void writeModuleDebugOutput(StringBuilder stringBuilder) {
+        writeModuleDebugOutput(stringBuilder, ModulePathIndex.get());
+    }
+
+    void writeModuleDebugOutput(StringBuilder stringBuilder, ModulePathIndex modulePathIndex) {
 
         int i = 0;
-        for (File file : getJarsFromClasspath()) {
+        for (ModulePathIndex.Entry entry : modulePathIndex.getEntries()) {
+
+            // directories are only relevant if they are exploded modules
+            if (entry.getModuleName() == null && entry.getFile().isDirectory()) {
+                continue;
+            }
+
             stringBuilder.append("[")
                     .append(i++)
                     .append("|")
-                    .append(getModuleForJarFile(file))
+                    .append(entry.getModuleName())
                     .append("] := '")
-                    .append(file.getAbsolutePath())
+                    .append(entry.getFile().getAbsolutePath())
                     .append("'\n");
         }
 
@@ -77,15 +96,14 @@ public class ModuleSupportService implements ModuleSupportSpi {
         if (modules != null) {
             try {
 
+                ModulePathIndex modulePathIndex = ModulePathIndex.get();
 
-                List<File> files = getJarsFromClasspath();
-
-                for (File file : files) {
+                for (String module : modules) {
 
-                    String moduleName = getModuleForJarFile(file);
+                    File file = modulePathIndex.getFile(module);
 
-                    if (moduleName != null) {
-                        moduleToJarMap.put(moduleName, file);
+                    if (file != null) {
+                        moduleToJarMap.put(module, file);
                     }
 
                 }
@@ -103,6 +121,37 @@ public class ModuleSupportService implements ModuleSupportSpi {
 
     }
 
+    /**
+     * Gets the module name for passed jar file or exploded module directory.
+     *
+     * @param file the jar file or directory
+     * @return The name of the module or null if directory isn't an exploded module
+     */
+    static String getModuleForFile(File file) {
+        return file.isDirectory() ? getModuleForDirectory(file) : getModuleForJarFile(file);
+    }
+
+    /**
+     * Gets the module name for passed exploded module directory.
+     *
+     * @param directory the directory
+     * @return The name of the module or null if directory doesn't contain a module-info.class file
+     */
+    static String getModuleForDirectory(File directory) {
+
+        File moduleInfo = new File(directory, MODULE_INFO_CLASS);
+        if (!moduleInfo.isFile()) {
+            return null;
+        }
+
+        try (InputStream inputStream = new FileInputStream(moduleInfo)) {
+            return ModuleDescriptor.read(inputStream).name();
+        } catch (Exception e) {
+            return NO_MODULE;
+        }
+
+    }
+
     /**
      * Gets the module name for passed jar file.
      *
@@ -110,11 +159,9 @@ public class ModuleSupportService implements ModuleSupportSpi {
      * @return The name of the module
      */
     static String getModuleForJarFile(File file) {
-        try {
+        try (JarFile jarFile = new JarFile(file)) {
 
-            JarFile jarFile = new JarFile(file);
-
-            ZipEntry moduleInfo = jarFile.getEntry("module-info.class");
+            ZipEntry moduleInfo = jarFile.getEntry(MODULE_INFO_CLASS);
             if (moduleInfo != null) {
 
                 ModuleDescriptor moduleDescriptorWrapper = ModuleDescriptor.read(jarFile.getInputStream(moduleInfo));
@@ -134,7 +181,7 @@ public class ModuleSupportService implements ModuleSupportSpi {
 
 
         } catch (Exception e) {
-            return "<NO_MODULE>";
+            return NO_MODULE;
         }
     }
 
@@ -160,24 +207,26 @@ public class ModuleSupportService implements ModuleSupportSpi {
     }
 
 
-    static List<File> getJarsFromClasspath() {
-        List<File> urls = new ArrayList<>();
+    /**
+     * Gets all jars and directories of the class path that might be modules.
+     *
+     * @return the jars and directories in order of the class path
+     */
+    static List<File> getModuleCandidatesFromClasspath() {
+        List<File> files = new ArrayList<>();
 
         String[] pathElements = System.getProperty("java.class.path").split(System.getProperty("path.separator"));
 
         for (String pathElement : pathElements) {
 
-            if (pathElement.endsWith(".jar")) {
-
-                File file = new File(pathElement);
-                if (file.exists()) {
-                    urls.add(file);
-                }
-
+            File file = new File(pathElement);
+            if (pathElement.endsWith(".jar") ? file.isFile() : file.isDirectory()) {
+                files.add(file);
             }
+
         }
 
-        return urls;
+        return files;
     }
 
 
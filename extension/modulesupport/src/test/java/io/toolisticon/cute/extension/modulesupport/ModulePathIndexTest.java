@@ -0,0 +1,139 @@
+package io.toolisticon.cute.extension.modulesupport;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Unit test for {@link ModulePathIndex}.
+ */
+public class ModulePathIndexTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File createExplodedModule(String moduleName) throws IOException {
+
+        File directory = temporaryFolder.newFolder();
+        compileModuleInfo(directory, moduleName);
+        return directory;
+
+    }
+
+    private void compileModuleInfo(File directory, String moduleName) throws IOException {
+
+        File sourceDirectory = temporaryFolder.newFolder();
+        File moduleInfoSource = new File(sourceDirectory, "module-info.java");
+        Files.write(moduleInfoSource.toPath(), ("module " + moduleName + " {}").getBytes(StandardCharsets.UTF_8));
+
+        int result = ToolProvider.getSystemJavaCompiler().run(null, null, null, "-d", directory.getAbsolutePath(), moduleInfoSource.getAbsolutePath());
+        MatcherAssert.assertThat(result, Matchers.is(0));
+
+    }
+
+    @Test
+    public void test_get_shouldDetectExplodedModules() throws IOException {
+
+        File moduleDirectory = createExplodedModule("module.a");
+        File directory = temporaryFolder.newFolder();
+
+        ModulePathIndex unit = ModulePathIndex.get(Arrays.asList(directory, moduleDirectory));
+
+        MatcherAssert.assertThat(unit.getEntries(), Matchers.hasSize(2));
+        MatcherAssert.assertThat(unit.getEntries().get(0).getFile(), Matchers.is(directory));
+        MatcherAssert.assertThat(unit.getEntries().get(0).getModuleName(), Matchers.nullValue());
+        MatcherAssert.assertThat(unit.getEntries().get(1).getFile(), Matchers.is(moduleDirectory));
+        MatcherAssert.assertThat(unit.getEntries().get(1).getModuleName(), Matchers.is("module.a"));
+
+        MatcherAssert.assertThat(unit.getFile("module.a"), Matchers.is(moduleDirectory));
+        MatcherAssert.assertThat(unit.getFile("module.b"), Matchers.nullValue());
+
+    }
+
+    @Test
+    public void test_get_firstEntryOfDuplicateModuleShouldWin() throws IOException {
+
+        File firstModuleDirectory = createExplodedModule("module.a");
+        File secondModuleDirectory = createExplodedModule("module.a");
+
+        ModulePathIndex unit = ModulePathIndex.get(Arrays.asList(firstModuleDirectory, secondModuleDirectory));
+
+        MatcherAssert.assertThat(unit.getEntries(), Matchers.hasSize(2));
+        MatcherAssert.assertThat(unit.getFile("module.a"), Matchers.is(firstModuleDirectory));
+
+        unit = ModulePathIndex.get(Arrays.asList(secondModuleDirectory, firstModuleDirectory));
+
+        MatcherAssert.assertThat(unit.getFile("module.a"), Matchers.is(secondModuleDirectory));
+
+    }
+
+    @Test
+    public void test_get_shouldReuseIndexOfUnchangedFiles() throws IOException {
+
+        File moduleDirectory = createExplodedModule("module.a");
+
+        ModulePathIndex unit = ModulePathIndex.get(Collections.singletonList(moduleDirectory));
+
+        MatcherAssert.assertThat(ModulePathIndex.get(Collections.singletonList(moduleDirectory)), Matchers.sameInstance(unit));
+
+    }
+
+    @Test
+    public void test_get_shouldRebuildIndexIfLastModificationTimeChanges() throws IOException {
+
+        File moduleDirectory = createExplodedModule("module.a");
+        File moduleInfo = new File(moduleDirectory, ModuleSupportService.MODULE_INFO_CLASS);
+        long lastModified = moduleInfo.lastModified();
+        long length = moduleInfo.length();
+
+        ModulePathIndex unit = ModulePathIndex.get(Collections.singletonList(moduleDirectory));
+        MatcherAssert.assertThat(unit.getFile("module.a"), Matchers.is(moduleDirectory));
+
+        // same size, just another modification time
+        compileModuleInfo(moduleDirectory, "module.b");
+        MatcherAssert.assertThat(moduleInfo.setLastModified(lastModified + 10000L), Matchers.is(true));
+        MatcherAssert.assertThat(moduleInfo.length(), Matchers.is(length));
+
+        ModulePathIndex rebuiltIndex = ModulePathIndex.get(Collections.singletonList(moduleDirectory));
+
+        MatcherAssert.assertThat(rebuiltIndex, Matchers.not(Matchers.sameInstance(unit)));
+        MatcherAssert.assertThat(rebuiltIndex.getFile("module.a"), Matchers.nullValue());
+        MatcherAssert.assertThat(rebuiltIndex.getFile("module.b"), Matchers.is(moduleDirectory));
+
+    }
+
+    @Test
+    public void test_get_shouldRebuildIndexIfSizeChanges() throws IOException {
+
+        File moduleDirectory = createExplodedModule("module.a");
+        File moduleInfo = new File(moduleDirectory, ModuleSupportService.MODULE_INFO_CLASS);
+        long lastModified = moduleInfo.lastModified();
+        long length = moduleInfo.length();
+
+        ModulePathIndex unit = ModulePathIndex.get(Collections.singletonList(moduleDirectory));
+        MatcherAssert.assertThat(unit.getFile("module.a"), Matchers.is(moduleDirectory));
+
+        // same modification time, just another size
+        compileModuleInfo(moduleDirectory, "module.with.longer.name");
+        MatcherAssert.assertThat(moduleInfo.setLastModified(lastModified), Matchers.is(true));
+        MatcherAssert.assertThat(moduleInfo.length(), Matchers.not(length));
+
+        ModulePathIndex rebuiltIndex = ModulePathIndex.get(Collections.singletonList(moduleDirectory));
+
+        MatcherAssert.assertThat(rebuiltIndex, Matchers.not(Matchers.sameInstance(unit)));
+        MatcherAssert.assertThat(rebuiltIndex.getFile("module.a"), Matchers.nullValue());
+        MatcherAssert.assertThat(rebuiltIndex.getFile("module.with.longer.name"), Matchers.is(moduleDirectory));
+
+    }
+
+}
@@ -0,0 +1,42 @@
+package io.toolisticon.cute.extension.modulesupport;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Unit test for {@link ModuleSupportService}.
+ */
+public class ModuleSupportServiceTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void test_writeModuleDebugOutput_shouldSkipDirectoriesThatAreNoModules() throws IOException {
+
+        File sourceDirectory = temporaryFolder.newFolder();
+        File moduleInfoSource = new File(sourceDirectory, "module-info.java");
+        Files.write(moduleInfoSource.toPath(), "module module.a {}".getBytes(StandardCharsets.UTF_8));
+
+        File moduleDirectory = temporaryFolder.newFolder();
+        MatcherAssert.assertThat(ToolProvider.getSystemJavaCompiler().run(null, null, null, "-d", moduleDirectory.getAbsolutePath(), moduleInfoSource.getAbsolutePath()), Matchers.is(0));
+        File directory = temporaryFolder.newFolder();
+
+        StringBuilder stringBuilder = new StringBuilder();
+        new ModuleSupportService().writeModuleDebugOutput(stringBuilder, ModulePathIndex.get(Arrays.asList(directory, moduleDirectory)));
+
+        MatcherAssert.assertThat(stringBuilder.toString(), Matchers.is("[0|module.a] := '" + moduleDirectory.getAbsolutePath() + "'\n"));
+
+    }
+
+}